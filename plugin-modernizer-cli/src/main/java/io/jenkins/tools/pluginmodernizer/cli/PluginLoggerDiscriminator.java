@@ -4,6 +4,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.sift.AbstractDiscriminator;
 import io.jenkins.tools.pluginmodernizer.cli.options.GlobalOptions;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.impl.PluginModernizer;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import java.nio.file.Path;
 import java.util.List;
@@ -22,13 +23,19 @@ public class PluginLoggerDiscriminator extends AbstractDiscriminator<ILoggingEve
 
         String cachePath = config.getCachePath().toString();
 
-        if (markers == null || markers.isEmpty()) {
+        // Events without marker logged while processing a plugin (possibly concurrently with others)
+        // are attached to the plugin by the MDC of the worker thread
+        String pluginName = null;
+        if (markers != null && !markers.isEmpty()) {
+            pluginName = markers.get(0).getName();
+        } else if (iLoggingEvent.getMDCPropertyMap() != null) {
+            pluginName = iLoggingEvent.getMDCPropertyMap().get(PluginModernizer.PLUGIN_MDC_KEY);
+        }
+        if (pluginName == null) {
             return Path.of(cachePath, "modernizer.logs").toString();
         }
 
-        final Marker marker = markers.get(0);
-        String markerName = marker.getName();
-        Plugin plugin = Plugin.build(markerName);
+        Plugin plugin = Plugin.build(pluginName);
 
         return Path.of(cachePath, plugin.getLogFile().toString()).toString();
     }
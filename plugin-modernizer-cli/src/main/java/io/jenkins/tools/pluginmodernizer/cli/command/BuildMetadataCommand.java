@@ -40,6 +40,12 @@ public class BuildMetadataCommand implements ICommand {
             description = "Path to the authentication key for GitHub. Default to ~/.ssh/id_rsa")
     private Path sshPrivateKey = Settings.SSH_PRIVATE_KEY;
 
+    @CommandLine.Option(
+            names = {"--shallow-clone"},
+            description =
+                    "Clone plugin repositories with a depth of 1 instead of using the local git mirrors. Only the latest commit is needed to collect metadata.")
+    private boolean shallowClone;
+
     /**
      * Global options for all commands
      */
@@ -61,6 +67,7 @@ public class BuildMetadataCommand implements ICommand {
         }
         pluginOptions.config(builder);
         return builder.withSshPrivateKey(sshPrivateKey)
+                .withShallowClone(shallowClone)
                 .withRecipe(Settings.FETCH_METADATA_RECIPE)
                 .build();
     }
@@ -69,7 +76,7 @@ public class BuildMetadataCommand implements ICommand {
     public Integer call() {
         PluginModernizer modernizer = getModernizer();
         try {
-            modernizer.validate();
+            modernizer.startup();
         } catch (ModernizerException e) {
             LOG.error("Validation error");
             LOG.error(e.getMessage());
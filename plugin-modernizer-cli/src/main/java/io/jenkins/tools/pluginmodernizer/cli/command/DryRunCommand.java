@@ -41,6 +41,12 @@ public class DryRunCommand implements ICommand {
             converter = RecipeConverter.class)
     private Recipe recipe;
 
+    @CommandLine.Option(
+            names = {"--single-pass"},
+            description =
+                    "Collect metadata, apply the recipe and collect metadata after modernization in a single OpenRewrite run. Falls back to separate runs when the plugin needs remediation or a first compilation.")
+    public boolean singlePassRewrite;
+
     /**
      * Environment options
      */
@@ -68,7 +74,10 @@ public class DryRunCommand implements ICommand {
         pluginOptions.config(builder);
         githubOptions.config(builder);
         envOptions.config(builder);
-        return builder.withDryRun(true).withRecipe(recipe).build();
+        return builder.withDryRun(true)
+                .withRecipe(recipe)
+                .withSinglePassRewrite(singlePassRewrite)
+                .build();
     }
 
     @Override
@@ -76,7 +85,7 @@ public class DryRunCommand implements ICommand {
         LOG.info("Run Plugin Modernizer in dry-run mode");
         PluginModernizer modernizer = getModernizer();
         try {
-            modernizer.validate();
+            modernizer.startup();
         } catch (ModernizerException e) {
             LOG.error("Validation error");
             LOG.error(e.getMessage());
@@ -52,6 +52,19 @@ public class RunCommand implements ICommand {
                     "Remove forked repositories before and after the modernization process. Might cause data loss if you have other changes pushed on those forks. Forks with open pull request targeting original repo are not removed to prevent closing unmerged pull requests.")
     public boolean removeForks;
 
+    @CommandLine.Option(
+            names = {"--single-pass"},
+            description =
+                    "Collect metadata, apply the recipe and collect metadata after modernization in a single OpenRewrite run. Falls back to separate runs when the plugin needs remediation or a first compilation.")
+    public boolean singlePassRewrite;
+
+    @CommandLine.Option(
+            names = {"--resume"},
+            paramLabel = "<run-id>",
+            description =
+                    "Resume an interrupted run. Each plugin restarts at its first stage not completed by the run, reusing its clone and metadata.")
+    public String resumeRunId;
+
     /**
      * Environment options
      */
@@ -82,6 +95,8 @@ public class RunCommand implements ICommand {
         return builder.withRecipe(recipe)
                 .withDraft(draft)
                 .withRemoveForks(removeForks)
+                .withSinglePassRewrite(singlePassRewrite)
+                .withResumeRunId(resumeRunId)
                 .build();
     }
 
@@ -90,7 +105,7 @@ public class RunCommand implements ICommand {
         LOG.info("Run Plugin Modernizer");
         PluginModernizer modernizer = getModernizer();
         try {
-            modernizer.validate();
+            modernizer.startup();
         } catch (ModernizerException e) {
             LOG.error("Validation error");
             LOG.error(e.getMessage());
@@ -3,8 +3,15 @@ package io.jenkins.tools.pluginmodernizer.cli.options;
 import io.jenkins.tools.pluginmodernizer.cli.VersionProvider;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.AccelerationProfile;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
+import io.jenkins.tools.pluginmodernizer.core.model.GoalType;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
 import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 import picocli.CommandLine;
 
 /**
@@ -55,6 +62,110 @@ public class GlobalOptions implements IOption {
             description = "Path to the Maven local repository.")
     private Path mavenLocalRepo = Settings.DEFAULT_MAVEN_LOCAL_REPO;
 
+    @CommandLine.Option(
+            names = {"--local-repo-mode"},
+            description =
+                    "How concurrent Maven builds share the local repository: ${COMPLETION-CANDIDATES}. SHARED uses no locking, LOCKED uses the file locks of the Maven resolver and OVERLAY gives each build its own overlay on top of the read-only local repository. Default to LOCKED.")
+    private LocalRepositoryMode localRepositoryMode = LocalRepositoryMode.LOCKED;
+
+    @CommandLine.Option(
+            names = {"--maven-daemon"},
+            description =
+                    "Run Maven goals on warm Maven daemons (mvnd) kept alive across invocations instead of starting a new Maven JVM for each goal.")
+    private boolean mavenDaemon;
+
+    @CommandLine.Option(
+            names = {"--mvnd-home"},
+            description = "Path to the Maven daemon (mvnd) home directory. Default to MVND_HOME environment variable.")
+    private Path mvndHome = Settings.DEFAULT_MVND_HOME;
+
+    @CommandLine.Option(
+            names = {"--parallelism"},
+            description = "Maximum number of plugins processed concurrently. Default to 1 (sequential).")
+    private int parallelism = 1;
+
+    @CommandLine.Option(
+            names = {"--stage-parallelism"},
+            split = ",",
+            paramLabel = "STAGE=WORKERS",
+            description =
+                    "Number of workers of a processing stage (${COMPLETION-CANDIDATES}), for example VERIFY=2. Default to --parallelism, which still bounds the plugins processed by all stages.")
+    private Map<ProcessingStage, Integer> stageParallelism = new EnumMap<>(ProcessingStage.class);
+
+    @CommandLine.Option(
+            names = {"--virtual-threads"},
+            description =
+                    "Run the I/O bound processing stages (PREFLIGHT, FETCH, PUBLISH) on virtual threads, one per plugin, instead of a pool of platform threads.")
+    private boolean virtualThreads;
+
+    @CommandLine.Option(
+            names = {"--github-max-requests"},
+            description = "Maximum number of GitHub API requests in flight at the same time. Default to 32.")
+    private int githubMaxRequests = Settings.GITHUB_MAX_CONCURRENT_REQUESTS;
+
+    @CommandLine.Option(
+            names = {"--build-memory"},
+            split = ",",
+            paramLabel = "TYPE=MB",
+            description =
+                    "Memory in MB reserved by a Maven build of a goal type (${COMPLETION-CANDIDATES}), for example VERIFY=6144. Default to METADATA=3072, QUICK_BUILD=2048 and VERIFY=4096.")
+    private Map<GoalType, Integer> buildMemory = new EnumMap<>(GoalType.class);
+
+    @CommandLine.Option(
+            names = {"--build-cores"},
+            split = ",",
+            paramLabel = "TYPE=CORES",
+            description =
+                    "Cores reserved by a Maven build of a goal type (${COMPLETION-CANDIDATES}), for example VERIFY=4. Default to 2 for VERIFY and 1 otherwise.")
+    private Map<GoalType, Integer> buildCores = new EnumMap<>(GoalType.class);
+
+    @CommandLine.Option(
+            names = {"--git-mirror-path"},
+            description =
+                    "Path to the local bare mirrors of plugin repositories shared by all clones. Default to GIT_MIRROR_DIR environment variable or a directory next to the cache.")
+    private Path gitMirrorPath = Settings.DEFAULT_GIT_MIRROR_PATH;
+
+    @CommandLine.Option(
+            names = {"--git-mirror"},
+            description =
+                    "Clone plugin repositories from local bare mirrors refreshed incrementally instead of directly from GitHub.")
+    private boolean gitMirror;
+
+    @CommandLine.Option(
+            names = {"--prefetch-jdks"},
+            description = "Download all JDKs in parallel before processing plugins.")
+    private boolean prefetchJdks;
+
+    @CommandLine.Option(
+            names = {"--offline"},
+            description =
+                    "Resolve the parent POM, BOM and Jenkins core of plugins processed before once, then build these plugins offline.")
+    private boolean offline;
+
+    @CommandLine.Option(
+            names = {"--no-impact-analysis"},
+            description =
+                    "Always verify modernized plugins with their tests instead of according to the files changed.")
+    private boolean noImpactAnalysis;
+
+    @CommandLine.Option(
+            names = {"--acceleration"},
+            description =
+                    "Arguments added to Maven builds to speed them up: ${COMPLETION-CANDIDATES}. NONE records build times as baseline, SAFE only skips checks not needed by the goal type and FAST also skips static analysis of full verifications. Default to SAFE.")
+    private AccelerationProfile accelerationProfile = AccelerationProfile.SAFE;
+
+    @CommandLine.Option(
+            names = {"--force"},
+            description =
+                    "Process plugins even if a previous run with the same recipe, plugin commit and version made no changes or opened a pull request.")
+    private boolean force;
+
+    @CommandLine.Option(
+            names = {"--cache-codec"},
+            description =
+                    "Encoding of new cache entries: ${COMPLETION-CANDIDATES}. Existing entries are migrated when read. Default to JSON.")
+    private CacheCodec cacheCodec = CacheCodec.JSON;
+
     /**
      * Create a new config build for the global options
      */
@@ -67,7 +178,24 @@ public class GlobalOptions implements IOption {
                                 ? cachePath.resolve(Settings.CACHE_SUBDIR)
                                 : cachePath)
                 .withMavenHome(mavenHome)
-                .withMavenLocalRepo(mavenLocalRepo);
+                .withMavenLocalRepo(mavenLocalRepo)
+                .withLocalRepositoryMode(localRepositoryMode)
+                .withMavenDaemon(mavenDaemon)
+                .withMvndHome(mvndHome)
+                .withParallelism(parallelism)
+                .withStageParallelism(stageParallelism)
+                .withVirtualThreads(virtualThreads)
+                .withGithubMaxRequests(githubMaxRequests)
+                .withBuildMemory(buildMemory)
+                .withBuildCores(buildCores)
+                .withGitMirror(gitMirror)
+                .withGitMirrorPath(gitMirrorPath)
+                .withPrefetchJdks(prefetchJdks)
+                .withOffline(offline)
+                .withImpactAnalysis(!noImpactAnalysis)
+                .withAccelerationProfile(accelerationProfile)
+                .withForce(force)
+                .withCacheCodec(cacheCodec);
     }
 
     /**
@@ -8,6 +8,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import io.jenkins.tools.pluginmodernizer.cli.options.GlobalOptions;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Marker;
@@ -65,6 +66,25 @@ public class PluginLoggerDiscriminatorTest {
         assertEquals(expectedValue, discriminatingValue);
     }
 
+    @Test
+    void testGetDiscriminatingValueWithMdc() {
+        PluginLoggerDiscriminator discriminator = new PluginLoggerDiscriminator();
+        ILoggingEvent event = mock(ILoggingEvent.class);
+        when(event.getMarkerList()).thenReturn(null);
+        when(event.getMDCPropertyMap()).thenReturn(Map.of("plugin", "testPlugin"));
+
+        String discriminatingValue = discriminator.getDiscriminatingValue(event);
+        String expectedValue = Path.of(
+                        System.getProperty("user.home"),
+                        ".cache",
+                        "jenkins-plugin-modernizer-cli",
+                        "testPlugin",
+                        "logs",
+                        "invoker.logs")
+                .toString();
+        assertEquals(expectedValue, discriminatingValue);
+    }
+
     @Test
     void testGetKey() {
         PluginLoggerDiscriminator discriminator = new PluginLoggerDiscriminator();
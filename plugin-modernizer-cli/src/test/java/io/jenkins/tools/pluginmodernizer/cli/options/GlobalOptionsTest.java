@@ -2,10 +2,16 @@ package io.jenkins.tools.pluginmodernizer.cli.options;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.AccelerationProfile;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
 import java.lang.reflect.Field;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.util.ReflectionUtils;
@@ -32,6 +38,31 @@ public class GlobalOptionsTest {
                 Settings.DEFAULT_MAVEN_LOCAL_REPO,
                 config.getMavenLocalRepo(),
                 "Maven local repo should be the default");
+        assertEquals(1, config.getParallelism(), "Parallelism should be 1 by default");
+        assertEquals(
+                1,
+                config.getStageParallelism(ProcessingStage.FETCH),
+                "Stage parallelism should default to parallelism");
+        assertFalse(config.isVirtualThreads(), "Virtual threads should be disabled by default");
+        assertEquals(
+                Settings.GITHUB_MAX_CONCURRENT_REQUESTS,
+                config.getGithubMaxRequests(),
+                "GitHub max requests should be the default");
+        assertFalse(config.isMavenDaemon(), "Maven daemon should be disabled by default");
+        assertEquals(
+                LocalRepositoryMode.LOCKED,
+                config.getLocalRepositoryMode(),
+                "Local repository should be locked by default");
+        assertFalse(config.isGitMirror(), "Git mirror should be disabled by default");
+        assertEquals(
+                Settings.DEFAULT_GIT_MIRROR_PATH, config.getGitMirrorPath(), "Git mirror path should be the default");
+        assertFalse(config.isPrefetchJdks(), "JDKs should not be prefetched by default");
+        assertFalse(config.isOffline(), "Builds should be online by default");
+        assertTrue(config.isImpactAnalysis(), "Impact analysis should be enabled by default");
+        assertEquals(
+                AccelerationProfile.SAFE, config.getAccelerationProfile(), "Builds should be accelerated by default");
+        assertFalse(config.isForce(), "Recorded outcomes should skip plugins by default");
+        assertEquals(CacheCodec.JSON, config.getCacheCodec(), "Cache entries should be JSON by default");
     }
 
     @Test
@@ -57,6 +88,24 @@ public class GlobalOptionsTest {
         cachePathField.setAccessible(true);
         cachePathField.set(globalOptions, Settings.DEFAULT_CACHE_PATH.resolve("custom-cache"));
 
+        // Set parallelism
+        Field parallelismField = ReflectionUtils.findFields(
+                        GlobalOptions.class,
+                        f -> f.getName().equals("parallelism"),
+                        ReflectionUtils.HierarchyTraversalMode.TOP_DOWN)
+                .get(0);
+        parallelismField.setAccessible(true);
+        parallelismField.set(globalOptions, 4);
+
+        // Set stage parallelism
+        Field stageParallelismField = ReflectionUtils.findFields(
+                        GlobalOptions.class,
+                        f -> f.getName().equals("stageParallelism"),
+                        ReflectionUtils.HierarchyTraversalMode.TOP_DOWN)
+                .get(0);
+        stageParallelismField.setAccessible(true);
+        stageParallelismField.set(globalOptions, Map.of(ProcessingStage.FETCH, 8));
+
         globalOptions.config(builder);
 
         // Check custom values
@@ -66,5 +115,11 @@ public class GlobalOptionsTest {
                 Settings.DEFAULT_CACHE_PATH.resolve("custom-cache").resolve("jenkins-plugin-modernizer-cli"),
                 config.getCachePath(),
                 "Cache path should be custom");
+        assertEquals(4, config.getParallelism(), "Parallelism should be custom");
+        assertEquals(8, config.getStageParallelism(ProcessingStage.FETCH), "Fetch parallelism should be custom");
+        assertEquals(
+                4,
+                config.getStageParallelism(ProcessingStage.VERIFY),
+                "Verify parallelism should default to parallelism");
     }
 }
@@ -3,7 +3,9 @@ package io.jenkins.tools.pluginmodernizer.core;
 import com.google.inject.AbstractModule;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
+import io.jenkins.tools.pluginmodernizer.core.impl.BuildAdmission;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.impl.LocalRepositories;
 import io.jenkins.tools.pluginmodernizer.core.impl.PluginModernizer;
 import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
@@ -22,10 +24,14 @@ public class GuiceModule extends AbstractModule {
     protected void configure() {
         bind(Invoker.class).to(DefaultInvoker.class);
         bind(Config.class).toInstance(config);
-        bind(CacheManager.class).toInstance(new CacheManager(config.getCachePath()));
+        bind(CacheManager.class).toInstance(new CacheManager(config.getCachePath(), true, config.getCacheCodec()));
         bind(PluginService.class).toInstance(new PluginService());
         bind(GHService.class).toInstance(new GHService());
         bind(JdkFetcher.class).toInstance(new JdkFetcher(config.getCachePath()));
+        bind(BuildAdmission.class).toInstance(new BuildAdmission());
+        bind(LocalRepositories.class)
+                .toInstance(new LocalRepositories(
+                        config.getMavenLocalRepo(), config.getCachePath(), config.getLocalRepositoryMode()));
         bind(PluginModernizer.class).toInstance(new PluginModernizer());
     }
 }
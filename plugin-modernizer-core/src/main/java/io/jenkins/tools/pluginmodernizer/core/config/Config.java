@@ -1,11 +1,20 @@
 package io.jenkins.tools.pluginmodernizer.core.config;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.model.AccelerationProfile;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildLimits;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
+import io.jenkins.tools.pluginmodernizer.core.model.GoalType;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public class Config {
 
@@ -27,9 +36,29 @@ public class Config {
     private final Path cachePath;
     private final Path mavenHome;
     private final Path mavenLocalRepo;
+    private final boolean mavenDaemon;
+    private final Path mvndHome;
     private final boolean dryRun;
     private final boolean draft;
     private final boolean removeForks;
+    private final int parallelism;
+    private final boolean singlePassRewrite;
+    private final boolean gitMirror;
+    private final Path gitMirrorPath;
+    private final boolean shallowClone;
+    private final boolean prefetchJdks;
+    private final CacheCodec cacheCodec;
+    private final Map<ProcessingStage, Integer> stageParallelism;
+    private final boolean virtualThreads;
+    private final int githubMaxRequests;
+    private final Map<GoalType, Integer> buildMemory;
+    private final Map<GoalType, Integer> buildCores;
+    private final LocalRepositoryMode localRepositoryMode;
+    private final boolean offline;
+    private final boolean impactAnalysis;
+    private final AccelerationProfile accelerationProfile;
+    private final boolean force;
+    private final String resumeRunId;
     private final String githubOwner;
     private final Long githubAppId;
     private final Long githubAppSourceInstallationId;
@@ -53,9 +82,29 @@ public class Config {
             Path cachePath,
             Path mavenHome,
             Path mavenLocalRepo,
+            boolean mavenDaemon,
+            Path mvndHome,
             boolean dryRun,
             boolean draft,
-            boolean removeForks) {
+            boolean removeForks,
+            int parallelism,
+            boolean singlePassRewrite,
+            boolean gitMirror,
+            Path gitMirrorPath,
+            boolean shallowClone,
+            boolean prefetchJdks,
+            CacheCodec cacheCodec,
+            Map<ProcessingStage, Integer> stageParallelism,
+            boolean virtualThreads,
+            int githubMaxRequests,
+            Map<GoalType, Integer> buildMemory,
+            Map<GoalType, Integer> buildCores,
+            LocalRepositoryMode localRepositoryMode,
+            boolean offline,
+            boolean impactAnalysis,
+            AccelerationProfile accelerationProfile,
+            boolean force,
+            String resumeRunId) {
         this.version = version;
         this.githubOwner = githubOwner;
         this.githubAppId = githubAppId;
@@ -72,9 +121,29 @@ public class Config {
         this.cachePath = cachePath;
         this.mavenHome = mavenHome;
         this.mavenLocalRepo = mavenLocalRepo;
+        this.mavenDaemon = mavenDaemon;
+        this.mvndHome = mvndHome;
         this.dryRun = dryRun;
         this.draft = draft;
         this.removeForks = removeForks;
+        this.parallelism = parallelism;
+        this.singlePassRewrite = singlePassRewrite;
+        this.gitMirror = gitMirror;
+        this.gitMirrorPath = gitMirrorPath;
+        this.shallowClone = shallowClone;
+        this.prefetchJdks = prefetchJdks;
+        this.cacheCodec = cacheCodec;
+        this.stageParallelism = stageParallelism;
+        this.virtualThreads = virtualThreads;
+        this.githubMaxRequests = githubMaxRequests;
+        this.buildMemory = buildMemory;
+        this.buildCores = buildCores;
+        this.localRepositoryMode = localRepositoryMode;
+        this.offline = offline;
+        this.impactAnalysis = impactAnalysis;
+        this.accelerationProfile = accelerationProfile;
+        this.force = force;
+        this.resumeRunId = resumeRunId;
     }
 
     public String getVersion() {
@@ -163,6 +232,21 @@ public class Config {
         return mavenLocalRepo.toAbsolutePath();
     }
 
+    /**
+     * Return if Maven goals are executed by warm Maven daemons (mvnd) instead of a new Maven JVM for each invocation
+     * @return True if using Maven daemons
+     */
+    public boolean isMavenDaemon() {
+        return mavenDaemon;
+    }
+
+    public Path getMvndHome() {
+        if (mvndHome == null) {
+            return null;
+        }
+        return mvndHome.toAbsolutePath();
+    }
+
     public boolean isDryRun() {
         return dryRun;
     }
@@ -179,6 +263,147 @@ public class Config {
         return removeForks;
     }
 
+    /**
+     * Return the maximum number of plugins processed concurrently, across all processing stages
+     * @return The parallelism. 1 means plugins are processed one after the other
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Return the number of workers of a processing stage
+     * @param stage The stage
+     * @return The number of workers. Default to the parallelism
+     */
+    public int getStageParallelism(ProcessingStage stage) {
+        return stageParallelism.getOrDefault(stage, parallelism);
+    }
+
+    /**
+     * Return if the I/O bound processing stages run on virtual threads
+     * @return True if virtual threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Return the maximum number of GitHub API requests in flight at the same time
+     * @return The maximum number of requests
+     */
+    public int getGithubMaxRequests() {
+        return githubMaxRequests;
+    }
+
+    /**
+     * Return the resources reserved by a Maven build
+     * @param type The type of the build
+     * @return The memory and cores. Default to the ones of the goal type
+     */
+    public BuildLimits getBuildLimits(GoalType type) {
+        return new BuildLimits(
+                buildMemory.getOrDefault(type, type.getDefaultMemory()),
+                buildCores.getOrDefault(type, type.getDefaultCores()));
+    }
+
+    /**
+     * Return how concurrent Maven builds share the local repository
+     * @return The local repository mode
+     */
+    public LocalRepositoryMode getLocalRepositoryMode() {
+        return localRepositoryMode;
+    }
+
+    /**
+     * Return if the artifacts shared by the plugins are resolved once before the plugins are built offline
+     * @return True if offline builds are enabled
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Return if the modernized plugin is verified according to the impact of its changes instead of always running
+     * a full verify
+     * @return True if the change impact analysis is enabled
+     */
+    public boolean isImpactAnalysis() {
+        return impactAnalysis;
+    }
+
+    /**
+     * Return the arguments added to Maven builds to speed them up
+     * @return The acceleration profile
+     */
+    public AccelerationProfile getAccelerationProfile() {
+        return accelerationProfile;
+    }
+
+    /**
+     * Return if plugins are processed even if a previous run recorded their outcome with the same recipe, commit and
+     * modernizer version
+     * @return True if the outcome ledger is ignored
+     */
+    public boolean isForce() {
+        return force;
+    }
+
+    /**
+     * Return the id of the interrupted run to resume from its journal
+     * @return The run id or null to start a new run
+     */
+    public String getResumeRunId() {
+        return resumeRunId;
+    }
+
+    /**
+     * Return if metadata collection, recipe and metadata collection after modernization run in a single rewrite run
+     * @return True if the single pass rewrite is enabled
+     */
+    public boolean isSinglePassRewrite() {
+        return singlePassRewrite;
+    }
+
+    /**
+     * Return if plugin repositories are cloned from a shared local bare mirror refreshed incrementally
+     * @return True if using the git mirror
+     */
+    public boolean isGitMirror() {
+        return gitMirror;
+    }
+
+    public Path getGitMirrorPath() {
+        if (gitMirrorPath == null) {
+            return null;
+        }
+        return gitMirrorPath.toAbsolutePath();
+    }
+
+    /**
+     * Return if repositories are cloned with a depth of 1. Only used when fetching metadata
+     * @return True if using shallow clones
+     */
+    public boolean isShallowClone() {
+        return shallowClone;
+    }
+
+    /**
+     * Return if all JDKs are installed in parallel before processing plugins
+     * @return True if prefetching JDKs
+     */
+    public boolean isPrefetchJdks() {
+        return prefetchJdks;
+    }
+
+    /**
+     * Return the codec of new cache entries. Existing entries are read in any codec
+     * @return The cache codec
+     */
+    public CacheCodec getCacheCodec() {
+        return cacheCodec;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -200,9 +425,29 @@ public class Config {
         private Path cachePath = Settings.DEFAULT_CACHE_PATH;
         private Path mavenHome = Settings.DEFAULT_MAVEN_HOME;
         private Path mavenLocalRepo = Settings.DEFAULT_MAVEN_LOCAL_REPO;
+        private boolean mavenDaemon = false;
+        private Path mvndHome = Settings.DEFAULT_MVND_HOME;
         private boolean dryRun = false;
         private boolean draft = false;
         public boolean removeForks = false;
+        private int parallelism = 1;
+        private boolean singlePassRewrite = false;
+        private boolean gitMirror = false;
+        private Path gitMirrorPath = Settings.DEFAULT_GIT_MIRROR_PATH;
+        private boolean shallowClone = false;
+        private boolean prefetchJdks = false;
+        private CacheCodec cacheCodec = CacheCodec.JSON;
+        private final Map<ProcessingStage, Integer> stageParallelism = new EnumMap<>(ProcessingStage.class);
+        private boolean virtualThreads = false;
+        private int githubMaxRequests = Settings.GITHUB_MAX_CONCURRENT_REQUESTS;
+        private final Map<GoalType, Integer> buildMemory = new EnumMap<>(GoalType.class);
+        private final Map<GoalType, Integer> buildCores = new EnumMap<>(GoalType.class);
+        private LocalRepositoryMode localRepositoryMode = LocalRepositoryMode.LOCKED;
+        private boolean offline = false;
+        private boolean impactAnalysis = true;
+        private AccelerationProfile accelerationProfile = AccelerationProfile.SAFE;
+        private boolean force = false;
+        private String resumeRunId;
 
         public Builder withVersion(String version) {
             this.version = version;
@@ -300,6 +545,18 @@ public class Config {
             return this;
         }
 
+        public Builder withMavenDaemon(boolean mavenDaemon) {
+            this.mavenDaemon = mavenDaemon;
+            return this;
+        }
+
+        public Builder withMvndHome(Path mvndHome) {
+            if (mvndHome != null) {
+                this.mvndHome = mvndHome;
+            }
+            return this;
+        }
+
         public Builder withDryRun(boolean dryRun) {
             this.dryRun = dryRun;
             return this;
@@ -315,6 +572,118 @@ public class Config {
             return this;
         }
 
+        public Builder withParallelism(int parallelism) {
+            if (parallelism > 0) {
+                this.parallelism = parallelism;
+            }
+            return this;
+        }
+
+        public Builder withSinglePassRewrite(boolean singlePassRewrite) {
+            this.singlePassRewrite = singlePassRewrite;
+            return this;
+        }
+
+        public Builder withGitMirror(boolean gitMirror) {
+            this.gitMirror = gitMirror;
+            return this;
+        }
+
+        public Builder withGitMirrorPath(Path gitMirrorPath) {
+            if (gitMirrorPath != null) {
+                this.gitMirrorPath = gitMirrorPath;
+            }
+            return this;
+        }
+
+        public Builder withShallowClone(boolean shallowClone) {
+            this.shallowClone = shallowClone;
+            return this;
+        }
+
+        public Builder withPrefetchJdks(boolean prefetchJdks) {
+            this.prefetchJdks = prefetchJdks;
+            return this;
+        }
+
+        public Builder withCacheCodec(CacheCodec cacheCodec) {
+            if (cacheCodec != null) {
+                this.cacheCodec = cacheCodec;
+            }
+            return this;
+        }
+
+        public Builder withStageParallelism(Map<ProcessingStage, Integer> stageParallelism) {
+            putPositive(this.stageParallelism, stageParallelism);
+            return this;
+        }
+
+        public Builder withVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder withGithubMaxRequests(int githubMaxRequests) {
+            if (githubMaxRequests > 0) {
+                this.githubMaxRequests = githubMaxRequests;
+            }
+            return this;
+        }
+
+        public Builder withBuildMemory(Map<GoalType, Integer> buildMemory) {
+            putPositive(this.buildMemory, buildMemory);
+            return this;
+        }
+
+        public Builder withBuildCores(Map<GoalType, Integer> buildCores) {
+            putPositive(this.buildCores, buildCores);
+            return this;
+        }
+
+        public Builder withLocalRepositoryMode(LocalRepositoryMode localRepositoryMode) {
+            if (localRepositoryMode != null) {
+                this.localRepositoryMode = localRepositoryMode;
+            }
+            return this;
+        }
+
+        public Builder withOffline(boolean offline) {
+            this.offline = offline;
+            return this;
+        }
+
+        public Builder withImpactAnalysis(boolean impactAnalysis) {
+            this.impactAnalysis = impactAnalysis;
+            return this;
+        }
+
+        public Builder withAccelerationProfile(AccelerationProfile accelerationProfile) {
+            if (accelerationProfile != null) {
+                this.accelerationProfile = accelerationProfile;
+            }
+            return this;
+        }
+
+        public Builder withForce(boolean force) {
+            this.force = force;
+            return this;
+        }
+
+        public Builder withResumeRunId(String resumeRunId) {
+            this.resumeRunId = resumeRunId;
+            return this;
+        }
+
+        private static <K> void putPositive(Map<K, Integer> target, Map<K, Integer> values) {
+            if (values != null) {
+                values.forEach((key, value) -> {
+                    if (value != null && value > 0) {
+                        target.put(key, value);
+                    }
+                });
+            }
+        }
+
         public Config build() {
             return new Config(
                     version,
@@ -333,9 +702,29 @@ public class Config {
                     cachePath,
                     mavenHome,
                     mavenLocalRepo,
+                    mavenDaemon,
+                    mvndHome,
                     dryRun,
                     draft,
-                    removeForks);
+                    removeForks,
+                    parallelism,
+                    singlePassRewrite,
+                    gitMirror,
+                    gitMirrorPath,
+                    shallowClone,
+                    prefetchJdks,
+                    cacheCodec,
+                    Collections.unmodifiableMap(new EnumMap<>(stageParallelism)),
+                    virtualThreads,
+                    githubMaxRequests,
+                    Collections.unmodifiableMap(new EnumMap<>(buildMemory)),
+                    Collections.unmodifiableMap(new EnumMap<>(buildCores)),
+                    localRepositoryMode,
+                    offline,
+                    impactAnalysis,
+                    accelerationProfile,
+                    force,
+                    resumeRunId);
         }
     }
 }
@@ -13,6 +13,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -40,10 +41,17 @@ public class Settings {
     public static final Path DEFAULT_CACHE_PATH;
     public static final String CACHE_SUBDIR = "jenkins-plugin-modernizer-cli";
 
+    public static final Path DEFAULT_GIT_MIRROR_PATH;
+    public static final String GIT_MIRROR_SUBDIR = "jenkins-plugin-modernizer-git-mirrors";
+
     public static final Path DEFAULT_MAVEN_HOME;
 
     public static final Path DEFAULT_MAVEN_LOCAL_REPO;
 
+    public static final Path DEFAULT_MVND_HOME;
+
+    public static final String MVND_IDLE_TIMEOUT = "15m";
+
     public static final String MAVEN_REWRITE_PLUGIN_VERSION;
 
     public static final String GITHUB_TOKEN;
@@ -66,6 +74,94 @@ public class Settings {
 
     public static final String ADOPTIUM_GITHUB_API_URL = "https://api.github.com/repos/adoptium";
 
+    /**
+     * Minimum interval between two GitHub write requests to stay below the secondary rate limits
+     */
+    public static final Duration GITHUB_WRITE_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * Number of GitHub requests kept in reserve before waiting for the rate limit reset
+     */
+    public static final int GITHUB_RATE_LIMIT_RESERVE = 50;
+
+    /**
+     * Maximum number of retries of a GitHub request hitting a rate limit
+     */
+    public static final int GITHUB_RATE_LIMIT_MAX_RETRIES = 5;
+
+    /**
+     * Maximum number of GitHub API requests in flight at the same time. GitHub recommends to stay well below 100
+     * concurrent requests to avoid secondary rate limits
+     */
+    public static final int GITHUB_MAX_CONCURRENT_REQUESTS = 32;
+
+    /**
+     * Number of repositories queried per GraphQL request when fetching the state of all plugins up-front
+     */
+    public static final int GITHUB_GRAPHQL_BATCH_SIZE = 50;
+
+    /**
+     * Maximum number of bytes of encoded cache entries kept in memory
+     */
+    public static final long CACHE_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+    /**
+     * Delay before writing a cache entry to disk. Entries saved again within the delay are written once
+     */
+    public static final Duration CACHE_WRITE_BEHIND_DELAY = Duration.ofMillis(500);
+
+    /**
+     * Number of plugins waiting for a worker of a processing stage before the previous stage is blocked
+     */
+    public static final int STAGE_QUEUE_CAPACITY = 4;
+
+    /**
+     * Interval between reports of the processing stages
+     */
+    public static final Duration STAGE_REPORT_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * Memory in MB of the node left to the modernizer and other processes by the admission control of builds
+     */
+    public static final long BUILD_MEMORY_RESERVE = 1024;
+
+    /**
+     * Part in percent of the memory of a build given to the heap of the Maven JVM
+     */
+    public static final int BUILD_HEAP_PERCENT = 75;
+
+    /**
+     * Interval between checks of the available memory by builds waiting for admission
+     */
+    public static final Duration BUILD_ADMISSION_RECHECK = Duration.ofSeconds(5);
+
+    /**
+     * Directory of the cache holding the local repository overlays of concurrent builds
+     */
+    public static final String LOCAL_REPO_OVERLAYS_SUBDIR = "maven-overlays";
+
+    /**
+     * Minimum interval between two promotions of the artifacts of a local repository overlay
+     */
+    public static final Duration LOCAL_REPO_PROMOTION_INTERVAL = Duration.ofMinutes(10);
+
+    /**
+     * Directory of the cache holding the journals of the runs
+     */
+    public static final String RUN_JOURNAL_SUBDIR = "runs";
+
+    /**
+     * Directory of the cache holding the project seeding the local repository for offline builds
+     */
+    public static final String LOCAL_REPO_SEED_SUBDIR = "maven-seed";
+
+    /**
+     * Version of the dependency plugin seeding the local repository
+     */
+    public static final String MAVEN_DEPENDENCY_PLUGIN_VERSION = "3.8.1";
+
+    public static final String JENKINS_REPOSITORY_URL = "https://repo.jenkins-ci.org/public/";
+
     public static final ComparableVersion MAVEN_MINIMAL_VERSION = new ComparableVersion("3.9.7");
 
     public static final String REMEDIATION_PLUGIN_PARENT_VERSION;
@@ -88,8 +184,10 @@ public class Settings {
         } else {
             DEFAULT_CACHE_PATH = Paths.get(cacheDirFromEnv, CACHE_SUBDIR);
         }
+        DEFAULT_GIT_MIRROR_PATH = getDefaultGitMirrorPath();
         DEFAULT_MAVEN_HOME = getDefaultMavenHome();
         DEFAULT_MAVEN_LOCAL_REPO = getDefaultMavenLocalRepo();
+        DEFAULT_MVND_HOME = getDefaultMvndHome();
         MAVEN_REWRITE_PLUGIN_VERSION = getRewritePluginVersion();
         String sshPrivateKey = System.getenv("SSH_PRIVATE_KEY");
         if (sshPrivateKey != null) {
@@ -158,6 +256,18 @@ public class Settings {
                         new ModernizerException("io.jenkins.tools.pluginmodernizer.FetchMetadata recipe not found"));
     }
 
+    /**
+     * Git mirrors are stored next to the cache directory so they survive a cache cleanup
+     * @return The default git mirror path
+     */
+    private static Path getDefaultGitMirrorPath() {
+        String gitMirrorDir = System.getenv("GIT_MIRROR_DIR");
+        if (gitMirrorDir == null) {
+            return DEFAULT_CACHE_PATH.resolveSibling(GIT_MIRROR_SUBDIR);
+        }
+        return Path.of(gitMirrorDir);
+    }
+
     private static Path getDefaultMavenHome() {
         String mavenHome = System.getenv("MAVEN_HOME");
         if (mavenHome == null) {
@@ -169,6 +279,14 @@ public class Settings {
         return Path.of(mavenHome);
     }
 
+    private static Path getDefaultMvndHome() {
+        String mvndHome = System.getenv("MVND_HOME");
+        if (mvndHome == null) {
+            return null;
+        }
+        return Path.of(mvndHome);
+    }
+
     private static Path getDefaultMavenLocalRepo() {
         String mavenLocalRepo = System.getenv("MAVEN_LOCAL_REPO");
         if (mavenLocalRepo == null) {
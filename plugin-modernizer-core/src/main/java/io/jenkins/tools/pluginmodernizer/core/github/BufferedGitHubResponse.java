@@ -0,0 +1,68 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * A GitHub response served from a decoded body kept in memory, so it can be inspected and replayed
+ */
+class BufferedGitHubResponse extends GitHubConnectorResponse.ByteArrayResponse {
+
+    private final byte[] body;
+
+    BufferedGitHubResponse(
+            GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+        super(request, statusCode, headers);
+        this.body = body;
+    }
+
+    /**
+     * Read and close a response
+     * @param response The response
+     * @return The buffered response
+     * @throws IOException If the body cannot be read
+     */
+    static BufferedGitHubResponse of(GitHubConnectorResponse response) throws IOException {
+        try (response) {
+            byte[] body = response.bodyStream().readAllBytes();
+            return new BufferedGitHubResponse(
+                    response.request(), response.statusCode(), copyHeaders(response.allHeaders()), body);
+        }
+    }
+
+    /**
+     * Get the decoded body
+     * @return The body
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    protected InputStream rawBodyStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * Copy headers with a case-insensitive lookup. The body is already decoded so encoding and length are dropped
+     * @param headers The headers
+     * @return The copied headers
+     */
+    static Map<String, List<String>> copyHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> {
+            if (name != null) {
+                copy.put(name, values);
+            }
+        });
+        copy.remove("Content-Encoding");
+        copy.remove("Content-Length");
+        return copy;
+    }
+}
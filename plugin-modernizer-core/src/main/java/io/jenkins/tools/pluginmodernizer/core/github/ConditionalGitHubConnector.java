@@ -0,0 +1,164 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * GitHub connector revalidating GET requests with their last ETag or Last-Modified value.
+ * A 304 Not Modified answer does not count against the GitHub rate limit and is replayed from the
+ * last response body. Responses are always revalidated so they can never be stale.
+ */
+public class ConditionalGitHubConnector implements GitHubConnector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConditionalGitHubConnector.class);
+
+    /**
+     * Maximum number of responses kept. Least recently used responses are evicted first
+     */
+    private static final int MAX_ENTRIES = 2048;
+
+    /**
+     * The connector sending requests
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * Last validated responses by request key
+     */
+    private final Map<String, CachedResponse> responses =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /**
+     * Create a new connector
+     * @param delegate The connector sending requests
+     */
+    public ConditionalGitHubConnector(GitHubConnector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        if (!"GET".equals(request.method())
+                || request.header("If-None-Match") != null
+                || request.header("If-Modified-Since") != null) {
+            return delegate.send(request);
+        }
+        String key = getKey(request);
+        CachedResponse cached = responses.get(key);
+        GitHubConnectorResponse response =
+                delegate.send(cached != null ? new ConditionalRequest(request, cached) : request);
+
+        // Replay the last response with up-to-date rate limit headers
+        if (cached != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            LOG.trace("Not modified {}", request.url());
+            Map<String, List<String>> headers = BufferedGitHubResponse.copyHeaders(cached.headers());
+            headers.putAll(BufferedGitHubResponse.copyHeaders(response.allHeaders()));
+            response.close();
+            return new BufferedGitHubResponse(request, HttpURLConnection.HTTP_OK, headers, cached.body());
+        }
+
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (response.statusCode() != HttpURLConnection.HTTP_OK || (etag == null && lastModified == null)) {
+            responses.remove(key);
+            return response;
+        }
+        BufferedGitHubResponse buffered = BufferedGitHubResponse.of(response);
+        responses.put(key, new CachedResponse(etag, lastModified, buffered.allHeaders(), buffered.getBody()));
+        return new BufferedGitHubResponse(
+                request, HttpURLConnection.HTTP_OK, buffered.allHeaders(), buffered.getBody());
+    }
+
+    /**
+     * Responses depend on the credentials and on the requested media type
+     * @param request The request
+     * @return The key of the request
+     */
+    private String getKey(GitHubConnectorRequest request) {
+        return request.url() + "|" + request.header("Accept") + "|" + Objects.hashCode(request.header("Authorization"));
+    }
+
+    /**
+     * A validated response
+     * @param etag The ETag or null
+     * @param lastModified The Last-Modified value or null
+     * @param headers The response headers
+     * @param body The decoded response body
+     */
+    private record CachedResponse(String etag, String lastModified, Map<String, List<String>> headers, byte[] body) {}
+
+    /**
+     * The request with its conditional headers
+     */
+    private static class ConditionalRequest implements GitHubConnectorRequest {
+
+        private final GitHubConnectorRequest request;
+        private final Map<String, List<String>> headers;
+
+        private ConditionalRequest(GitHubConnectorRequest request, CachedResponse cached) {
+            this.request = request;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(request.allHeaders());
+            if (cached.etag() != null) {
+                this.headers.put("If-None-Match", List.of(cached.etag()));
+            }
+            if (cached.lastModified() != null) {
+                this.headers.put("If-Modified-Since", List.of(cached.lastModified()));
+            }
+        }
+
+        @Override
+        public String method() {
+            return request.method();
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : String.join(",", values);
+        }
+
+        @Override
+        public String contentType() {
+            return request.contentType();
+        }
+
+        @Override
+        public InputStream body() {
+            return request.body();
+        }
+
+        @Override
+        public URL url() {
+            return request.url();
+        }
+
+        @Override
+        public boolean hasBody() {
+            return request.hasBody();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.jenkins.tools.pluginmodernizer.core.github;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
@@ -10,26 +11,44 @@ import io.jenkins.tools.pluginmodernizer.core.utils.JWTUtils;
 import io.jenkins.tools.pluginmodernizer.core.utils.TemplateUtils;
 import jakarta.inject.Inject;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 import java.util.stream.StreamSupport;
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.common.keyprovider.FileKeyPairProvider;
 import org.apache.sshd.git.transport.GitSshdSessionFactory;
+import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.CommitCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.RefAlreadyExistsException;
+import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.errors.UnsupportedCredentialItem;
 import org.eclipse.jgit.internal.signing.ssh.SshSigner;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.CredentialItem;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.PushResult;
@@ -37,10 +56,13 @@ import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.SshSessionFactory;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.kohsuke.github.GHApp;
 import org.kohsuke.github.GHAppInstallationToken;
 import org.kohsuke.github.GHBranchSync;
+import org.kohsuke.github.GHException;
 import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHIssue;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHMyself;
 import org.kohsuke.github.GHOrganization;
@@ -50,6 +72,8 @@ import org.kohsuke.github.GHRepositoryForkBuilder;
 import org.kohsuke.github.GHUser;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.PagedIterator;
+import org.kohsuke.github.connector.GitHubConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,7 +94,7 @@ public class GHService {
     /**
      * The GitHub client
      */
-    private GitHub github;
+    private volatile GitHub github;
 
     /**
      * The GitHub App if connected by GitHub App
@@ -82,6 +106,49 @@ public class GHService {
      */
     private boolean sshKeyAuth = false;
 
+    /**
+     * Scheduler pacing requests according to the rate limits and accounting the budget spent per plugin
+     */
+    private final RateLimitScheduler scheduler = new RateLimitScheduler(GitHubConnector.DEFAULT);
+
+    /**
+     * Connector revalidating GET requests with ETags so unchanged responses don't count against the rate limit
+     */
+    private final ConditionalGitHubConnector connector = new ConditionalGitHubConnector(scheduler);
+
+    /**
+     * Repositories looked up during this run by full name. Empty when the repository doesn't exist (fork not found)
+     * Invalidated when the client is refreshed or a fork is created or deleted
+     */
+    private final Map<String, Optional<GHRepository>> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * Organization of the owner looked up during this run. Empty if the owner is not an organization, null if unknown
+     */
+    private volatile Optional<GHOrganization> organization;
+
+    /**
+     * State of the plugin repositories fetched up-front by repository name
+     * Kept up to date when a fork or pull request is created or deleted
+     */
+    private final Map<String, RepositoryState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Open pull requests authored by the current user by repository name. Built once per run, null if not built yet
+     */
+    private volatile Map<String, List<String>> ownPullRequests;
+
+    /**
+     * Authorization header of the current client, used for requests not supported by the GitHub API client
+     */
+    private volatile String authorization;
+
+    /**
+     * Guard the refresh of the client and the index of own pull requests. A lock rather than a monitor so virtual
+     * threads waiting on GitHub while holding it are not pinned to their carrier
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
     /**
      * Validate the configuration of the GHService
      */
@@ -124,6 +191,7 @@ public class GHService {
                         || config.getGithubAppTargetInstallationId() == null)) {
             throw new ModernizerException("Please set GH_TOKEN, GITHUB_TOKEN or configure GitHub app authentication.");
         }
+        scheduler.setMaxConcurrentRequests(config.getGithubMaxRequests());
         try {
 
             // Connect with GitHub App
@@ -145,8 +213,10 @@ public class GHService {
                         .create();
                 github = new GitHubBuilder()
                         .withEndpoint(config.getGithubApiUrl().toString())
+                        .withConnector(connector)
                         .withAppInstallationToken(appInstallationToken.getToken())
                         .build();
+                authorization = "Bearer " + appInstallationToken.getToken();
                 LOG.debug("Connected to GitHub using GitHub App");
             }
             // Connect with token
@@ -154,8 +224,10 @@ public class GHService {
                 LOG.debug("Connecting to GitHub using token...");
                 github = new GitHubBuilder()
                         .withEndpoint(config.getGithubApiUrl().toString())
+                        .withConnector(connector)
                         .withOAuthToken(Settings.GITHUB_TOKEN)
                         .build();
+                authorization = "Bearer " + Settings.GITHUB_TOKEN;
             }
             GHUser user = getCurrentUser();
             if (user == null) {
@@ -200,18 +272,26 @@ public class GHService {
         if (github == null) {
             throw new ModernizerException("GitHub client must be connected.");
         }
+        lock.lock();
         try {
             String jwtToken = JWTUtils.getJWT(config, Settings.GITHUB_APP_PRIVATE_KEY_FILE);
             GHApp app = new GitHubBuilder().withJwtToken(jwtToken).build().getApp();
             GHAppInstallationToken appInstallationToken =
                     app.getInstallationById(installationId).createToken().create();
             github = new GitHubBuilder()
+                    .withConnector(connector)
                     .withAppInstallationToken(appInstallationToken.getToken())
                     .build();
+            authorization = "Bearer " + appInstallationToken.getToken();
             this.app = app;
+            // Cached objects are bound to the previous client
+            repositories.clear();
+            organization = null;
             LOG.debug("Refreshed token for GitHub App installation ID {}", installationId);
         } catch (IOException e) {
             throw new ModernizerException("Failed to refresh token", e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -223,12 +303,104 @@ public class GHService {
      */
     public GHRepository getRepository(Plugin plugin) {
         try {
-            return github.getRepository(Settings.ORGANIZATION + "/" + plugin.getRepositoryName());
+            String fullName = Settings.ORGANIZATION + "/" + plugin.getRepositoryName();
+            return getCachedRepository(fullName, () -> github.getRepository(fullName));
         } catch (IOException e) {
             throw new PluginProcessingException("Failed to get repository", e, plugin);
         }
     }
 
+    /**
+     * Fetch the state of the plugin repositories up-front using batched GraphQL queries
+     * Plugins whose state is known don't need any REST call to check if they are archived, forked or have open pull requests
+     *
+     * @param repositoryNames The repository names
+     */
+    public void preflight(List<String> repositoryNames) {
+        if (!isConnected() || repositoryNames.isEmpty()) {
+            return;
+        }
+        try {
+            GraphQLPreflight preflight =
+                    new GraphQLPreflight(connector, getGraphQLUrl(), Settings.GITHUB_GRAPHQL_BATCH_SIZE);
+            states.putAll(preflight.fetch(Settings.ORGANIZATION, getGithubOwner(), authorization, repositoryNames));
+            LOG.debug("Fetched state of {}/{} repositories", states.size(), repositoryNames.size());
+        } catch (MalformedURLException e) {
+            LOG.warn("Invalid GraphQL endpoint. Skipping preflight: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the GraphQL endpoint from the REST API URL. GitHub Enterprise serves it next to the /v3 REST API
+     *
+     * @return The GraphQL endpoint
+     * @throws MalformedURLException If the API URL is invalid
+     */
+    private URL getGraphQLUrl() throws MalformedURLException {
+        String api = config.getGithubApiUrl().toString().replaceAll("/+$", "");
+        if (api.endsWith("/v3")) {
+            api = api.substring(0, api.length() - "/v3".length());
+        }
+        return new URL(api + "/graphql");
+    }
+
+    /**
+     * Get the state of a plugin repository fetched up-front
+     *
+     * @param plugin The plugin
+     * @return The state or null if unknown
+     */
+    private RepositoryState getState(Plugin plugin) {
+        String repositoryName = plugin.getRepositoryName();
+        return repositoryName != null ? states.get(repositoryName) : null;
+    }
+
+    /**
+     * Update the state of a plugin repository if it was fetched up-front
+     *
+     * @param plugin The plugin
+     * @param update The update
+     */
+    private void updateState(Plugin plugin, UnaryOperator<RepositoryState> update) {
+        String repositoryName = plugin.getRepositoryName();
+        if (repositoryName != null) {
+            states.computeIfPresent(repositoryName, (name, state) -> update.apply(state));
+        }
+    }
+
+    /**
+     * Get the default branch of a plugin repository
+     *
+     * @param plugin The plugin
+     * @return The default branch
+     */
+    private String getDefaultBranch(Plugin plugin) {
+        RepositoryState state = getState(plugin);
+        if (state != null && state.defaultBranch() != null) {
+            return state.defaultBranch();
+        }
+        return plugin.getRemoteRepository(this).getDefaultBranch();
+    }
+
+    /**
+     * Get the GitHub API budget spent while processing a plugin
+     *
+     * @param plugin The plugin
+     * @return The budget spent
+     */
+    public GitHubApiUsage getApiUsage(Plugin plugin) {
+        return scheduler.getUsage(plugin.getName());
+    }
+
+    /**
+     * Get the GitHub API budget spent during this run
+     *
+     * @return The budget spent
+     */
+    public GitHubApiUsage getTotalApiUsage() {
+        return scheduler.getTotalUsage();
+    }
+
     /**
      * Get a plugin repository to the organization or personal account
      *
@@ -240,7 +412,12 @@ public class GHService {
             throw new PluginProcessingException("Cannot get fork repository in dry-run mode", plugin);
         }
         try {
-            return github.getRepository(getGithubOwner() + "/" + plugin.getRepositoryName());
+            String fullName = getGithubOwner() + "/" + plugin.getRepositoryName();
+            GHRepository fork = getCachedRepository(fullName, () -> github.getRepository(fullName));
+            if (fork == null) {
+                throw new GHFileNotFoundException("Repository %s not found".formatted(fullName));
+            }
+            return fork;
         } catch (IOException e) {
             throw new PluginProcessingException("Failed to get repository", e, plugin);
         }
@@ -256,6 +433,10 @@ public class GHService {
         if (plugin.isLocal()) {
             return false;
         }
+        RepositoryState state = getState(plugin);
+        if (state != null) {
+            return state.forked();
+        }
         try {
             GHOrganization organization = getOrganization();
             if (organization != null) {
@@ -277,9 +458,37 @@ public class GHService {
         if (plugin.isLocal()) {
             return false;
         }
+        RepositoryState state = getState(plugin);
+        if (state != null) {
+            return state.archived();
+        }
         return plugin.getRemoteRepository(this).isArchived();
     }
 
+    /**
+     * Get the commit at the head of the default branch of the plugin repository, without cloning it
+     *
+     * @param plugin The plugin
+     * @return The commit SHA or null for local plugins or if it cannot be resolved
+     */
+    public @Nullable String getRemoteHeadCommit(Plugin plugin) {
+        if (plugin.isLocal()) {
+            return null;
+        }
+        RepositoryState state = getState(plugin);
+        if (state != null && state.headCommit() != null) {
+            return state.headCommit();
+        }
+        try {
+            return plugin.getRemoteRepository(this)
+                    .getBranch(getDefaultBranch(plugin))
+                    .getSHA1();
+        } catch (IOException | PluginProcessingException e) {
+            LOG.debug("Unable to resolve remote HEAD of plugin {}", plugin, e);
+            return null;
+        }
+    }
+
     /**
      * Fork a plugin repository to the organization or personal account
      *
@@ -301,6 +510,7 @@ public class GHService {
         LOG.info("Forking plugin {} locally from repo {}...", plugin, plugin.getRepositoryName());
         try {
             GHRepository fork = forkPlugin(plugin);
+            invalidateFork(plugin, true);
             LOG.debug("Forked repository: {}", fork.getHtmlUrl());
         } catch (IOException | InterruptedException e) {
             plugin.addError("Failed to fork the repository", e);
@@ -416,12 +626,46 @@ public class GHService {
      * @throws IOException If the organization access failed
      */
     private GHOrganization getOrganization() throws IOException {
+        Optional<GHOrganization> cached = organization;
+        if (cached != null) {
+            return cached.orElse(null);
+        }
         try {
-            return github.getOrganization(getGithubOwner());
+            organization = Optional.ofNullable(github.getOrganization(getGithubOwner()));
         } catch (GHFileNotFoundException e) {
             LOG.debug("Owner is not an organization: {}", config.getGithubOwner());
-            return null;
+            organization = Optional.empty();
         }
+        return organization.orElse(null);
+    }
+
+    /**
+     * Get a repository from the per-run cache or look it up
+     *
+     * @param fullName The full name of the repository used as cache key
+     * @param lookup   The lookup returning the repository or null if not found
+     * @return The repository or null if not found
+     * @throws IOException If the repository access failed
+     */
+    private GHRepository getCachedRepository(String fullName, RepositoryLookup lookup) throws IOException {
+        Optional<GHRepository> cached = repositories.get(fullName);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        GHRepository repository = lookup.get();
+        repositories.put(fullName, Optional.ofNullable(repository));
+        return repository;
+    }
+
+    /**
+     * Invalidate the cached fork of a plugin after it was created or deleted
+     *
+     * @param plugin The plugin
+     * @param forked True if the fork was created, false if deleted
+     */
+    private void invalidateFork(Plugin plugin, boolean forked) {
+        repositories.remove(getGithubOwner() + "/" + plugin.getRepositoryName());
+        updateState(plugin, state -> state.withForked(forked));
     }
 
     /**
@@ -448,7 +692,7 @@ public class GHService {
      * @throws IOException If the repository access failed
      */
     private GHRepository getRepositoryFork(GHOrganization organization, String repoName) throws IOException {
-        return organization.getRepository(repoName);
+        return getCachedRepository(getGithubOwner() + "/" + repoName, () -> organization.getRepository(repoName));
     }
 
     /**
@@ -470,7 +714,8 @@ public class GHService {
      * @throws IOException If the repository access failed
      */
     private GHRepository getRepositoryFork(String repoName) throws IOException {
-        return getCurrentUser().getRepository(repoName);
+        return getCachedRepository(
+                getGithubOwner() + "/" + repoName, () -> getCurrentUser().getRepository(repoName));
     }
 
     /**
@@ -557,6 +802,7 @@ public class GHService {
         }
         try {
             repository.delete();
+            invalidateFork(plugin, false);
             plugin.withoutCommits();
             plugin.withoutChangesPushed();
         } catch (IOException e) {
@@ -619,15 +865,21 @@ public class GHService {
         if (Files.isDirectory(plugin.getLocalRepository())) {
             // Ensure to set the correct remote, reset changes and pull
             try (Git git = Git.open(plugin.getLocalRepository().toFile())) {
-                String defaultBranch = plugin.getRemoteRepository(this).getDefaultBranch();
+                String defaultBranch = getDefaultBranch(plugin);
                 git.remoteSetUrl()
                         .setRemoteName("origin")
                         .setRemoteUri(remoteUri)
                         .call();
-                git.fetch()
-                        .setCredentialsProvider(getCredentialProvider())
-                        .setRemote("origin")
-                        .call();
+                if (useGitMirror()) {
+                    GitMirror mirror = new GitMirror(config.getGitMirrorPath());
+                    mirror.update(plugin.getRepositoryName(), remoteUri, getCredentialProvider());
+                    mirror.fetch(git, plugin.getRepositoryName());
+                } else {
+                    git.fetch()
+                            .setCredentialsProvider(getCredentialProvider())
+                            .setRemote("origin")
+                            .call();
+                }
                 LOG.debug("Resetting changes and pulling latest changes from {}", remoteUri);
                 git.reset()
                         .setMode(ResetCommand.ResetType.HARD)
@@ -638,11 +890,19 @@ public class GHService {
                         .setCreateBranch(false)
                         .setName(defaultBranch)
                         .call();
-                git.pull()
-                        .setCredentialsProvider(getCredentialProvider())
-                        .setRemote("origin")
-                        .setRemoteBranchName(defaultBranch)
-                        .call();
+                if (useGitMirror()) {
+                    // Remote tracking branches are already up to date from the mirror
+                    git.reset()
+                            .setMode(ResetCommand.ResetType.HARD)
+                            .setRef("origin/" + defaultBranch)
+                            .call();
+                } else {
+                    git.pull()
+                            .setCredentialsProvider(getCredentialProvider())
+                            .setRemote("origin")
+                            .setRemoteBranchName(defaultBranch)
+                            .call();
+                }
                 LOG.info("Fetched repository from {} to branch {}", remoteUri, ref.getName());
             } catch (IOException e) {
                 plugin.addError("Failed fetch repository", e);
@@ -697,16 +957,81 @@ public class GHService {
     }
 
     private void cloneRepository(Plugin plugin, URIish remoteUri) throws GitAPIException {
-        try (Git git = Git.cloneRepository()
+        if (useGitMirror()) {
+            cloneRepositoryFromMirror(plugin, remoteUri);
+            return;
+        }
+        CloneCommand clone = Git.cloneRepository()
                 .setCredentialsProvider(getCredentialProvider())
                 .setRemote("origin")
                 .setURI(remoteUri.toString())
-                .setDirectory(plugin.getLocalRepository().toFile())
-                .call()) {
+                .setDirectory(plugin.getLocalRepository().toFile());
+        if (isShallowClone()) {
+            LOG.debug("Using shallow clone for plugin {}", plugin);
+            clone.setDepth(1);
+        }
+        try (Git git = clone.call()) {
             LOG.debug("Clone successfully from {}", remoteUri);
         }
     }
 
+    /**
+     * Refresh the local mirror of the repository and create the working clone from it
+     * @param plugin The plugin to clone
+     * @param remoteUri The remote URI of the original repository
+     * @throws GitAPIException If the mirror update or the clone failed
+     */
+    private void cloneRepositoryFromMirror(Plugin plugin, URIish remoteUri) throws GitAPIException {
+        GitMirror mirror = new GitMirror(config.getGitMirrorPath());
+        String defaultBranch = getDefaultBranch(plugin);
+        try {
+            mirror.update(plugin.getRepositoryName(), remoteUri, getCredentialProvider());
+            mirror.cloneTo(plugin.getRepositoryName(), defaultBranch, remoteUri, plugin.getLocalRepository());
+            LOG.debug(
+                    "Clone successfully from {} using mirror {}",
+                    remoteUri,
+                    mirror.getLocation(plugin.getRepositoryName()));
+        } catch (IOException e) {
+            plugin.addError("Failed to clone the repository from mirror", e);
+            plugin.raiseLastError();
+        }
+    }
+
+    /**
+     * Return if plugin repositories are cloned and fetched through the local git mirror
+     * @return True if using the git mirror
+     */
+    private boolean useGitMirror() {
+        return config.isGitMirror() && config.getGitMirrorPath() != null && !isShallowClone();
+    }
+
+    /**
+     * Shallow clones are only used for metadata collection. They would break the mirror and the fork push
+     * @return True if cloning with a depth of 1
+     */
+    private boolean isShallowClone() {
+        return config.isShallowClone() && config.isFetchMetadataOnly();
+    }
+
+    /**
+     * Get the commit checked out in the local repository of the plugin
+     *
+     * @param plugin The plugin
+     * @return The commit SHA or null for local plugins or if it cannot be resolved
+     */
+    public String getHeadCommit(Plugin plugin) {
+        if (plugin.isLocal()) {
+            return null;
+        }
+        try (Git git = Git.open(plugin.getLocalRepository().toFile())) {
+            ObjectId head = git.getRepository().resolve(Constants.HEAD);
+            return head != null ? head.getName() : null;
+        } catch (IOException e) {
+            LOG.debug("Unable to resolve HEAD of plugin {}", plugin, e);
+            return null;
+        }
+    }
+
     /**
      * Checkout the branch for the plugin. Creates the branch if not exists
      *
@@ -722,7 +1047,7 @@ public class GHService {
             try {
                 git.checkout().setCreateBranch(true).setName(branchName).call();
             } catch (RefAlreadyExistsException e) {
-                String defaultBranch = plugin.getRemoteRepository(this).getDefaultBranch();
+                String defaultBranch = getDefaultBranch(plugin);
                 LOG.debug("Branch already exists. Checking out the branch");
                 git.checkout().setName(branchName).call();
                 git.reset()
@@ -740,6 +1065,29 @@ public class GHService {
         }
     }
 
+    /**
+     * Get the files changed in the working tree of the plugin, committed or not
+     *
+     * @param plugin The plugin
+     * @return The changed files relative to the repository root or null if the status can't be read
+     */
+    public @Nullable Set<String> getChangedFiles(Plugin plugin) {
+        try (Git git = Git.open(plugin.getLocalRepository().toFile())) {
+            Status status = git.status().call();
+            Set<String> files = new TreeSet<>();
+            files.addAll(status.getUntracked());
+            files.addAll(status.getModified());
+            files.addAll(status.getChanged());
+            files.addAll(status.getAdded());
+            files.addAll(status.getMissing());
+            files.addAll(status.getRemoved());
+            return files;
+        } catch (IOException | IllegalArgumentException | GitAPIException e) {
+            LOG.warn("Failed to read the changes of plugin {}", plugin, e);
+            return null;
+        }
+    }
+
     /**
      * Commit all changes in the plugin directory
      *
@@ -780,8 +1128,6 @@ public class GHService {
         }
         try (Git git = Git.open(plugin.getLocalRepository().toFile())) {
             git.getRepository().scanForRepoChanges();
-            String commitMessage = TemplateUtils.renderCommitMessage(plugin, config.getRecipe());
-            LOG.debug("Commit message: {}", commitMessage);
             Status status = git.status().call();
             LOG.debug("Untracked before commit: {}", status.getUntracked());
             LOG.debug("Untracked folder commit: {}", status.getUntrackedFolders());
@@ -802,6 +1148,8 @@ public class GHService {
                 plugin.addModifiedFiles(status.getChanged());
                 LOG.debug("Removed files to after staging: {}", status.getRemoved());
                 plugin.addModifiedFiles(status.getRemoved());
+                String commitMessage = TemplateUtils.renderCommitMessage(plugin, config.getRecipe());
+                LOG.debug("Commit message: {}", commitMessage);
                 GHUser user = getCurrentUser();
                 String email = getPrimaryEmail(user);
                 CommitCommand commit = git.commit()
@@ -811,7 +1159,15 @@ public class GHService {
                 LOG.debug("Changes committed for plugin {}", plugin.getName());
                 plugin.withCommits();
             } else {
-                LOG.debug("No changes to commit for plugin {}", plugin.getName());
+                // Changes committed by an interrupted run are still on the branch
+                Set<String> committed = getCommittedFiles(git, getDefaultBranch(plugin));
+                if (committed.isEmpty()) {
+                    LOG.debug("No changes to commit for plugin {}", plugin.getName());
+                } else {
+                    LOG.info("Changes already committed for plugin {}", plugin.getName());
+                    plugin.addModifiedFiles(committed);
+                    plugin.withCommits();
+                }
             }
         } catch (IOException | IllegalArgumentException | GitAPIException e) {
             plugin.addError("Failed to commit changes", e);
@@ -819,6 +1175,46 @@ public class GHService {
         }
     }
 
+    /**
+     * Get the files changed by the commits of the current branch since it forked from the default branch of the remote
+     *
+     * @param git The git repository
+     * @param defaultBranch The default branch
+     * @return The changed files relative to the repository root
+     * @throws IOException If the commits cannot be read
+     * @throws GitAPIException If the diff failed
+     */
+    private Set<String> getCommittedFiles(Git git, String defaultBranch) throws IOException, GitAPIException {
+        Repository repository = git.getRepository();
+        ObjectId base = repository.resolve(Constants.R_REMOTES + "origin/" + defaultBranch);
+        ObjectId head = repository.resolve(Constants.HEAD);
+        Set<String> files = new TreeSet<>();
+        if (base == null || head == null || base.equals(head)) {
+            return files;
+        }
+        try (RevWalk walk = new RevWalk(repository);
+                ObjectReader reader = repository.newObjectReader()) {
+            RevCommit headCommit = walk.parseCommit(head);
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(walk.parseCommit(base));
+            walk.markStart(headCommit);
+            RevCommit mergeBase = walk.next();
+            if (mergeBase == null || mergeBase.equals(headCommit)) {
+                return files;
+            }
+            CanonicalTreeParser oldTree = new CanonicalTreeParser();
+            oldTree.reset(reader, mergeBase.getTree());
+            CanonicalTreeParser newTree = new CanonicalTreeParser();
+            newTree.reset(reader, headCommit.getTree());
+            for (DiffEntry entry :
+                    git.diff().setOldTree(oldTree).setNewTree(newTree).call()) {
+                files.add(
+                        entry.getChangeType() == DiffEntry.ChangeType.DELETE ? entry.getOldPath() : entry.getNewPath());
+            }
+        }
+        return files;
+    }
+
     /**
      * Sign the commit using SSH key. Set not sign if using GH_TOKEN
      *
@@ -1000,12 +1396,12 @@ public class GHService {
         }
 
         // Check if existing PR exists
-        GHRepository repository = plugin.getRemoteRepository(this);
-        Optional<GHPullRequest> existingPR = checkIfPullRequestExists(plugin);
+        Optional<String> existingPR = checkIfPullRequestExists(plugin);
         if (existingPR.isPresent()) {
-            LOG.info("Pull request already exists: {}", existingPR.get().getHtmlUrl());
+            LOG.info("Pull request already exists: {}", existingPR.get());
             return;
         }
+        GHRepository repository = plugin.getRemoteRepository(this);
 
         try {
             String branchName = TemplateUtils.renderBranchName(plugin, config.getRecipe());
@@ -1018,6 +1414,15 @@ public class GHService {
                     config.isDraft());
             LOG.info("Pull request created: {}", pr.getHtmlUrl());
             plugin.withPullRequest();
+            updateState(
+                    plugin,
+                    state -> state.withPullRequest(new RepositoryState.PullRequestRef(
+                            pr.getNumber(), branchName, String.valueOf(pr.getHtmlUrl()))));
+            Map<String, List<String>> index = ownPullRequests;
+            if (index != null && plugin.getRepositoryName() != null) {
+                index.computeIfAbsent(plugin.getRepositoryName(), k -> new CopyOnWriteArrayList<>())
+                        .add(String.valueOf(pr.getHtmlUrl()));
+            }
             try {
                 String[] tags = plugin.getTags().stream()
                         .filter(ALLOWED_TAGS::contains)
@@ -1060,16 +1465,32 @@ public class GHService {
             LOG.info("Skipping check for pull requests in dry-run mode");
             return false;
         }
+        RepositoryState state = getState(plugin);
+        if (state != null && state.pullRequests() != null) {
+            state.pullRequests().forEach(pr -> LOG.debug("Found open pull request {}", pr.url()));
+            return !state.pullRequests().isEmpty();
+        }
+        List<String> ownPullRequests = getOwnPullRequests().getOrDefault(plugin.getRepositoryName(), List.of());
+        if (!ownPullRequests.isEmpty()) {
+            ownPullRequests.forEach(url -> LOG.debug("Found own open pull request {}", url));
+            return true;
+        }
+
+        // Pull requests from the fork can be opened by others. Query each branch of the fork with a head filter rather
+        // than listing every open pull request of the original repository
         GHRepository originalRepo = plugin.getRemoteRepository(this);
         GHRepository forkRepo = plugin.getRemoteForkRepository(this);
-
         try {
-            boolean hasPullRequest = originalRepo.queryPullRequests().state(GHIssueState.OPEN).list().toList().stream()
-                    .peek(pr -> LOG.debug("Checking pull request: {}", pr.getHtmlUrl()))
-                    .anyMatch(pr -> pr.getHead().getRepository().getFullName().equals(forkRepo.getFullName()));
-            if (hasPullRequest) {
-                LOG.debug("Found open pull request from {} to {}", forkRepo.getFullName(), originalRepo.getFullName());
-                return true;
+            for (String branch : forkRepo.getBranches().keySet()) {
+                Optional<GHPullRequest> pr = findOpenPullRequest(originalRepo, getGithubOwner() + ":" + branch);
+                if (pr.isPresent()) {
+                    LOG.debug(
+                            "Found open pull request {} from {} to {}",
+                            pr.get().getHtmlUrl(),
+                            forkRepo.getFullName(),
+                            originalRepo.getFullName());
+                    return true;
+                }
             }
         } catch (IOException e) {
             plugin.addError("Failed to check for pull requests", e);
@@ -1084,26 +1505,103 @@ public class GHService {
      * Check if a pull request already exists for the branch to the target repo
      *
      * @param plugin The plugin to check
-     * @return The pull request if it exists
+     * @return The URL of the pull request if it exists
      */
-    private Optional<GHPullRequest> checkIfPullRequestExists(Plugin plugin) {
-        GHRepository repository = plugin.getRemoteRepository(this);
+    private Optional<String> checkIfPullRequestExists(Plugin plugin) {
         String branchName = TemplateUtils.renderBranchName(plugin, config.getRecipe());
-        try {
-            List<GHPullRequest> pullRequests = repository
-                    .queryPullRequests()
-                    .state(GHIssueState.OPEN)
-                    .list()
-                    .toList();
-            return pullRequests.stream()
-                    .filter(pr -> pr.getHead().getRef().equals(branchName))
+        RepositoryState state = getState(plugin);
+        if (state != null && state.pullRequests() != null) {
+            return state.pullRequests().stream()
+                    .filter(pr -> pr.headRef().equals(branchName))
+                    .map(RepositoryState.PullRequestRef::url)
                     .findFirst();
+        }
+        GHRepository repository = plugin.getRemoteRepository(this);
+        try {
+            return findOpenPullRequest(repository, getGithubOwner() + ":" + branchName)
+                    .map(pr -> String.valueOf(pr.getHtmlUrl()));
         } catch (IOException e) {
             plugin.addError("Failed to check if pull request exists", e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Find an open pull request from the given head. Only the first page of a single result is fetched
+     *
+     * @param repository The target repository
+     * @param head       The head as owner:branch
+     * @return The pull request if it exists
+     * @throws IOException If the query failed
+     */
+    private Optional<GHPullRequest> findOpenPullRequest(GHRepository repository, String head) throws IOException {
+        try {
+            PagedIterator<GHPullRequest> pullRequests = repository
+                    .queryPullRequests()
+                    .state(GHIssueState.OPEN)
+                    .head(head)
+                    .list()
+                    .withPageSize(1)
+                    .iterator();
+            return pullRequests.hasNext() ? Optional.of(pullRequests.next()) : Optional.empty();
+        } catch (GHException e) {
+            throw new IOException("Failed to query pull requests from " + head, e);
+        }
+    }
+
+    /**
+     * Get the open pull requests authored by the current user on the organization, built once per run
+     * The index is only used to find pull requests. Missing entries don't mean there is no pull request
+     *
+     * @return The pull request URLs by repository name
+     */
+    private Map<String, List<String>> getOwnPullRequests() {
+        Map<String, List<String>> index = ownPullRequests;
+        if (index != null) {
+            return index;
+        }
+        lock.lock();
+        try {
+            if (ownPullRequests != null) {
+                return ownPullRequests;
+            }
+            index = new ConcurrentHashMap<>();
+            GHUser user = getCurrentUser();
+            String login = user != null ? user.getLogin() : null;
+            if (login != null) {
+                // Bot users are searched by their app
+                String author = login.endsWith("[bot]")
+                        ? "app/" + login.substring(0, login.length() - "[bot]".length())
+                        : login;
+                try {
+                    for (GHIssue issue : github.searchIssues()
+                            .q("is:pr")
+                            .q("is:open")
+                            .q("org:" + Settings.ORGANIZATION)
+                            .q("author:" + author)
+                            .list()
+                            .withPageSize(100)
+                            .toList()) {
+                        String url = String.valueOf(issue.getHtmlUrl());
+                        // https://github.com/<organization>/<repository>/pull/<number>
+                        String[] segments = URI.create(url).getPath().split("/");
+                        if (segments.length > 2) {
+                            index.computeIfAbsent(segments[2], k -> new CopyOnWriteArrayList<>())
+                                    .add(url);
+                        }
+                    }
+                    LOG.debug("Found {} repositories with own open pull requests", index.size());
+                } catch (IOException | GHException e) {
+                    LOG.debug("Failed to index own open pull requests: {}", e.getMessage());
+                }
+            }
+            ownPullRequests = index;
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Determine the GitHub owner from config or using current token
      *
@@ -1162,6 +1660,14 @@ public class GHService {
         }
     }
 
+    /**
+     * Repository lookup that may fail with I/O errors
+     */
+    @FunctionalInterface
+    private interface RepositoryLookup {
+        GHRepository get() throws IOException;
+    }
+
     /**
      * JGit expect a credential provider even if transport and authentication is none at transport level with
      * Apache Mina SSHD. This is therefor a dummy provider
@@ -0,0 +1,41 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import java.time.Duration;
+
+/**
+ * GitHub API budget spent by a plugin during a run
+ * @param requests Number of requests sent
+ * @param notModified Number of requests answered by 304 Not Modified, which don't count against the rate limit
+ * @param writes Number of write requests
+ * @param retries Number of requests retried after hitting a rate limit
+ * @param waited Time spent waiting for rate limits and write pacing
+ */
+public record GitHubApiUsage(long requests, long notModified, long writes, long retries, Duration waited) {
+
+    /**
+     * No request sent
+     */
+    public static final GitHubApiUsage NONE = new GitHubApiUsage(0, 0, 0, 0, Duration.ZERO);
+
+    /**
+     * Sum two usages
+     * @param other The other usage
+     * @return The sum
+     */
+    public GitHubApiUsage add(GitHubApiUsage other) {
+        return new GitHubApiUsage(
+                requests + other.requests,
+                notModified + other.notModified,
+                writes + other.writes,
+                retries + other.retries,
+                waited.plus(other.waited));
+    }
+
+    /**
+     * Number of requests counted against the rate limit
+     * @return The number of requests
+     */
+    public long counted() {
+        return requests - notModified;
+    }
+}
@@ -0,0 +1,207 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.jgit.api.CreateBranchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local store of bare mirrors of plugin repositories shared by all working clones.
+ * Mirrors are keyed by organization and repository name and refreshed incrementally. Working clones
+ * borrow the mirror objects through git alternates, so only refs are copied when cloning or fetching.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "false positive")
+public class GitMirror {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitMirror.class);
+
+    /**
+     * Refspec to fetch all branches of the mirror as remote tracking branches of the working clone
+     */
+    private static final RefSpec MIRROR_TO_ORIGIN = new RefSpec("+refs/heads/*:refs/remotes/origin/*");
+
+    /**
+     * In-process locks by mirror location. File locks cannot be acquired twice by the same JVM
+     * Not monitors, so virtual threads waiting for a fetch are not pinned to their carrier
+     */
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Root directory of all mirrors
+     */
+    private final Path root;
+
+    /**
+     * Create a new mirror store
+     * @param root Root directory of all mirrors
+     */
+    public GitMirror(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Get the location of the bare mirror of a repository
+     * @param repositoryName The repository name
+     * @return The mirror location
+     */
+    public Path getLocation(String repositoryName) {
+        return root.resolve(Settings.ORGANIZATION).resolve(repositoryName + ".git");
+    }
+
+    /**
+     * Create the mirror of a repository or fetch its latest changes
+     * @param repositoryName The repository name
+     * @param remoteUri The remote URI of the original repository
+     * @param credentialsProvider The credentials provider
+     * @throws GitAPIException If the clone or fetch failed
+     * @throws IOException If the mirror cannot be locked or moved to its location
+     */
+    public void update(String repositoryName, URIish remoteUri, CredentialsProvider credentialsProvider)
+            throws GitAPIException, IOException {
+        Path location = getLocation(repositoryName);
+        Files.createDirectories(location.getParent());
+        ReentrantLock lock = LOCKS.computeIfAbsent(location, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            Path lockFile = location.resolveSibling(repositoryName + ".git.lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock fileLock = channel.lock()) {
+                LOG.debug("Acquired lock {} on mirror {}", fileLock, location);
+                if (Files.isDirectory(location)) {
+                    fetchMirror(location, remoteUri, credentialsProvider);
+                } else {
+                    cloneMirror(location, remoteUri, credentialsProvider);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Create a working clone of a repository backed by its mirror
+     * @param repositoryName The repository name
+     * @param defaultBranch The default branch to checkout
+     * @param remoteUri The remote URI set as origin of the working clone
+     * @param directory The directory of the working clone
+     * @throws GitAPIException If the clone failed
+     * @throws IOException If the alternates cannot be written
+     */
+    public void cloneTo(String repositoryName, String defaultBranch, URIish remoteUri, Path directory)
+            throws GitAPIException, IOException {
+        try (Git git = Git.init().setDirectory(directory.toFile()).call()) {
+            linkObjects(git, repositoryName);
+            git.remoteAdd().setName("origin").setUri(remoteUri).call();
+            fetch(git, repositoryName);
+            git.checkout()
+                    .setCreateBranch(true)
+                    .setName(defaultBranch)
+                    .setStartPoint("origin/" + defaultBranch)
+                    .setUpstreamMode(CreateBranchCommand.SetupUpstreamMode.TRACK)
+                    .call();
+            LOG.debug("Cloned {} from mirror {}", directory, getLocation(repositoryName));
+        }
+    }
+
+    /**
+     * Fetch all branches of the mirror as remote tracking branches of the working clone
+     * @param git The working clone
+     * @param repositoryName The repository name
+     * @throws GitAPIException If the fetch failed
+     * @throws IOException If the alternates cannot be written
+     */
+    public void fetch(Git git, String repositoryName) throws GitAPIException, IOException {
+        linkObjects(git, repositoryName);
+        git.fetch()
+                .setRemote(getLocation(repositoryName).toUri().toString())
+                .setRefSpecs(MIRROR_TO_ORIGIN)
+                .call();
+    }
+
+    /**
+     * Borrow the mirror objects through alternates. Clones created before the mirror keep their own objects
+     * @param git The working clone
+     * @param repositoryName The repository name
+     * @throws IOException If the alternates cannot be written
+     */
+    private void linkObjects(Git git, String repositoryName) throws IOException {
+        Path alternates = git.getRepository()
+                .getDirectory()
+                .toPath()
+                .resolve("objects")
+                .resolve("info")
+                .resolve("alternates");
+        String objects = getLocation(repositoryName).resolve("objects").toAbsolutePath() + "\n";
+        if (Files.isRegularFile(alternates)
+                && Files.readString(alternates, StandardCharsets.UTF_8).equals(objects)) {
+            return;
+        }
+        Files.createDirectories(alternates.getParent());
+        Files.writeString(alternates, objects, StandardCharsets.UTF_8);
+        // Closing the object database drops the loaded alternates so they are read again on next access
+        git.getRepository().getObjectDatabase().close();
+    }
+
+    /**
+     * Clone the mirror into a temporary directory and move it to its location once complete
+     * so an interrupted clone never leaves a partial mirror
+     */
+    private void cloneMirror(Path location, URIish remoteUri, CredentialsProvider credentialsProvider)
+            throws GitAPIException, IOException {
+        LOG.info("Creating mirror of {} at {}", remoteUri, location);
+        Path tmp = Files.createTempDirectory(location.getParent(), location.getFileName() + ".");
+        try {
+            try (Git git = Git.cloneRepository()
+                    .setCredentialsProvider(credentialsProvider)
+                    .setURI(remoteUri.toString())
+                    .setDirectory(tmp.toFile())
+                    .setBare(true)
+                    .setMirror(true)
+                    .call()) {
+                // Objects are borrowed by working clones. Never let a gc prune them
+                StoredConfig gitConfig = git.getRepository().getConfig();
+                gitConfig.setInt("gc", null, "auto", 0);
+                gitConfig.save();
+            }
+            Files.move(tmp, location, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (Files.exists(tmp)) {
+                FileUtils.delete(tmp.toFile(), FileUtils.RECURSIVE | FileUtils.IGNORE_ERRORS);
+            }
+        }
+    }
+
+    /**
+     * Fetch latest changes of the original repository into the mirror
+     */
+    private void fetchMirror(Path location, URIish remoteUri, CredentialsProvider credentialsProvider)
+            throws GitAPIException, IOException {
+        LOG.debug("Refreshing mirror {} from {}", location, remoteUri);
+        try (Git git = Git.open(location.toFile())) {
+            git.fetch()
+                    .setCredentialsProvider(credentialsProvider)
+                    .setRemote(remoteUri.toString())
+                    .setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*"), new RefSpec("+refs/tags/*:refs/tags/*"))
+                    .call();
+        }
+    }
+}
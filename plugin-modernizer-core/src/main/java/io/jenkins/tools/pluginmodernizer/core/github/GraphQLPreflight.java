@@ -0,0 +1,278 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetch the state of many plugin repositories with batched GraphQL queries.
+ * Each batch queries the archived state, default branch and open pull requests of the original repositories
+ * and the existence of their fork, replacing several REST calls per plugin by a single request per batch.
+ * Batches that fail are ignored so their repositories fall back to REST lookups.
+ */
+public class GraphQLPreflight {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GraphQLPreflight.class);
+
+    /**
+     * Maximum number of pull requests fetched per repository
+     */
+    private static final int MAX_PULL_REQUESTS = 100;
+
+    private static final String REPOSITORY_FIELDS = String.join(
+            " ",
+            "isArchived",
+            "defaultBranchRef { name target { oid } }",
+            "pullRequests(states: OPEN, first: " + MAX_PULL_REQUESTS + ") {",
+            "pageInfo { hasNextPage }",
+            "nodes { number url headRefName headRepositoryOwner { login } }",
+            "}");
+
+    /**
+     * The connector sending requests
+     */
+    private final GitHubConnector connector;
+
+    /**
+     * The GraphQL endpoint
+     */
+    private final URL endpoint;
+
+    /**
+     * Number of repositories per request
+     */
+    private final int batchSize;
+
+    /**
+     * Create a new preflight
+     * @param connector The connector sending requests
+     * @param endpoint The GraphQL endpoint
+     * @param batchSize Number of repositories per request
+     */
+    public GraphQLPreflight(GitHubConnector connector, URL endpoint, int batchSize) {
+        this.connector = connector;
+        this.endpoint = endpoint;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fetch the state of repositories
+     * @param organization The organization of the original repositories
+     * @param owner The owner of the forks and pull requests
+     * @param authorization The Authorization header value
+     * @param repositoryNames The repository names
+     * @return The state by repository name. Repositories not found or part of a failed batch are missing
+     */
+    public Map<String, RepositoryState> fetch(
+            String organization, String owner, String authorization, List<String> repositoryNames) {
+        Map<String, RepositoryState> states = new HashMap<>();
+        for (int from = 0; from < repositoryNames.size(); from += batchSize) {
+            List<String> batch = repositoryNames.subList(from, Math.min(from + batchSize, repositoryNames.size()));
+            try {
+                states.putAll(fetchBatch(organization, owner, authorization, batch));
+            } catch (IOException e) {
+                LOG.warn("Failed to fetch state of {} repositories: {}", batch.size(), e.getMessage());
+                LOG.debug("Preflight failure", e);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Fetch the state of a batch of repositories with a single query
+     */
+    private Map<String, RepositoryState> fetchBatch(
+            String organization, String owner, String authorization, List<String> batch) throws IOException {
+        StringBuilder query = new StringBuilder("query {");
+        for (int i = 0; i < batch.size(); i++) {
+            String name = JsonUtils.toJson(batch.get(i));
+            query.append(" r%d: repository(owner: %s, name: %s) { %s }"
+                    .formatted(i, JsonUtils.toJson(organization), name, REPOSITORY_FIELDS));
+            query.append(
+                    " f%d: repository(owner: %s, name: %s) { isFork }".formatted(i, JsonUtils.toJson(owner), name));
+        }
+        query.append(" }");
+        JsonObject payload = new JsonObject();
+        payload.addProperty("query", query.toString());
+
+        JsonObject response;
+        try (GitHubConnectorResponse httpResponse = connector.send(new GraphQLRequest(
+                endpoint, authorization, JsonUtils.toJson(payload).getBytes(StandardCharsets.UTF_8)))) {
+            if (httpResponse.statusCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("GraphQL request failed with status " + httpResponse.statusCode());
+            }
+            response = JsonUtils.fromJson(
+                    new InputStreamReader(httpResponse.bodyStream(), StandardCharsets.UTF_8), JsonObject.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid GraphQL response", e);
+        }
+        if (response == null) {
+            throw new IOException("Empty GraphQL response");
+        }
+        if (response.get("errors") instanceof JsonArray errors) {
+            for (JsonElement error : errors) {
+                JsonObject errorObject = error.isJsonObject() ? error.getAsJsonObject() : new JsonObject();
+                // Missing forks are reported as errors
+                if ("NOT_FOUND".equals(getString(errorObject, "type"))) {
+                    LOG.debug("GraphQL: {}", getString(errorObject, "message"));
+                } else {
+                    LOG.warn("GraphQL error: {}", getString(errorObject, "message"));
+                }
+            }
+        }
+        JsonObject data = getObject(response, "data");
+        if (data == null) {
+            throw new IOException("GraphQL response without data");
+        }
+
+        Map<String, RepositoryState> states = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            JsonObject repository = getObject(data, "r" + i);
+            if (repository == null) {
+                continue;
+            }
+            JsonObject pullRequests = getObject(repository, "pullRequests");
+            List<RepositoryState.PullRequestRef> ownPullRequests = null;
+            if (pullRequests != null && !getBoolean(getObject(pullRequests, "pageInfo"), "hasNextPage")) {
+                ownPullRequests = new ArrayList<>();
+                if (pullRequests.get("nodes") instanceof JsonArray nodes) {
+                    for (JsonElement node : nodes) {
+                        if (!node.isJsonObject()) {
+                            continue;
+                        }
+                        JsonObject pr = node.getAsJsonObject();
+                        if (pr.get("number") instanceof JsonPrimitive number
+                                && number.isNumber()
+                                && owner.equalsIgnoreCase(getString(getObject(pr, "headRepositoryOwner"), "login"))) {
+                            ownPullRequests.add(new RepositoryState.PullRequestRef(
+                                    number.getAsInt(), getString(pr, "headRefName"), getString(pr, "url")));
+                        }
+                    }
+                }
+                ownPullRequests = List.copyOf(ownPullRequests);
+            }
+            JsonObject defaultBranch = getObject(repository, "defaultBranchRef");
+            states.put(
+                    batch.get(i),
+                    new RepositoryState(
+                            getBoolean(repository, "isArchived"),
+                            getString(defaultBranch, "name"),
+                            getString(getObject(defaultBranch, "target"), "oid"),
+                            getObject(data, "f" + i) != null,
+                            ownPullRequests));
+        }
+        LOG.debug("Fetched state of {}/{} repositories", states.size(), batch.size());
+        return states;
+    }
+
+    /**
+     * Get a child object
+     * @return The child object or null if the parent is null or the child is missing or not an object
+     */
+    private static JsonObject getObject(JsonObject parent, String name) {
+        if (parent == null || !(parent.get(name) instanceof JsonObject child)) {
+            return null;
+        }
+        return child;
+    }
+
+    /**
+     * Get a string property
+     * @return The string or null if the parent is null or the property is missing or not a string
+     */
+    private static String getString(JsonObject parent, String name) {
+        if (parent == null || !(parent.get(name) instanceof JsonPrimitive value) || !value.isString()) {
+            return null;
+        }
+        return value.getAsString();
+    }
+
+    /**
+     * Get a boolean property
+     * @return The boolean or false if the parent is null or the property is missing or not a boolean
+     */
+    private static boolean getBoolean(JsonObject parent, String name) {
+        return parent != null
+                && parent.get(name) instanceof JsonPrimitive value
+                && value.isBoolean()
+                && value.getAsBoolean();
+    }
+
+    /**
+     * A GraphQL query request
+     */
+    private static class GraphQLRequest implements GitHubConnectorRequest {
+
+        private final URL url;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private GraphQLRequest(URL url, String authorization, byte[] body) {
+            this.url = url;
+            this.body = body;
+            this.headers = new HashMap<>();
+            this.headers.put("Accept", List.of("application/json"));
+            if (authorization != null) {
+                this.headers.put("Authorization", List.of(authorization));
+            }
+        }
+
+        @Override
+        public String method() {
+            return "POST";
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            return headers.entrySet().stream()
+                    .filter(e -> e.getKey().equalsIgnoreCase(name))
+                    .map(e -> String.join(",", e.getValue()))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        @Override
+        public String contentType() {
+            return "application/json";
+        }
+
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public URL url() {
+            return url;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.impl.PluginModernizer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * GitHub connector scheduling requests according to the rate limits.
+ * The remaining budget is tracked per token and per rate limit resource from the X-RateLimit headers, so each
+ * GitHub App installation token has its own budget. Requests wait for the reset when the budget is almost spent,
+ * write requests are serialized and paced, and requests hitting a primary or secondary rate limit are retried
+ * after backing off. The number of requests in flight is capped so many plugins processed on virtual threads
+ * don't flood GitHub. The budget spent is accounted to the plugin processed by the calling thread.
+ */
+public class RateLimitScheduler implements GitHubConnector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+    /**
+     * First backoff on a secondary rate limit without Retry-After header. Doubled on each retry
+     */
+    private static final Duration SECONDARY_RATE_LIMIT_BACKOFF = Duration.ofMinutes(1);
+
+    /**
+     * Extra time waited after a reset to absorb clock skew with GitHub
+     */
+    private static final long RESET_MARGIN_MILLIS = 1000;
+
+    /**
+     * Rate limit resource of GraphQL requests
+     */
+    private static final String GRAPHQL_RESOURCE = "graphql";
+
+    /**
+     * Key of the requests sent outside of a plugin processing
+     */
+    private static final String UNATTRIBUTED = "";
+
+    /**
+     * The connector sending requests
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * Minimum interval between two write requests
+     */
+    private final Duration writeInterval;
+
+    /**
+     * Number of requests kept in reserve before waiting for the reset
+     */
+    private final int reserve;
+
+    /**
+     * Maximum number of retries of a rate limited request
+     */
+    private final int maxRetries;
+
+    /**
+     * Last known budget by token and resource
+     */
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Budget spent by plugin name
+     */
+    private final Map<String, GitHubApiUsage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * Serialize write requests. Fair so writes are sent in the order they were queued
+     */
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+
+    /**
+     * Time of the last write request. Guarded by the write lock
+     */
+    private long lastWrite;
+
+    /**
+     * Permits of the requests in flight. Fair so requests are sent in the order they were queued
+     */
+    private volatile Semaphore inFlight = new Semaphore(Settings.GITHUB_MAX_CONCURRENT_REQUESTS, true);
+
+    /**
+     * Create a new scheduler with default settings
+     * @param delegate The connector sending requests
+     */
+    public RateLimitScheduler(GitHubConnector delegate) {
+        this(
+                delegate,
+                Settings.GITHUB_WRITE_INTERVAL,
+                Settings.GITHUB_RATE_LIMIT_RESERVE,
+                Settings.GITHUB_RATE_LIMIT_MAX_RETRIES);
+    }
+
+    /**
+     * Create a new scheduler
+     * @param delegate The connector sending requests
+     * @param writeInterval Minimum interval between two write requests
+     * @param reserve Number of requests kept in reserve before waiting for the reset
+     * @param maxRetries Maximum number of retries of a rate limited request
+     */
+    public RateLimitScheduler(GitHubConnector delegate, Duration writeInterval, int reserve, int maxRetries) {
+        this.delegate = delegate;
+        this.writeInterval = writeInterval;
+        this.reserve = reserve;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        String plugin = Objects.requireNonNullElse(MDC.get(PluginModernizer.PLUGIN_MDC_KEY), UNATTRIBUTED);
+        String resource = getResource(request);
+        // GraphQL queries are sent with POST but are not writes
+        boolean write = !"GET".equals(request.method())
+                && !"HEAD".equals(request.method())
+                && !GRAPHQL_RESOURCE.equals(resource);
+        String budgetKey = Objects.hashCode(request.header("Authorization")) + "|" + resource;
+        for (int attempt = 0; ; attempt++) {
+            long waited = awaitBudget(budgetKey);
+            GitHubConnectorResponse response;
+            if (write) {
+                writeLock.lock();
+                try {
+                    waited += sleepUntil(lastWrite + writeInterval.toMillis());
+                    response = sendLimited(request);
+                    lastWrite = System.currentTimeMillis();
+                } finally {
+                    writeLock.unlock();
+                }
+            } else {
+                response = sendLimited(request);
+            }
+            updateBudget(budgetKey, response);
+
+            long delay = -1;
+            if (response.statusCode() == HttpURLConnection.HTTP_FORBIDDEN || response.statusCode() == 429) {
+                BufferedGitHubResponse buffered = BufferedGitHubResponse.of(response);
+                delay = getRetryDelay(buffered, attempt);
+                response = buffered;
+            }
+            boolean retry = delay >= 0 && attempt < maxRetries;
+            usages.merge(
+                    plugin,
+                    new GitHubApiUsage(
+                            1,
+                            response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED ? 1 : 0,
+                            write ? 1 : 0,
+                            retry ? 1 : 0,
+                            Duration.ofMillis(waited)),
+                    GitHubApiUsage::add);
+            if (!retry) {
+                return response;
+            }
+            response.close();
+            LOG.warn(
+                    "GitHub rate limit hit on {} {}. Retrying in {}s ({}/{})",
+                    request.method(),
+                    request.url(),
+                    Duration.ofMillis(delay).toSeconds(),
+                    attempt + 1,
+                    maxRetries);
+            sleep(delay);
+            usages.merge(plugin, new GitHubApiUsage(0, 0, 0, 0, Duration.ofMillis(delay)), GitHubApiUsage::add);
+        }
+    }
+
+    /**
+     * Set the maximum number of requests in flight at the same time
+     * @param maxConcurrentRequests The maximum number of requests
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        inFlight = new Semaphore(Math.max(1, maxConcurrentRequests), true);
+    }
+
+    /**
+     * Get the budget spent by a plugin
+     * @param plugin The plugin name
+     * @return The budget spent
+     */
+    public GitHubApiUsage getUsage(String plugin) {
+        return usages.getOrDefault(plugin, GitHubApiUsage.NONE);
+    }
+
+    /**
+     * Get the budget spent by all requests, including the ones sent outside of a plugin processing
+     * @return The budget spent
+     */
+    public GitHubApiUsage getTotalUsage() {
+        return usages.values().stream().reduce(GitHubApiUsage.NONE, GitHubApiUsage::add);
+    }
+
+    /**
+     * Sleep for the given time
+     * @param millis The time to sleep in milliseconds
+     * @throws InterruptedIOException If interrupted while sleeping
+     */
+    protected void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit");
+        }
+    }
+
+    /**
+     * Send a request once a request slot is free
+     * @param request The request
+     * @return The response
+     * @throws IOException If the request failed or if interrupted while waiting for a slot
+     */
+    private GitHubConnectorResponse sendLimited(GitHubConnectorRequest request) throws IOException {
+        Semaphore permits = inFlight;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a GitHub request slot");
+        }
+        try {
+            return delegate.send(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Wait for the reset if the budget is almost spent
+     * @param budgetKey The budget key
+     * @return The time waited in milliseconds
+     */
+    private long awaitBudget(String budgetKey) throws InterruptedIOException {
+        Budget budget = budgets.get(budgetKey);
+        if (budget == null || budget.remaining() > reserve) {
+            return 0;
+        }
+        long resetMillis = budget.resetEpochSeconds() * 1000 + RESET_MARGIN_MILLIS;
+        if (resetMillis > System.currentTimeMillis()) {
+            LOG.info(
+                    "GitHub rate limit almost reached ({} remaining). Waiting {}s for the reset",
+                    budget.remaining(),
+                    Duration.ofMillis(resetMillis - System.currentTimeMillis()).toSeconds());
+        }
+        return sleepUntil(resetMillis);
+    }
+
+    /**
+     * Sleep until the given time
+     * @param millis The epoch time in milliseconds
+     * @return The time waited in milliseconds
+     */
+    private long sleepUntil(long millis) throws InterruptedIOException {
+        long delay = millis - System.currentTimeMillis();
+        if (delay <= 0) {
+            return 0;
+        }
+        sleep(delay);
+        return delay;
+    }
+
+    /**
+     * Keep the budget reported by a response
+     * @param budgetKey The budget key
+     * @param response The response
+     */
+    private void updateBudget(String budgetKey, GitHubConnectorResponse response) {
+        try {
+            String remaining = response.header("X-RateLimit-Remaining");
+            String reset = response.header("X-RateLimit-Reset");
+            if (remaining != null && reset != null) {
+                budgets.put(budgetKey, new Budget(Integer.parseInt(remaining), Long.parseLong(reset)));
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("Ignoring invalid rate limit headers", e);
+        }
+    }
+
+    /**
+     * Get the delay before retrying a forbidden or too many requests response
+     * @param response The buffered response
+     * @param attempt The attempt number starting at 0
+     * @return The delay in milliseconds or -1 if the response is not caused by a rate limit
+     */
+    private long getRetryDelay(BufferedGitHubResponse response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                LOG.debug("Ignoring invalid Retry-After header {}", retryAfter);
+            }
+        }
+        String reset = response.header("X-RateLimit-Reset");
+        if ("0".equals(response.header("X-RateLimit-Remaining")) && reset != null) {
+            try {
+                return Math.max(0, Long.parseLong(reset) * 1000 + RESET_MARGIN_MILLIS - System.currentTimeMillis());
+            } catch (NumberFormatException e) {
+                LOG.debug("Ignoring invalid rate limit reset {}", reset);
+            }
+        }
+        String body = new String(response.getBody(), StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+        if (response.statusCode() == 429 || body.contains("rate limit")) {
+            return SECONDARY_RATE_LIMIT_BACKOFF.toMillis() << Math.min(attempt, 10);
+        }
+        return -1;
+    }
+
+    /**
+     * Get the rate limit resource of a request. Budgets are tracked by token and by resource
+     * @param request The request
+     * @return The resource
+     */
+    private String getResource(GitHubConnectorRequest request) {
+        String path = request.url().getPath();
+        if (path.endsWith("/graphql")) {
+            return GRAPHQL_RESOURCE;
+        }
+        if (path.contains("/search/")) {
+            return "search";
+        }
+        return "core";
+    }
+
+    /**
+     * Last known budget
+     * @param remaining Number of remaining requests
+     * @param resetEpochSeconds Time of the reset in epoch seconds
+     */
+    private record Budget(int remaining, long resetEpochSeconds) {}
+}
@@ -0,0 +1,47 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of a plugin repository fetched up-front for all plugins of a run
+ * @param archived True if the repository is archived
+ * @param defaultBranch The default branch or null if unknown
+ * @param headCommit The commit SHA at the head of the default branch or null if unknown
+ * @param forked True if the repository is forked to the owner
+ * @param pullRequests Open pull requests from the owner or null if they could not all be fetched
+ */
+public record RepositoryState(
+        boolean archived, String defaultBranch, String headCommit, boolean forked, List<PullRequestRef> pullRequests) {
+
+    /**
+     * Copy of the state after the fork was created or deleted
+     * @param forked True if the repository is forked
+     * @return The new state
+     */
+    public RepositoryState withForked(boolean forked) {
+        return new RepositoryState(archived, defaultBranch, headCommit, forked, pullRequests);
+    }
+
+    /**
+     * Copy of the state after a pull request was opened
+     * @param pullRequest The pull request
+     * @return The new state
+     */
+    public RepositoryState withPullRequest(PullRequestRef pullRequest) {
+        if (pullRequests == null) {
+            return this;
+        }
+        List<PullRequestRef> updated = new ArrayList<>(pullRequests);
+        updated.add(pullRequest);
+        return new RepositoryState(archived, defaultBranch, headCommit, forked, List.copyOf(updated));
+    }
+
+    /**
+     * An open pull request
+     * @param number The pull request number
+     * @param headRef The head branch name
+     * @param url The HTML URL
+     */
+    public record PullRequestRef(int number, String headRef, String url) {}
+}
@@ -0,0 +1,249 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildLimits;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control of concurrent Maven builds. Each build reserves memory and cores before it starts and waits
+ * while the node is saturated, so concurrent builds are not OOM killed and don't thrash.
+ * The capacity is the total memory and cores of the node. A build is also held back while the memory currently
+ * available is lower than its reservation, which accounts for builds exceeding their share and other processes.
+ * A build is always admitted when no other build runs.
+ */
+public class BuildAdmission {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BuildAdmission.class);
+
+    private static final long MB = 1024 * 1024;
+
+    private final Resources resources;
+    private final long memoryCapacity;
+    private final int coreCapacity;
+
+    /**
+     * Guard the reservations. Fair so builds are admitted in the order they were queued
+     */
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private final Condition released = lock.newCondition();
+
+    private long reservedMemory;
+    private int reservedCores;
+    private int running;
+
+    /**
+     * Create an admission control for the resources of this node
+     */
+    public BuildAdmission() {
+        this(new SystemResources());
+    }
+
+    /**
+     * Create an admission control
+     * @param resources The resources of the node
+     */
+    BuildAdmission(Resources resources) {
+        this.resources = resources;
+        this.memoryCapacity = Math.max(1, resources.totalMemory() - Settings.BUILD_MEMORY_RESERVE);
+        this.coreCapacity = Math.max(1, resources.cores());
+        LOG.debug("Build admission capacity: {} MB and {} cores", memoryCapacity, coreCapacity);
+    }
+
+    /**
+     * Wait until a build can start and reserve its resources. Reservations larger than the node are reduced to the
+     * capacity of the node
+     * @param limits The resources of the build
+     * @return The permit to close once the build is done
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public Permit acquire(BuildLimits limits) throws InterruptedException {
+        long memory = Math.min(limits.memory(), memoryCapacity);
+        int cores = Math.min(limits.cores(), coreCapacity);
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            boolean waited = false;
+            while (!canAdmit(memory, cores)) {
+                if (!waited) {
+                    LOG.info(
+                            "Node saturated by {} builds ({} MB and {} cores reserved). Waiting for {} MB and {} cores",
+                            running,
+                            reservedMemory,
+                            reservedCores,
+                            memory,
+                            cores);
+                    waited = true;
+                }
+                // Available memory changes outside of the reservations, so check it again from time to time
+                released.await(Settings.BUILD_ADMISSION_RECHECK.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            reservedMemory += memory;
+            reservedCores += cores;
+            running++;
+            if (waited) {
+                LOG.info(
+                        "Build admitted after {}s",
+                        Duration.ofNanos(System.nanoTime() - start).toSeconds());
+            }
+            return new Permit(memory, cores);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of builds running
+     * @return The number of builds
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canAdmit(long memory, int cores) {
+        if (running == 0) {
+            return true;
+        }
+        return reservedMemory + memory <= memoryCapacity
+                && reservedCores + cores <= coreCapacity
+                && resources.availableMemory() >= memory;
+    }
+
+    /**
+     * Resources reserved by an admitted build
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long memory;
+        private final int cores;
+        private boolean closed;
+
+        private Permit(long memory, int cores) {
+            this.memory = memory;
+            this.cores = cores;
+        }
+
+        /**
+         * Get the memory reserved
+         * @return The memory in MB
+         */
+        public long getMemory() {
+            return memory;
+        }
+
+        /**
+         * Get the maximum heap of the Maven JVM. The rest of the reservation is left to metaspace, native memory and
+         * the test forks
+         * @return The heap in MB
+         */
+        public long getHeap() {
+            return Math.max(1, memory * Settings.BUILD_HEAP_PERCENT / 100);
+        }
+
+        /**
+         * Get the number of cores reserved
+         * @return The number of cores
+         */
+        public int getCores() {
+            return cores;
+        }
+
+        /**
+         * Release the resources
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    reservedMemory -= memory;
+                    reservedCores -= cores;
+                    running--;
+                    released.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Resources of a node
+     */
+    interface Resources {
+
+        /**
+         * Get the total memory
+         * @return The memory in MB
+         */
+        long totalMemory();
+
+        /**
+         * Get the memory currently available to new processes
+         * @return The memory in MB
+         */
+        long availableMemory();
+
+        /**
+         * Get the number of cores
+         * @return The number of cores
+         */
+        int cores();
+    }
+
+    /**
+     * Resources of this node. Totals are container aware. Available memory comes from /proc/meminfo when readable
+     * because the MemAvailable estimate includes reclaimable caches
+     */
+    private static final class SystemResources implements Resources {
+
+        private static final Path MEMINFO = Path.of("/proc/meminfo");
+
+        private final com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        @Override
+        public long totalMemory() {
+            return os.getTotalMemorySize() / MB;
+        }
+
+        @Override
+        public long availableMemory() {
+            if (Files.isReadable(MEMINFO)) {
+                try (Stream<String> lines = Files.lines(MEMINFO)) {
+                    Optional<String> available = lines.filter(line -> line.startsWith("MemAvailable:"))
+                            .map(line -> line.replaceAll("\\D", ""))
+                            .findFirst();
+                    if (available.isPresent()) {
+                        return Math.min(Long.parseLong(available.get()) / 1024, totalMemory());
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    LOG.debug("Unable to read available memory from {}", MEMINFO, e);
+                }
+            }
+            return os.getFreeMemorySize() / MB;
+        }
+
+        @Override
+        public int cores() {
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package io.jenkins.tools.pluginmodernizer.core.impl;
 
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
 import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
-import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.time.Clock;
@@ -22,19 +21,38 @@ public class CacheManager {
     public static final String HEALTH_SCORE_KEY = "health-score";
     public static final String INSTALLATION_STATS_KEY = "plugin-installation-stats";
     public static final String PLUGIN_METADATA_CACHE_KEY = "plugin-metadata";
+    public static final String PLUGIN_METADATA_AFTER_CACHE_KEY = "plugin-metadata-after";
+    public static final String BUILD_TIMES_CACHE_KEY = "build-times";
+    public static final String OUTCOME_LEDGER_CACHE_KEY = "outcome-ledger";
+
+    // Cache path of plugin metadata keyed by the content of the default branch
+    public static final String PLUGIN_METADATA_BY_CONTENT_PATH = "plugin-metadata-by-content";
 
     private static final Logger LOG = LoggerFactory.getLogger(CacheManager.class);
 
     private final Path location;
     private final Clock clock;
     private final boolean expires;
+    private final boolean writeBehind;
+    private final CacheCodec codec;
+    private final CacheStore store;
 
     /**
-     * Creates a new cache manager
+     * Creates a new cache manager writing JSON entries immediately
      * @param cache The location of the cache
      */
     public CacheManager(Path cache) {
-        this(cache, Clock.systemDefaultZone(), true);
+        this(cache, false, CacheCodec.JSON);
+    }
+
+    /**
+     * Creates a new cache manager
+     * @param cache The location of the cache
+     * @param writeBehind Whether entries are written to disk in background. Only when no other process reads them
+     * @param codec The codec of written entries. Entries read in another codec are rewritten with it
+     */
+    public CacheManager(Path cache, boolean writeBehind, CacheCodec codec) {
+        this(cache, Clock.systemDefaultZone(), true, writeBehind, codec, CacheStore.SHARED);
     }
 
     /**
@@ -44,9 +62,25 @@ public class CacheManager {
      * @param expires Whether the cache expires
      */
     CacheManager(Path cache, Clock clock, boolean expires) {
+        this(cache, clock, expires, false, CacheCodec.JSON, CacheStore.SHARED);
+    }
+
+    /**
+     * Creates a new cache manager with a custom clock, expiration and store
+     * @param cache The location of the cache
+     * @param clock The clock to use
+     * @param expires Whether the cache expires
+     * @param writeBehind Whether entries are written to disk in background
+     * @param codec The codec of written entries
+     * @param store The store of cache files
+     */
+    CacheManager(Path cache, Clock clock, boolean expires, boolean writeBehind, CacheCodec codec, CacheStore store) {
         this.location = cache;
         this.clock = clock;
         this.expires = expires;
+        this.writeBehind = writeBehind;
+        this.codec = codec;
+        this.store = store;
     }
 
     /**
@@ -73,6 +107,7 @@ public class CacheManager {
     public void wipe() {
         LOG.debug("Removing local data at {}", location.toAbsolutePath());
         try {
+            store.invalidate(location);
             FileUtils.deleteDirectory(location.toFile());
         } catch (Exception e) {
             throw new ModernizerException("Error removing local data", e);
@@ -91,27 +126,54 @@ public class CacheManager {
             throw new ModernizerException("Cache entry path is null");
         }
         Path fileToCache = location.resolve(entry.getPath()).resolve(entry.getKey());
-        JsonUtils.toJsonFile(entry, fileToCache);
+        try {
+            store.write(fileToCache, codec.encode(entry), FileTime.from(clock.instant()), writeBehind);
+        } catch (IOException e) {
+            throw new ModernizerException("Unable to write cache entry for key: " + entry.getKey(), e);
+        }
+    }
+
+    /**
+     * Durably write all entries not yet written to disk
+     */
+    public void flush() {
+        store.flush();
     }
 
     /**
      * Retrieves a json object from the cache.
      * <p>
      * Will return null if the key can't be found or if it hasn't been
-     * modified for 1 hour
+     * modified for 1 hour. Entries unchanged on disk are read from memory
      *
      * @param path     subdirectory of the object
      * @param cacheKey key to lookup, i.e. update-center
      * @return the cached json object as a string or null
      */
     public <T extends CacheEntry<T>> T get(Path path, String cacheKey, Class<T> clazz) {
+        return get(path, cacheKey, clazz, expires);
+    }
+
+    /**
+     * Retrieves a json object from the cache.
+     * <p>
+     * Will return null if the key can't be found or if it expires and hasn't been
+     * modified for 1 hour
+     *
+     * @param path     subdirectory of the object
+     * @param cacheKey key to lookup, i.e. update-center
+     * @param expires  whether the entry expires
+     * @return the cached json object as a string or null
+     */
+    public <T extends CacheEntry<T>> T get(Path path, String cacheKey, Class<T> clazz, boolean expires) {
         Path cachedPath = location.resolve(path).resolve(cacheKey);
         try {
-            FileTime lastModifiedTime = Files.getLastModifiedTime(cachedPath);
-            Duration between = Duration.between(lastModifiedTime.toInstant(), clock.instant());
-            long betweenHours = between.toHours();
-
-            if (betweenHours > 0L) {
+            CacheStore.Content content = store.read(cachedPath);
+            if (content == null) {
+                LOG.debug("Cache entry not found for cache {} at path {} and key {}", location, path, cacheKey);
+                return null;
+            }
+            if (isExpired(content.lastModified())) {
                 LOG.debug(
                         "Cache entry expired: {}{}",
                         cacheKey,
@@ -121,17 +183,74 @@ public class CacheManager {
                 }
             }
             LOG.debug("Cache entry found for cache {} at path {} and key {}", location, path, cacheKey);
-            T entry = JsonUtils.fromJson(cachedPath, clazz);
+            T entry = content.getDecoded(clazz);
+            if (entry != null) {
+                return entry;
+            }
+            CacheCodec storedCodec = CacheCodec.detect(content.data());
+            entry = storedCodec.decode(content.data(), clazz);
+            if (storedCodec != codec && content.size() >= 0) {
+                migrate(cachedPath, entry, storedCodec, content.lastModified());
+            }
             entry.setCacheManager(this);
+            // Read-only entries are decoded once while their content is in memory, others on each read
+            if (entry.isReadOnly()) {
+                content.decoded().set(entry);
+            }
             return entry;
-        } catch (NoSuchFileException e) {
-            LOG.debug("Cache entry not found for cache {} at path {} and key {}", location, path, cacheKey);
-            return null;
         } catch (IOException e) {
             throw new ModernizerException("Failed to read cache entry for key: " + cacheKey, e);
         }
     }
 
+    /**
+     * Rewrite an entry read in another codec. The modification time is kept so the entry expires as before
+     * @param file The file of the entry
+     * @param entry The entry
+     * @param storedCodec The codec of the file
+     * @param lastModified The modification time of the file
+     */
+    private void migrate(Path file, Object entry, CacheCodec storedCodec, FileTime lastModified) {
+        LOG.debug("Migrating cache entry {} from {} to {}", file, storedCodec, codec);
+        try {
+            store.write(file, codec.encode(entry), lastModified, writeBehind);
+        } catch (IOException e) {
+            LOG.warn("Unable to migrate cache entry {} to {}", file, codec, e);
+        }
+    }
+
+    /**
+     * Retrieves the last modified time of a cache entry without reading it.
+     * <p>
+     * Will return null if the key can't be found or if the entry is expired
+     *
+     * @param path     subdirectory of the object
+     * @param cacheKey key to lookup, i.e. update-center
+     * @return the last modified time or null
+     */
+    public FileTime getLastModifiedTime(Path path, String cacheKey) {
+        Path cachedPath = location.resolve(path).resolve(cacheKey);
+        try {
+            FileTime lastModifiedTime = store.getLastModifiedTime(cachedPath);
+            if (lastModifiedTime == null || (isExpired(lastModifiedTime) && expires)) {
+                return null;
+            }
+            return lastModifiedTime;
+        } catch (IOException e) {
+            throw new ModernizerException("Failed to read cache entry for key: " + cacheKey, e);
+        }
+    }
+
+    /**
+     * Check if an entry modified at the given time is older than 1 hour
+     * @param lastModifiedTime The last modified time of the entry
+     * @return True if expired
+     */
+    private boolean isExpired(FileTime lastModifiedTime) {
+        Duration between = Duration.between(lastModifiedTime.toInstant(), clock.instant());
+        return between.toHours() > 0L;
+    }
+
     /**
      * Removes a cache entry
      * @param cacheKey The key to remove
@@ -139,8 +258,7 @@ public class CacheManager {
     public void remove(Path path, String cacheKey) {
         Path fileToRemove = location.resolve(path).resolve(cacheKey);
         try {
-            if (Files.exists(fileToRemove)) {
-                Files.delete(fileToRemove);
+            if (store.delete(fileToRemove)) {
                 LOG.debug("Cache entry removed for key: {} at location {}", cacheKey, location);
             }
         } catch (IOException e) {
@@ -0,0 +1,326 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Two-tier storage of cache files shared by all cache managers of the JVM.
+ * Contents are kept in a size-bounded LRU in front of the disk and served while the file modification time
+ * and size are unchanged, so files written by another process are always read again. Writes can be deferred:
+ * successive writes of the same file are coalesced and flushed by a background thread, and durably at shutdown.
+ * Contents are stored as encoded by the cache managers.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "false positive")
+final class CacheStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheStore.class);
+
+    /**
+     * The store of the JVM
+     */
+    static final CacheStore SHARED = new CacheStore(Settings.CACHE_MEMORY_LIMIT, Settings.CACHE_WRITE_BEHIND_DELAY);
+
+    /**
+     * Maximum number of bytes kept in memory
+     */
+    private final long limit;
+
+    /**
+     * Delay before writing a deferred write
+     */
+    private final Duration delay;
+
+    /**
+     * Validated contents by absolute file path. Least recently used contents are evicted first
+     */
+    private final LinkedHashMap<Path, Content> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Number of bytes of the contents in memory
+     */
+    private long weight;
+
+    /**
+     * Deferred writes by absolute file path. A write is performed while holding the entry so a file
+     * is never written and deleted concurrently
+     */
+    private final Map<Path, Content> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher;
+
+    private final AtomicBoolean shutdownHook = new AtomicBoolean();
+
+    /**
+     * Create a new store
+     * @param limit Maximum number of bytes kept in memory
+     * @param delay Delay before writing a deferred write
+     */
+    CacheStore(long limit, Duration delay) {
+        this.limit = limit;
+        this.delay = delay;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cache-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.flusher = executor;
+    }
+
+    /**
+     * Read a file
+     * @param file The file
+     * @return The content or null if the file doesn't exist
+     * @throws IOException If the file cannot be read
+     */
+    Content read(Path file) throws IOException {
+        Path key = key(file);
+        Content deferred = pending.get(key);
+        if (deferred != null) {
+            return deferred;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            evict(key);
+            return null;
+        }
+        synchronized (this) {
+            Content content = memory.get(key);
+            if (content != null && content.isValid(attributes)) {
+                LOG.trace("Cache memory hit for {}", key);
+                return content;
+            }
+        }
+        Content content = new Content(Files.readAllBytes(key), attributes.lastModifiedTime(), attributes.size());
+        remember(key, content);
+        return content;
+    }
+
+    /**
+     * Get the last modified time of a file including deferred writes
+     * @param file The file
+     * @return The last modified time or null if the file doesn't exist
+     * @throws IOException If the file attributes cannot be read
+     */
+    FileTime getLastModifiedTime(Path file) throws IOException {
+        Path key = key(file);
+        Content deferred = pending.get(key);
+        if (deferred != null) {
+            return deferred.lastModified();
+        }
+        try {
+            return Files.getLastModifiedTime(key);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write a file
+     * @param file The file
+     * @param data The content
+     * @param time The modification time of the file or null for the time of the write
+     * @param defer True to defer the write
+     * @throws IOException If the file cannot be written
+     */
+    void write(Path file, byte[] data, FileTime time, boolean defer) throws IOException {
+        Path key = key(file);
+        evict(key);
+        if (defer) {
+            if (pending.put(key, new Content(data, time, -1)) == null) {
+                if (shutdownHook.compareAndSet(false, true)) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "cache-flush"));
+                }
+                flusher.schedule(() -> flush(key, false), delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        try {
+            pending.compute(key, (k, deferred) -> {
+                writeFile(k, data, time, false);
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Delete a file and cancel its deferred write
+     * @param file The file
+     * @return True if the file existed
+     * @throws IOException If the file cannot be deleted
+     */
+    boolean delete(Path file) throws IOException {
+        Path key = key(file);
+        boolean deferred = pending.remove(key) != null;
+        evict(key);
+        return Files.deleteIfExists(key) || deferred;
+    }
+
+    /**
+     * Forget all contents and cancel all deferred writes below a directory
+     * @param directory The directory
+     */
+    void invalidate(Path directory) {
+        Path root = key(directory);
+        pending.keySet().removeIf(file -> file.startsWith(root));
+        synchronized (this) {
+            Iterator<Map.Entry<Path, Content>> iterator = memory.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, Content> entry = iterator.next();
+                if (entry.getKey().startsWith(root)) {
+                    weight -= entry.getValue().data().length;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Durably write all deferred writes
+     */
+    void flush() {
+        for (Path key : pending.keySet()) {
+            flush(key, true);
+        }
+    }
+
+    /**
+     * Write a deferred write if still pending
+     * @param key The file
+     * @param sync True to force the content to the storage device
+     */
+    private void flush(Path key, boolean sync) {
+        try {
+            pending.computeIfPresent(key, (k, deferred) -> {
+                writeFile(k, deferred.data(), deferred.lastModified(), sync);
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            LOG.warn("Unable to write cache file {}", key, e.getCause());
+        }
+    }
+
+    /**
+     * Write a file through a temporary file so readers never see a partial file. Must be called while
+     * holding the pending entry of the file
+     */
+    private void writeFile(Path key, byte[] data, FileTime time, boolean sync) {
+        try {
+            LOG.debug("Writing cache file to {}", key);
+            Files.createDirectories(key.getParent());
+            Path tmp = Files.createTempFile(key.getParent(), key.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(data);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    if (sync) {
+                        channel.force(true);
+                    }
+                }
+                if (time != null) {
+                    Files.setLastModifiedTime(tmp, time);
+                }
+                Files.move(tmp, key, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+            remember(key, new Content(data, attributes.lastModifiedTime(), attributes.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void remember(Path key, Content content) {
+        if (content.data().length > limit) {
+            return;
+        }
+        Content previous = memory.put(key, content);
+        if (previous != null) {
+            weight -= previous.data().length;
+        }
+        weight += content.data().length;
+        Iterator<Content> iterator = memory.values().iterator();
+        while (weight > limit && iterator.hasNext()) {
+            weight -= iterator.next().data().length;
+            iterator.remove();
+        }
+    }
+
+    private synchronized void evict(Path key) {
+        Content previous = memory.remove(key);
+        if (previous != null) {
+            weight -= previous.data().length;
+        }
+    }
+
+    /**
+     * Number of bytes of the contents in memory
+     * @return The weight
+     */
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    private Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Content of a file
+     * @param data The encoded content
+     * @param lastModified The last modified time
+     * @param size The size in bytes on disk or -1 for a deferred write
+     * @param decoded The read-only entry decoded from the content, shared by all readers
+     */
+    record Content(byte[] data, FileTime lastModified, long size, AtomicReference<Object> decoded) {
+
+        Content(byte[] data, FileTime lastModified, long size) {
+            this(data, lastModified, size, new AtomicReference<>());
+        }
+
+        /**
+         * Get the entry decoded from the content
+         * @param clazz The class of the entry
+         * @param <T> The type of the entry
+         * @return The decoded entry or null if not decoded yet
+         */
+        <T> T getDecoded(Class<T> clazz) {
+            Object entry = decoded.get();
+            return clazz.isInstance(entry) ? clazz.cast(entry) : null;
+        }
+
+        private boolean isValid(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local Maven repositories used by concurrent builds.
+ * In overlay mode, the local repository is a read-only base given to Maven as tail of the local repository, and each
+ * build writes to its own overlay leased for the duration of the build. Released artifacts downloaded in an overlay
+ * are promoted to the base once the overlay is idle, so they are shared by later builds.
+ * Overlays have unique names and are locked with a file lock while leased or promoted, so processes sharing the cache
+ * directory never write to the same overlay. Unlocked overlays left by previous runs are reused.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "false positive")
+public class LocalRepositories {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalRepositories.class);
+
+    private final Path base;
+    private final Path cachePath;
+    private final LocalRepositoryMode mode;
+    private final Duration promotionInterval;
+
+    /**
+     * Guard the idle overlays
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Deque<Overlay> idle = new ArrayDeque<>();
+
+    /**
+     * Overlays of this process, leased or idle
+     */
+    private final Set<Path> owned = new HashSet<>();
+
+    /**
+     * Create the local repositories
+     * @param base The local repository
+     * @param cachePath The cache path holding the overlays
+     * @param mode How builds share the local repository
+     */
+    public LocalRepositories(Path base, Path cachePath, LocalRepositoryMode mode) {
+        this(base, cachePath, mode, Settings.LOCAL_REPO_PROMOTION_INTERVAL);
+    }
+
+    /**
+     * Create the local repositories
+     * @param base The local repository
+     * @param cachePath The cache path holding the overlays
+     * @param mode How builds share the local repository
+     * @param promotionInterval Minimum interval between two promotions of an overlay
+     */
+    LocalRepositories(Path base, Path cachePath, LocalRepositoryMode mode, Duration promotionInterval) {
+        this.base = base;
+        this.cachePath = cachePath;
+        this.mode = mode;
+        this.promotionInterval = promotionInterval;
+    }
+
+    /**
+     * Lease the local repository of a build
+     * @return The lease to close once the build is done
+     * @throws IOException If the overlay cannot be created
+     */
+    public Lease acquire() throws IOException {
+        return switch (mode) {
+            case SHARED -> new Lease(List.of("-Dmaven.repo.local=%s".formatted(base)));
+            case LOCKED -> new Lease(List.of(
+                    "-Dmaven.repo.local=%s".formatted(base),
+                    "-Daether.syncContext.named.factory=file-lock",
+                    "-Daether.syncContext.named.nameMapper=file-gav"));
+            case OVERLAY -> leaseOverlay();
+        };
+    }
+
+    /**
+     * Promote the artifacts of all idle overlays to the base
+     */
+    public void promoteAll() {
+        List<Overlay> overlays;
+        lock.lock();
+        try {
+            overlays = new ArrayList<>(idle);
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            for (Overlay overlay : overlays) {
+                try (FileChannel ignored = overlay.lock()) {
+                    promote(overlay);
+                } catch (IOException e) {
+                    LOG.warn("Failed to lock local repository overlay {}", overlay.path, e);
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                idle.addAll(overlays);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lease an idle overlay of this process, an unlocked overlay left by a previous run or a new overlay
+     * @return The lease holding the lock of the overlay
+     * @throws IOException If the overlay cannot be locked or created
+     */
+    private Lease leaseOverlay() throws IOException {
+        Overlay overlay;
+        lock.lock();
+        try {
+            overlay = idle.pollFirst();
+            if (overlay == null) {
+                return adoptOrCreateOverlay();
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return new Lease(overlay, overlay.lock());
+        } catch (IOException e) {
+            lock.lock();
+            try {
+                idle.addFirst(overlay);
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private Lease adoptOrCreateOverlay() throws IOException {
+        Path overlays = cachePath.resolve(Settings.LOCAL_REPO_OVERLAYS_SUBDIR);
+        Files.createDirectories(overlays);
+        List<Path> candidates;
+        try (Stream<Path> paths = Files.list(overlays)) {
+            candidates = paths.filter(Files::isDirectory)
+                    .filter(path -> !owned.contains(path))
+                    .sorted()
+                    .toList();
+        }
+        for (Path path : candidates) {
+            Overlay overlay = new Overlay(path);
+            FileChannel channel = overlay.tryLock();
+            if (channel != null) {
+                owned.add(path);
+                LOG.debug("Reusing local repository overlay {}", path);
+                return new Lease(overlay, channel);
+            }
+        }
+        Overlay overlay = new Overlay(Files.createTempDirectory(overlays, "overlay-"));
+        owned.add(overlay.path);
+        LOG.debug("Created local repository overlay {}", overlay.path);
+        return new Lease(overlay, overlay.lock());
+    }
+
+    private void release(Overlay overlay) {
+        try {
+            if (System.nanoTime() - overlay.lastPromotion >= promotionInterval.toNanos()) {
+                promote(overlay);
+            }
+        } finally {
+            lock.lock();
+            try {
+                idle.addFirst(overlay);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Move the released artifacts of an idle overlay to the base. Files are copied next to their target and renamed
+     * so builds reading the base never see a partial file. Files already in the base are dropped from the overlay
+     * @param overlay The overlay
+     */
+    private void promote(Overlay overlay) {
+        overlay.lastPromotion = System.nanoTime();
+        int promoted = 0;
+        try (Stream<Path> files = Files.walk(overlay.path)) {
+            for (Path file : files.filter(Files::isRegularFile)
+                    .filter(this::isPromotable)
+                    .toList()) {
+                Path target = base.resolve(overlay.path.relativize(file).toString());
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".promote");
+                    Files.copy(file, temp);
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                        promoted++;
+                    } catch (FileAlreadyExistsException e) {
+                        Files.deleteIfExists(temp);
+                    }
+                }
+                Files.delete(file);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            LOG.warn("Failed to promote local repository overlay {} to {}", overlay.path, base, e);
+        }
+        LOG.debug("Promoted {} files from local repository overlay {}", promoted, overlay.path);
+    }
+
+    /**
+     * Only immutable files of released artifacts are promoted. Repository metadata, snapshots, download markers and
+     * resolver state stay in the overlay. The _remote.repositories record of the overlay is not promoted either, as it
+     * would replace or conflict with the record of the artifacts already in the local repository
+     * @param file The file of the overlay
+     * @return True if the file can be promoted
+     */
+    private boolean isPromotable(Path file) {
+        String name = file.getFileName().toString();
+        Path version = file.getParent();
+        return !name.startsWith("maven-metadata")
+                && !name.equals("resolver-status.properties")
+                && !name.equals("_remote.repositories")
+                && !name.endsWith(".lastUpdated")
+                && !name.endsWith(".part")
+                && !name.endsWith(".lock")
+                && version != null
+                && !version.getFileName().toString().endsWith("-SNAPSHOT");
+    }
+
+    /**
+     * Local repository of a build
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final List<String> args;
+        private final Overlay overlay;
+        private final FileChannel lockChannel;
+
+        private Lease(List<String> args) {
+            this.args = args;
+            this.overlay = null;
+            this.lockChannel = null;
+        }
+
+        private Lease(Overlay overlay, FileChannel lockChannel) {
+            this.args = List.of(
+                    "-Dmaven.repo.local=%s".formatted(overlay.path),
+                    "-Dmaven.repo.local.tail=%s".formatted(base),
+                    "-Dmaven.repo.local.tail.ignoreAvailability=true");
+            this.overlay = overlay;
+            this.lockChannel = lockChannel;
+        }
+
+        /**
+         * Get the Maven arguments selecting the local repository
+         * @return The arguments
+         */
+        public List<String> getArgs() {
+            return args;
+        }
+
+        /**
+         * Release the local repository and promote its artifacts if due. The overlay is unlocked once promoted
+         */
+        @Override
+        public void close() {
+            if (overlay != null) {
+                try {
+                    release(overlay);
+                } finally {
+                    try {
+                        lockChannel.close();
+                    } catch (IOException e) {
+                        LOG.warn("Failed to unlock local repository overlay {}", overlay.path, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Overlay {
+
+        private final Path path;
+        private final Path lockFile;
+        private long lastPromotion = System.nanoTime();
+
+        private Overlay(Path path) {
+            this.path = path;
+            this.lockFile = path.resolveSibling(path.getFileName() + ".lock");
+        }
+
+        /**
+         * Lock the overlay, waiting for other processes to unlock it
+         * @return The channel holding the lock. Closing it releases the lock
+         * @throws IOException If the overlay cannot be locked
+         */
+        private FileChannel lock() throws IOException {
+            FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                channel.lock();
+                return channel;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Lock the overlay if no other process or lease holds it
+         * @return The channel holding the lock or null if the overlay is locked
+         * @throws IOException If the lock file cannot be opened
+         */
+        private FileChannel tryLock() throws IOException {
+            FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                if (channel.tryLock() != null) {
+                    return channel;
+                }
+            } catch (OverlappingFileLockException e) {
+                // Locked by another lease of this process
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            channel.close();
+            return null;
+        }
+    }
+}
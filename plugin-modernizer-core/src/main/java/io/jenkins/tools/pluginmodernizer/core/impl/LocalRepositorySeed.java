@@ -0,0 +1,129 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.config.RecipesConsts;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Artifacts shared by the builds of the plugins, resolved once in the local repository before the plugins are built
+ * offline. It's the union of the parent POM, BOM and Jenkins core of the plugins, the rewrite plugin and the recipes.
+ */
+final class LocalRepositorySeed {
+
+    /**
+     * Only plain versions can be written to the seed project. Others are likely unresolved properties
+     */
+    private static final Pattern VERSION = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private static final String JENKINS_CORE = "org.jenkins-ci.main:jenkins-core";
+
+    /**
+     * Sorted coordinates groupId:artifactId:version:type
+     */
+    private final Set<String> artifacts;
+
+    private LocalRepositorySeed(Set<String> artifacts) {
+        this.artifacts = Collections.unmodifiableSet(artifacts);
+    }
+
+    /**
+     * Collect the artifacts shared by the plugins
+     * @param metadata The metadata of the plugins
+     * @param version The version of the modernizer providing the recipes or null if unknown
+     * @return The seed
+     */
+    static LocalRepositorySeed of(Collection<PluginMetadata> metadata, String version) {
+        Set<String> artifacts = new TreeSet<>();
+        for (PluginMetadata plugin : metadata) {
+            add(artifacts, RecipesConsts.PLUGIN_POM_GROUP_ID + ":plugin", plugin.getParentVersion(), "pom");
+            if (plugin.getBomArtifactId() != null
+                    && VERSION.matcher(plugin.getBomArtifactId()).matches()) {
+                add(
+                        artifacts,
+                        RecipesConsts.PLUGINS_BOM_GROUP_ID + ":" + plugin.getBomArtifactId(),
+                        plugin.getBomVersion(),
+                        "pom");
+            }
+            add(artifacts, JENKINS_CORE, plugin.getJenkinsVersion(), "jar");
+        }
+        // Development versions are installed locally and can't be resolved remotely
+        if (version != null && !version.endsWith("-SNAPSHOT")) {
+            add(artifacts, "io.jenkins.plugin-modernizer:plugin-modernizer-core", version, "jar");
+        }
+        return new LocalRepositorySeed(artifacts);
+    }
+
+    private static void add(Set<String> artifacts, String key, String version, String type) {
+        if (version != null && VERSION.matcher(version).matches()) {
+            artifacts.add(key + ":" + version + ":" + type);
+        }
+    }
+
+    /**
+     * Get the artifacts to resolve
+     * @return The coordinates groupId:artifactId:version:type
+     */
+    Set<String> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * Get the POM of the project resolving the artifacts and the rewrite plugin from the Jenkins repository
+     * @return The POM
+     */
+    String toPom() {
+        String dependencies = artifacts.stream()
+                .map(artifact -> artifact.split(":"))
+                .map(parts ->
+                        """
+                            <dependency>
+                              <groupId>%s</groupId>
+                              <artifactId>%s</artifactId>
+                              <version>%s</version>
+                              <type>%s</type>
+                            </dependency>
+                        """
+                                .formatted(parts[0], parts[1], parts[2], parts[3]))
+                .collect(Collectors.joining());
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>io.jenkins.plugin-modernizer</groupId>
+                  <artifactId>local-repository-seed</artifactId>
+                  <version>1</version>
+                  <packaging>pom</packaging>
+                  <repositories>
+                    <repository>
+                      <id>repo.jenkins-ci.org</id>
+                      <url>%1$s</url>
+                    </repository>
+                  </repositories>
+                  <pluginRepositories>
+                    <pluginRepository>
+                      <id>repo.jenkins-ci.org</id>
+                      <url>%1$s</url>
+                    </pluginRepository>
+                  </pluginRepositories>
+                  <dependencies>
+                %2$s  </dependencies>
+                  <build>
+                    <plugins>
+                      <plugin>
+                        <groupId>org.openrewrite.maven</groupId>
+                        <artifactId>rewrite-maven-plugin</artifactId>
+                        <version>%3$s</version>
+                      </plugin>
+                    </plugins>
+                  </build>
+                </project>
+                """
+                .formatted(Settings.JENKINS_REPOSITORY_URL, dependencies, Settings.MAVEN_REWRITE_PLUGIN_VERSION);
+    }
+}
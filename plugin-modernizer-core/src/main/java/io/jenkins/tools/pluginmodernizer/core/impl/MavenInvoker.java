@@ -4,18 +4,28 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildLimits;
+import io.jenkins.tools.pluginmodernizer.core.model.GoalType;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
+import io.jenkins.tools.pluginmodernizer.core.recipes.FetchMetadataAfter;
 import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
@@ -23,6 +33,7 @@ import org.apache.maven.shared.invoker.InvocationRequest;
 import org.apache.maven.shared.invoker.InvocationResult;
 import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.shared.invoker.UpdateSnapshotsPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +60,23 @@ public class MavenInvoker {
     @Inject
     private Invoker invoker;
 
+    /**
+     * The admission control of concurrent builds
+     */
+    @Inject
+    private BuildAdmission buildAdmission;
+
+    /**
+     * The local repositories of concurrent builds
+     */
+    @Inject
+    private LocalRepositories localRepositories;
+
+    /**
+     * Plugins built offline once the local repository is seeded
+     */
+    private final Set<String> offlinePlugins = ConcurrentHashMap.newKeySet();
+
     /**
      * Get the maven version
      * @return The maven version
@@ -75,6 +103,56 @@ public class MavenInvoker {
         }
     }
 
+    /**
+     * Resolve the artifacts shared by the plugins once in the local repository so plugins are built offline without
+     * checking remote repositories again. Only plugins with metadata from a previous run are built offline because
+     * their own dependencies are usually already in the local repository. A plugin whose offline build misses artifacts
+     * is built online from then on. Plugins are built online if seeding fails
+     * @param metadata The cached metadata by plugin name
+     */
+    public void seedLocalRepository(Map<String, PluginMetadata> metadata) {
+        LocalRepositorySeed seed = LocalRepositorySeed.of(metadata.values(), config.getVersion());
+        Path pom =
+                config.getCachePath().resolve(Settings.LOCAL_REPO_SEED_SUBDIR).resolve("pom.xml");
+        LOG.info(
+                "Seeding the local repository with {} artifacts shared by {} plugins",
+                seed.getArtifacts().size(),
+                metadata.size());
+        try {
+            Files.createDirectories(pom.getParent());
+            Files.writeString(pom, seed.toPom());
+            InvocationRequest request = new DefaultInvocationRequest();
+            request.setMavenHome(config.getMavenHome().toFile());
+            request.setPomFile(pom.toFile());
+            request.setBatchMode(true);
+            request.addArg("org.apache.maven.plugins:maven-dependency-plugin:%s:go-offline"
+                    .formatted(Settings.MAVEN_DEPENDENCY_PLUGIN_VERSION));
+            request.setOutputHandler(LOG::debug);
+            request.setErrorHandler(LOG::error);
+            InvocationResult result;
+            try (LocalRepositories.Lease lease = localRepositories.acquire();
+                    BuildAdmission.Permit permit =
+                            buildAdmission.acquire(config.getBuildLimits(GoalType.QUICK_BUILD))) {
+                lease.getArgs().forEach(request::addArg);
+                request.setMavenOpts("-Xmx%dm".formatted(permit.getHeap()));
+                result = invoker.execute(request);
+            }
+            if (result.getExitCode() != 0) {
+                LOG.warn("Failed to seed the local repository with {}. Plugins are built online", pom);
+                return;
+            }
+        } catch (MavenInvocationException | IOException e) {
+            LOG.warn("Failed to seed the local repository with {}. Plugins are built online", pom, e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while seeding the local repository. Plugins are built online");
+            return;
+        }
+        offlinePlugins.addAll(metadata.keySet());
+        LOG.info("Local repository seeded. {} plugins are built offline", metadata.size());
+    }
+
     /**
      * Invoke a goal on a plugin
      * @param plugin The plugin to run the goal on
@@ -85,7 +163,7 @@ public class MavenInvoker {
         LOG.debug(
                 "Running maven on directory {}",
                 plugin.getLocalRepository().toAbsolutePath().toFile());
-        invokeGoals(plugin, goals);
+        invokeGoals(plugin, GoalType.of(goals), goals);
     }
 
     /**
@@ -94,7 +172,7 @@ public class MavenInvoker {
      */
     public void collectMetadata(Plugin plugin) {
         LOG.info("Collecting metadata for plugin {}... Please be patient", plugin);
-        invokeGoals(plugin, getSingleRecipeArgs(Settings.FETCH_METADATA_RECIPE));
+        invokeGoals(plugin, GoalType.METADATA, getSingleRecipeArgs(Settings.FETCH_METADATA_RECIPE));
         LOG.info("Done");
     }
 
@@ -103,49 +181,118 @@ public class MavenInvoker {
      * @param plugin The plugin to run the rewrite on
      */
     public void invokeRewrite(Plugin plugin) {
+        buildOnline(plugin);
         plugin.addTags(config.getRecipe().getTags());
         LOG.info(
                 "Running recipes {} for plugin {}... Please be patient",
                 config.getRecipe().getName(),
                 plugin);
-        invokeGoals(plugin, getSingleRecipeArgs(config.getRecipe()));
+        invokeGoals(plugin, GoalType.METADATA, getSingleRecipeArgs(config.getRecipe()));
+        LOG.info("Done");
+    }
+
+    /**
+     * Collect metadata, run the rewrite modernization and collect metadata after modernization in a single rewrite run
+     * Sources are parsed only once and both metadata files are written to the target directory of the plugin
+     * @param plugin The plugin to run the rewrite on
+     */
+    public void invokeSinglePassRewrite(Plugin plugin) {
+        buildOnline(plugin);
+        plugin.addTags(config.getRecipe().getTags());
+        LOG.info(
+                "Collecting metadata and running recipes {} for plugin {} in a single pass... Please be patient",
+                config.getRecipe().getName(),
+                plugin);
+        invokeGoals(
+                plugin,
+                GoalType.METADATA,
+                getRecipesArgs(
+                        Settings.FETCH_METADATA_RECIPE.getName(),
+                        config.getRecipe().getName(),
+                        FetchMetadataAfter.class.getName()));
         LOG.info("Done");
     }
 
+    /**
+     * Build a plugin online from now on. Recipes can move its parent POM, BOM or Jenkins core to versions that are
+     * not part of the seed, so the rewrite and the builds verifying it must be able to download them
+     * @param plugin The plugin
+     */
+    private void buildOnline(Plugin plugin) {
+        if (offlinePlugins.remove(plugin.getName())) {
+            LOG.debug("Building plugin {} online from the modernization recipe", plugin.getName());
+        }
+    }
+
     /**
      * Get the rewrite arguments to be executed for metadata collection
      * @return The list of arguments to be passed to the rewrite plugin
      */
     private String[] getSingleRecipeArgs(Recipe recipe) {
+        return getRecipesArgs(recipe.getName());
+    }
+
+    /**
+     * Get the rewrite arguments to run the given recipes, in order, during the same rewrite run
+     * @param recipes The recipe names
+     * @return The list of arguments to be passed to the rewrite plugin
+     */
+    private String[] getRecipesArgs(String... recipes) {
         List<String> goals = new ArrayList<>();
         goals.add("org.openrewrite.maven:rewrite-maven-plugin:" + Settings.MAVEN_REWRITE_PLUGIN_VERSION + ":run");
         goals.add("-Denforcer.skip=true");
-        goals.add("-Dmaven.repo.local=%s".formatted(config.getMavenLocalRepo()));
-        goals.add("-Drewrite.activeRecipes=" + recipe.getName());
+        goals.add("-Drewrite.activeRecipes=" + String.join(",", recipes));
         goals.add("-Drewrite.recipeArtifactCoordinates=io.jenkins.plugin-modernizer:plugin-modernizer-core:"
                 + config.getVersion());
         return goals.toArray(String[]::new);
     }
 
     /**
-     * Invoke a list of maven goal on the plugin
+     * Invoke a list of maven goal on the plugin once the node has room for the build
      * @param plugin The plugin to run the goals on
+     * @param type The type of the build, giving its memory and cores
      * @param goals The list of goals to run
      */
-    private void invokeGoals(Plugin plugin, String... goals) {
+    private void invokeGoals(Plugin plugin, GoalType type, String... goals) {
         validatePom(plugin);
+        boolean offline = offlinePlugins.contains(plugin.getName());
+        if (executeGoals(plugin, type, offline, goals)) {
+            LOG.warn(
+                    plugin.getMarker(),
+                    "Artifacts of plugin {} are missing from the seeded local repository. Building online",
+                    plugin.getName());
+            buildOnline(plugin);
+            executeGoals(plugin, type, false, goals);
+        }
+    }
+
+    /**
+     * Run a build of a plugin once the node has room for it
+     * @param plugin The plugin to run the goals on
+     * @param type The type of the build, giving its memory and cores
+     * @param offline True to build offline
+     * @param goals The list of goals to run
+     * @return True if the offline build failed to resolve artifacts missing from the local repository
+     */
+    private boolean executeGoals(Plugin plugin, GoalType type, boolean offline, String... goals) {
         try {
             InvocationRequest request = createInvocationRequest(plugin, goals);
+            if (offline) {
+                request.setOffline(true);
+                request.setUpdateSnapshotsPolicy(UpdateSnapshotsPolicy.NEVER);
+            }
+            List<String> mavenOpts = new ArrayList<>();
             JDK jdk = plugin.getJDK();
+            Path jdkPath = null;
             if (jdk != null) {
-                Path jdkPath = jdk.getHome(jdkFetcher);
+                jdkPath = jdk.getHome(jdkFetcher);
                 request.setJavaHome(jdkPath.toFile());
                 LOG.debug("JDK home: {}", jdkPath);
 
                 // In order to rewrite on outdated plugins set add-opens
                 if (jdk.getMajor() >= 17) {
                     LOG.debug("Adding --add-opens for JDK 17+");
-                    request.setMavenOpts(
+                    mavenOpts.add(
                             "--add-opens java.base/java.lang=ALL-UNNAMED --add-opens java.base/java.io=ALL-UNNAMED --add-opens java.base/java.util=ALL-UNNAMED");
                 }
             }
@@ -154,14 +301,85 @@ public class MavenInvoker {
             request.setErrorHandler((message) -> {
                 LOG.error(plugin.getMarker(), String.format("Something went wrong when running maven: %s", message));
             });
+            AtomicBoolean unresolved = new AtomicBoolean();
             request.setOutputHandler((message) -> {
                 LOG.info(plugin.getMarker(), message);
+                if (offline && message.contains("in offline mode")) {
+                    unresolved.set(true);
+                }
             });
-            InvocationResult result = invoker.execute(request);
-            handleInvocationResult(plugin, result);
-        } catch (MavenInvocationException | InterruptedException | IOException e) {
+            // The local repository is released after the build resources, so promoting it doesn't hold them
+            try (LocalRepositories.Lease lease = localRepositories.acquire();
+                    BuildAdmission.Permit permit = buildAdmission.acquire(getBuildLimits(type))) {
+                lease.getArgs().forEach(request::addArg);
+                mavenOpts.addFirst("-Xmx%dm".formatted(permit.getHeap()));
+                request.setMavenOpts(String.join(" ", mavenOpts));
+                PluginMetadata metadata = plugin.getMetadata();
+                config.getAccelerationProfile()
+                        .getArgs(type, permit.getCores(), metadata != null ? metadata.getForkCount() : null)
+                        .forEach(request::addArg);
+                if (config.isMavenDaemon()) {
+                    useMavenDaemon(request, jdkPath);
+                }
+                LOG.debug("Running {} build with {} MB heap and {} cores", type, permit.getHeap(), permit.getCores());
+                long start = System.nanoTime();
+                InvocationResult result = invoker.execute(request);
+                if (result.getExitCode() == 0) {
+                    plugin.addBuildTime(String.join(" ", goals), Duration.ofNanos(System.nanoTime() - start));
+                } else if (unresolved.get()) {
+                    return true;
+                }
+                handleInvocationResult(plugin, result);
+            }
+        } catch (MavenInvocationException | IOException e) {
             plugin.addError("Maven invocation failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.addError("Interrupted while waiting to run Maven", e);
         }
+        return false;
+    }
+
+    /**
+     * Get the resources reserved by a build. Builds on Maven daemons all reserve the memory of the largest goal type,
+     * so daemons get the same heap whatever the goal they run and are shared by all goal types
+     * @param type The goal type of the build
+     * @return The resources to reserve
+     */
+    private BuildLimits getBuildLimits(GoalType type) {
+        BuildLimits limits = config.getBuildLimits(type);
+        if (!config.isMavenDaemon()) {
+            return limits;
+        }
+        int memory = Arrays.stream(GoalType.values())
+                .mapToInt(goalType -> config.getBuildLimits(goalType).memory())
+                .max()
+                .orElse(limits.memory());
+        return new BuildLimits(memory, limits.cores());
+    }
+
+    /**
+     * Execute the request on a warm Maven daemon (mvnd) instead of forking a new Maven JVM.
+     * Daemons are reused across invocations as long as they are compatible with the request. Because the daemon is
+     * selected by its Java home and JVM options, each JDK gets its own pool of daemons. The heap is the same for all
+     * goal types so the pools are not split further.
+     * @param request The invocation request
+     * @param jdkPath The JDK home or null to use the default one
+     */
+    private void useMavenDaemon(InvocationRequest request, @Nullable Path jdkPath) {
+        Path mvndHome = config.getMvndHome();
+        request.setMavenHome(mvndHome.toFile());
+        request.setMavenExecutable(mvndHome.resolve("bin/mvnd").toFile());
+        if (jdkPath != null) {
+            request.addArg("-Dmvnd.javaHome=%s".formatted(jdkPath));
+        }
+        if (request.getMavenOpts() != null) {
+            request.addArg("-Dmvnd.jvmArgs=%s".formatted(request.getMavenOpts()));
+        }
+        // Keep plain output so it's routed line by line to the plugin logs
+        request.addArg("-Dmvnd.rawStreams=true");
+        request.addArg("-Dmvnd.idleTimeout=%s".formatted(Settings.MVND_IDLE_TIMEOUT));
+        LOG.debug("Using Maven daemon from {}", mvndHome);
     }
 
     /**
@@ -191,6 +409,17 @@ public class MavenInvoker {
             throw new ModernizerException("Invalid Maven home directory at '%s'.".formatted(mavenHome));
         }
 
+        if (config.isMavenDaemon()) {
+            Path mvndHome = config.getMvndHome();
+            if (mvndHome == null) {
+                throw new ModernizerException(
+                        "Maven daemon is enabled but MVND_HOME environment variable is not set. Or use --mvnd-home if running from CLI");
+            }
+            if (!Files.isDirectory(mvndHome) || !Files.isExecutable(mvndHome.resolve("bin/mvnd"))) {
+                throw new ModernizerException("Invalid Maven daemon home directory at '%s'.".formatted(mvndHome));
+            }
+        }
+
         Path mavenLocalRepo = config.getMavenLocalRepo();
         if (mavenLocalRepo == null) {
             throw new ModernizerException("Maven local repository is not set.");
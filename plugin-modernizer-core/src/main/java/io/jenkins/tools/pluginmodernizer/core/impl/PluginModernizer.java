@@ -5,23 +5,52 @@ import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
+import io.jenkins.tools.pluginmodernizer.core.github.GitHubApiUsage;
+import io.jenkins.tools.pluginmodernizer.core.model.AccelerationProfile;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildTimes;
+import io.jenkins.tools.pluginmodernizer.core.model.ChangeImpact;
 import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.OutcomeLedger;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.PluginOutcome;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
+import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
 import io.jenkins.tools.pluginmodernizer.core.utils.StaticPomParser;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 @SuppressFBWarnings(value = "CRLF_INJECTION_LOGS", justification = "safe because versions from pom.xml")
 public class PluginModernizer {
 
     private static final Logger LOG = LoggerFactory.getLogger(PluginModernizer.class);
 
+    /**
+     * MDC key holding the name of the plugin being processed by the current thread
+     */
+    public static final String PLUGIN_MDC_KEY = "plugin";
+
     @Inject
     private Config config;
 
@@ -37,18 +66,95 @@ public class PluginModernizer {
     @Inject
     private CacheManager cacheManager;
 
+    @Inject
+    private JdkFetcher jdkFetcher;
+
+    @Inject
+    private LocalRepositories localRepositories;
+
+    /**
+     * Whether the startup phase completed
+     */
+    private volatile boolean started;
+
+    /**
+     * Journal of the stages completed by the plugins of the current run. Null for dry-runs and metadata builds
+     */
+    private volatile RunJournal journal;
+
     /**
      * Validate the configuration
      */
     public void validate() {
+        validateMaven();
+        connectGitHub();
+    }
+
+    /**
+     * Validate the configuration while fetching or revalidating the plugin datasets, all concurrently.
+     * Fails on the first error without waiting for the other tasks
+     */
+    public void startup() {
+        cacheManager.init();
+        long start = System.nanoTime();
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("Maven validation", this::validateMaven);
+        tasks.put("GitHub connection", this::connectGitHub);
+        tasks.put("Update center", pluginService::getUpdateCenterIndex);
+        tasks.put("Plugin versions", pluginService::getPluginVersionData);
+        tasks.put("Health score", pluginService::getHealthScoreData);
+        tasks.put("Installation stats", pluginService::getPluginInstallationStatsData);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                tasks.size(), Thread.ofPlatform().daemon().name("startup-", 1).factory());
+        CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+        try {
+            tasks.forEach((name, task) -> completion.submit(() -> {
+                long taskStart = System.nanoTime();
+                try {
+                    task.run();
+                } catch (ModernizerException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    throw new ModernizerException(name + " failed: " + e.getMessage(), e);
+                }
+                LOG.debug("{} completed in {} ms", name, toMillis(System.nanoTime() - taskStart));
+                return name;
+            }));
+            for (int i = 0; i < tasks.size(); i++) {
+                completion.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted during startup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ModernizerException modernizerException) {
+                throw modernizerException;
+            }
+            throw new ModernizerException("Unexpected error during startup", e.getCause());
+        } finally {
+            // Remaining tasks are interrupted and not awaited
+            executor.shutdownNow();
+        }
+        started = true;
+        LOG.info("Startup completed in {} ms", toMillis(System.nanoTime() - start));
+    }
+
+    private void validateMaven() {
         mavenInvoker.validateMaven();
         mavenInvoker.validateMavenVersion();
+    }
+
+    private void connectGitHub() {
         if (!ghService.isConnected()) {
             ghService.connect();
             ghService.validate();
         }
     }
 
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
     /**
      * List available recipes
      */
@@ -139,8 +245,9 @@ public class PluginModernizer {
      */
     public void start() {
 
-        validate();
-        cacheManager.init();
+        if (!started) {
+            startup();
+        }
 
         // Debug config
         LOG.debug("Plugins: {}", config.getPlugins());
@@ -158,226 +265,579 @@ public class PluginModernizer {
         LOG.debug("Cache Path: {}", config.getCachePath());
         LOG.debug("Maven Home: {}", config.getMavenHome());
         LOG.debug("Maven Local Repository: {}", config.getMavenLocalRepo());
+        LOG.debug("Maven Local Repository Mode: {}", config.getLocalRepositoryMode());
+        LOG.debug("Offline: {}", config.isOffline());
+        LOG.debug("Force: {}", config.isForce());
         LOG.debug("Dry Run: {}", config.isDryRun());
+        LOG.debug("Parallelism: {}", config.getParallelism());
         LOG.debug("Maven rewrite plugin version: {}", Settings.MAVEN_REWRITE_PLUGIN_VERSION);
 
-        // Fetch plugin versions
-        pluginService.getPluginVersionData();
+        if (config.isPrefetchJdks()) {
+            jdkFetcher.prefetch(List.of(JDK.values()));
+        }
 
-        List<Plugin> plugins = config.getPlugins();
-        plugins.forEach(this::process);
-        printResults(plugins);
+        // Same plugin can be given twice (for example from CLI and file). Process it only once
+        List<Plugin> plugins = config.getPlugins().stream().distinct().toList();
+        // Only runs that publish changes are worth resuming
+        journal = config.isDryRun() || config.isFetchMetadataOnly() ? null : openJournal();
+        try {
+            preflight(plugins);
+            if (config.isOffline()) {
+                seedLocalRepository(plugins);
+            }
+            processAll(plugins);
+            printResults(plugins);
+        } finally {
+            closeJournal();
+            cacheManager.flush();
+        }
     }
 
     /**
-     * Process a plugin
-     * @param plugin The plugin to process
+     * Start the journal of a new run or resume the journal of an interrupted run
+     * @return The journal
      */
-    private void process(Plugin plugin) {
+    private RunJournal openJournal() {
+        String recipe = config.getRecipe().getName();
+        RunJournal runJournal = config.getResumeRunId() != null
+                ? RunJournal.resume(config.getCachePath(), config.getResumeRunId(), recipe, config.getVersion())
+                : RunJournal.create(config.getCachePath(), recipe, config.getVersion());
+        LOG.info(
+                "Run {} journaled at {}. Resume it with --resume {} if interrupted",
+                runJournal.getRunId(),
+                runJournal.getFile(),
+                runJournal.getRunId());
+        return runJournal;
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
         try {
+            journal.close();
+        } catch (IOException e) {
+            LOG.debug("Unable to close the journal of run {}", journal.getRunId(), e);
+        }
+    }
 
-            // Set config
-            plugin.withConfig(config);
-
-            // Determine repo name
-            plugin.withRepositoryName(pluginService.extractRepoName(plugin));
-
-            LOG.debug("Repository name: {}", plugin.getRepositoryName());
-            LOG.debug("Plugin {} latest version: {}", plugin.getName(), pluginService.extractVersion(plugin));
-            LOG.debug("Plugin {} health score: {}", plugin.getName(), pluginService.extractScore(plugin));
-            LOG.debug("Plugin {} installations: {}", plugin.getName(), pluginService.extractInstallationStats(plugin));
-            LOG.debug("Is API plugin {} : {}", plugin.getName(), plugin.isApiPlugin(pluginService));
-            if (plugin.isDeprecated(pluginService)) {
-                LOG.info("Plugin {} is deprecated. Skipping.", plugin.getName());
-                plugin.addError("Plugin is deprecated");
-                return;
+    /**
+     * Fetch the state of all remote plugin repositories up-front so skipped plugins don't cost any API call
+     * Deprecated plugins are skipped before any GitHub access and are not part of the preflight
+     * @param plugins The plugins
+     */
+    private void preflight(List<Plugin> plugins) {
+        List<String> repositories = plugins.stream()
+                .filter(plugin -> !plugin.isLocal() && !plugin.isDeprecated(pluginService))
+                .map(pluginService::findRepoName)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        ghService.preflight(repositories);
+    }
+
+    /**
+     * Resolve the parent POM, BOM and Jenkins core of the plugins with cached metadata once, so they are built offline
+     * @param plugins The plugins
+     */
+    private void seedLocalRepository(List<Plugin> plugins) {
+        Map<String, PluginMetadata> metadata = new LinkedHashMap<>();
+        for (Plugin plugin : plugins) {
+            PluginMetadata cached = cacheManager.get(
+                    Path.of(plugin.getName()), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class);
+            if (cached != null) {
+                metadata.put(plugin.getName(), cached);
             }
-            if (plugin.isArchived(ghService)) {
-                LOG.info("Plugin {} is archived. Skipping.", plugin.getName());
-                plugin.addError("Plugin is archived");
-                return;
+        }
+        if (metadata.isEmpty()) {
+            LOG.info("No metadata from a previous run. Plugins are built online");
+            return;
+        }
+        mavenInvoker.seedLocalRepository(metadata);
+        localRepositories.promoteAll();
+    }
+
+    /**
+     * Process all plugins through the processing stages. Each stage has its own workers so network, git and Maven
+     * work of different plugins overlap, with at most the parallelism of plugins in the stages. I/O bound stages run
+     * on virtual threads if enabled. A plugin is processed by one stage at a time and all its state is kept on its own
+     * Plugin instance
+     * @param plugins The plugins to process
+     */
+    private void processAll(List<Plugin> plugins) {
+        StagedPipeline<PluginRun> pipeline =
+                new StagedPipeline<>(config.getParallelism(), Settings.STAGE_REPORT_INTERVAL);
+        addStage(pipeline, ProcessingStage.PREFLIGHT, this::runPreflightStage);
+        addStage(pipeline, ProcessingStage.FETCH, this::runFetchStage);
+        addStage(pipeline, ProcessingStage.METADATA, this::runMetadataStage);
+        addStage(pipeline, ProcessingStage.REWRITE, this::runRewriteStage);
+        addStage(pipeline, ProcessingStage.VERIFY, this::runVerifyStage);
+        addStage(pipeline, ProcessingStage.COMMIT, this::runCommitStage);
+        addStage(pipeline, ProcessingStage.PUBLISH, this::runPublishStage);
+        LOG.info("Processing {} plugins", plugins.size());
+        try {
+            pipeline.run(plugins.stream().map(PluginRun::new).toList());
+        } finally {
+            localRepositories.promoteAll();
+        }
+    }
+
+    private void addStage(StagedPipeline<PluginRun> pipeline, ProcessingStage stage, Predicate<PluginRun> task) {
+        pipeline.stage(
+                stage.getName(),
+                config.getStageParallelism(stage),
+                Settings.STAGE_QUEUE_CAPACITY,
+                config.isVirtualThreads() && stage.isIoBound(),
+                run -> runStage(run.plugin, () -> runJournaledStage(run, stage, task)));
+    }
+
+    /**
+     * Run a stage of a plugin and journal its completion. Stages completed by the previous attempts of a resumed run
+     * are not run again, and the state they left on the plugin is restored from the journal, the on-disk clone and
+     * the cached metadata. Plugins that completed all stages are skipped
+     * @param run The plugin run
+     * @param stage The stage
+     * @param task The stage task
+     * @return True if the plugin continues to the next stage
+     */
+    private boolean runJournaledStage(PluginRun run, ProcessingStage stage, Predicate<PluginRun> task) {
+        if (journal == null) {
+            return task.test(run);
+        }
+        Plugin plugin = run.plugin;
+        if (stage == ProcessingStage.PREFLIGHT) {
+            if (journal.getCompleted(plugin.getName(), ProcessingStage.PUBLISH) != null) {
+                LOG.info("Plugin {} already completed by run {}. Skipping.", plugin.getName(), journal.getRunId());
+                return false;
             }
-            if (config.isSkipVerification()) {
-                LOG.info("Skipping verification for plugin {}", plugin.getName());
+        } else {
+            RunJournal.Stage completed = journal.getCompleted(plugin.getName(), stage);
+            if (completed != null) {
+                resumeStage(run, completed);
+                return true;
             }
+        }
+        boolean next = task.test(run);
+        if (next && !plugin.hasErrors()) {
+            journal.complete(plugin.getName(), stage, run.singlePass, plugin.getModifiedFiles());
+        }
+        return next;
+    }
 
-            if (config.isRemoveForks()) {
-                plugin.deleteFork(ghService);
+    /**
+     * Restore the state left on a plugin by a stage completed by a previous attempt of the run
+     * @param run The plugin run
+     * @param completed The completed stage
+     */
+    private void resumeStage(PluginRun run, RunJournal.Stage completed) {
+        Plugin plugin = run.plugin;
+        LOG.info(
+                "Stage {} of plugin {} already completed. Resuming.",
+                completed.stage().getName(),
+                plugin.getName());
+        run.singlePass = completed.singlePass();
+        switch (completed.stage()) {
+            case FETCH, VERIFY -> resumeMetadata(plugin);
+            case METADATA -> {
+                resumeMetadata(plugin);
+                plugin.withJDK(JDK.JAVA_17);
+            }
+            case COMMIT -> {
+                plugin.addModifiedFiles(completed.modifiedFiles());
+                if (!completed.modifiedFiles().isEmpty() && !config.isDryRun()) {
+                    plugin.withCommits();
+                }
             }
+            default -> {}
+        }
+    }
 
-            plugin.fetch(ghService);
-            if (plugin.hasErrors()) {
-                LOG.info("Plugin {} has errors. Will not process this plugin.", plugin.getName());
+    /**
+     * Load the latest metadata of a plugin collected by a previous attempt of the run, even if expired
+     * @param plugin The plugin
+     */
+    private void resumeMetadata(Plugin plugin) {
+        PluginMetadata metadata = cacheManager.get(
+                Path.of(plugin.getName()), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class, false);
+        if (metadata != null) {
+            plugin.setMetadata(metadata);
+            plugin.enrichMetadata(pluginService);
+        }
+    }
+
+    /**
+     * Run a stage of a plugin and record its errors on the plugin
+     * @param plugin The plugin
+     * @param stage The stage
+     * @return True if the plugin continues to the next stage
+     */
+    private boolean runStage(Plugin plugin, BooleanSupplier stage) {
+        MDC.put(PLUGIN_MDC_KEY, plugin.getName());
+        try {
+            return stage.getAsBoolean();
+        }
+        // Uncatched plugin processing errors
+        catch (PluginProcessingException e) {
+            if (!plugin.hasErrors()) {
+                plugin.addError("Plugin processing error. Check the logs at " + plugin.getLogFile(), e);
             }
+            return false;
+        }
+        // Catch any unexpected exception here
+        catch (Exception e) {
+            if (!plugin.hasErrors()) {
+                plugin.addError("Unexpected processing error. Check the logs at " + plugin.getLogFile(), e);
+            }
+            return false;
+        } finally {
+            MDC.remove(PLUGIN_MDC_KEY);
+        }
+    }
+
+    /**
+     * Resolve the repository of a plugin and skip deprecated or archived plugins
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runPreflightStage(PluginRun run) {
+        Plugin plugin = run.plugin;
+
+        // Set config
+        plugin.withConfig(config);
+
+        // Determine repo name
+        plugin.withRepositoryName(pluginService.extractRepoName(plugin));
 
-            // Set the metadata from cache if available
+        LOG.debug("Repository name: {}", plugin.getRepositoryName());
+        LOG.debug("Plugin {} latest version: {}", plugin.getName(), pluginService.extractVersion(plugin));
+        LOG.debug("Plugin {} health score: {}", plugin.getName(), pluginService.extractScore(plugin));
+        LOG.debug("Plugin {} installations: {}", plugin.getName(), pluginService.extractInstallationStats(plugin));
+        LOG.debug("Is API plugin {} : {}", plugin.getName(), plugin.isApiPlugin(pluginService));
+        if (plugin.isDeprecated(pluginService)) {
+            LOG.info("Plugin {} is deprecated. Skipping.", plugin.getName());
+            plugin.addError("Plugin is deprecated");
+            return false;
+        }
+        if (plugin.isArchived(ghService)) {
+            LOG.info("Plugin {} is archived. Skipping.", plugin.getName());
+            plugin.addError("Plugin is archived");
+            return false;
+        }
+        if (isOutcomeRecorded(run)) {
+            return false;
+        }
+        if (config.isSkipVerification()) {
+            LOG.info("Skipping verification for plugin {}", plugin.getName());
+        }
+
+        if (config.isRemoveForks()) {
+            plugin.deleteFork(ghService);
+        }
+        return true;
+    }
+
+    /**
+     * Fetch the repository of a plugin and load its cached metadata
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runFetchStage(PluginRun run) {
+        Plugin plugin = run.plugin;
+        plugin.fetch(ghService);
+        if (plugin.hasErrors()) {
+            LOG.info("Plugin {} has errors. Will not process this plugin.", plugin.getName());
+        }
+
+        // Set the metadata from cache if available. Metadata of an unchanged default branch never expire
+        plugin.computeMetadataFingerprint(ghService);
+        run.unchanged = plugin.loadMetadataByFingerprint(cacheManager);
+        if (run.unchanged) {
+            LOG.info("Plugin {} unchanged since its metadata was collected. Using cached metadata.", plugin.getName());
+            plugin.enrichMetadata(pluginService);
+        } else {
             plugin.loadMetadata(cacheManager);
+        }
+        return true;
+    }
 
-            // Compile only if we are able to find metadata
-            // For the moment it's local cache only but later will fetch on remote storage
-            if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
-                if (plugin.getMetadata() != null && !plugin.hasPreconditionErrors()) {
-                    JDK jdk = compilePlugin(plugin);
-                    LOG.debug("Plugin {} compiled successfully with JDK {}", plugin.getName(), jdk.getMajor());
-                } else {
-                    LOG.debug(
-                            "No metadata or precondition errors found for plugin {}. Skipping initial compilation.",
-                            plugin.getName());
-                }
+    /**
+     * Compile a plugin, collect its metadata and remediate its precondition errors
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runMetadataStage(PluginRun run) {
+        Plugin plugin = run.plugin;
+
+        // Compile only if we are able to find metadata
+        // For the moment it's local cache only but later will fetch on remote storage
+        if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
+            if (plugin.getMetadata() != null && !plugin.hasPreconditionErrors()) {
+                JDK jdk = compilePlugin(plugin);
+                LOG.debug("Plugin {} compiled successfully with JDK {}", plugin.getName(), jdk.getMajor());
+            } else {
+                LOG.debug(
+                        "No metadata or precondition errors found for plugin {}. Skipping initial compilation.",
+                        plugin.getName());
             }
+        }
 
-            plugin.checkoutBranch(ghService);
+        plugin.checkoutBranch(ghService);
 
-            // Minimum JDK to run openrewrite
-            plugin.withJDK(JDK.JAVA_17);
+        // Minimum JDK to run openrewrite
+        plugin.withJDK(JDK.JAVA_17);
 
-            // Collect metadata and move metadata from the target directory of the plugin to the common cache
-            if (!plugin.hasMetadata() || config.isFetchMetadataOnly()) {
-                collectMetadata(plugin, true);
+        // Collect metadata, run the recipe and collect metadata after modernization in a single rewrite run
+        run.singlePass = config.isSinglePassRewrite() && runSinglePassRewrite(plugin);
+        if (run.singlePass) {
+            return true;
+        }
 
-            } else {
-                LOG.debug("Metadata already computed for plugin {}. Using cached metadata.", plugin.getName());
+        // Collect metadata and move metadata from the target directory of the plugin to the common cache
+        boolean collected = false;
+        if (!plugin.hasMetadata() || (config.isFetchMetadataOnly() && !run.unchanged)) {
+            collectMetadata(plugin, true);
+            collected = true;
+        } else {
+            LOG.debug("Metadata already computed for plugin {}. Using cached metadata.", plugin.getName());
+        }
+
+        // Only metadata collected on the default branch by this run can be kept, unless remediation changes it.
+        // Metadata loaded from the expiring cache may have been collected after a modernization
+        boolean keepMetadata = collected && !plugin.hasPreconditionErrors();
+
+        // Try to remediate precondition errors
+        if (plugin.hasPreconditionErrors()) {
+            plugin.getPreconditionErrors().forEach(preconditionError -> {
+                if (preconditionError.remediate(plugin)) {
+                    plugin.removePreconditionError(preconditionError);
+                    LOG.info("Precondition error {} was remediated for plugin {}", preconditionError, plugin.getName());
+                } else {
+                    LOG.info(
+                            "Precondition error {} was not remediated for plugin {}",
+                            preconditionError,
+                            plugin.getName());
+                }
+            });
+
+            // Retry to collect metadata after remediation to get up-to-date results
+            if (!config.isFetchMetadataOnly()) {
+                collectMetadata(plugin, true);
             }
+        }
 
-            // Try to remediate precondition errors
-            if (plugin.hasPreconditionErrors()) {
-                plugin.getPreconditionErrors().forEach(preconditionError -> {
-                    if (preconditionError.remediate(plugin)) {
-                        plugin.removePreconditionError(preconditionError);
-                        LOG.info(
-                                "Precondition error {} was remediated for plugin {}",
-                                preconditionError,
-                                plugin.getName());
+        // Check if we still have errors and abort if not remediation is possible
+        if (plugin.hasErrors() || plugin.hasPreconditionErrors()) {
+            plugin.addPreconditionErrors(plugin.getMetadata());
+            LOG.info(
+                    "Skipping plugin {} due to metadata/precondition errors. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
+
+        // Handle outdated plugin or unparsable Jenkinsfile
+        if (hasOnlyImplicitJdk(plugin)) {
+            JDK jdk = resolveJenkinsVersionJdk(plugin);
+            plugin.getMetadata().setJdks(Set.of(jdk));
+            plugin.getMetadata().save();
+            LOG.debug("Metadata after fallback: {}", plugin.getMetadata().toJson());
+            if (jdk.getMajor() <= 8) {
+                LOG.info("Need a first compile to generate classes due to Java 8 and lower");
+                plugin.verifyQuickBuild(mavenInvoker, jdk);
+                if (plugin.hasErrors()) {
+                    if (!config.isSkipVerification()) {
+                        plugin.raiseLastError();
                     } else {
                         LOG.info(
-                                "Precondition error {} was not remediated for plugin {}",
-                                preconditionError,
+                                "Quick build failed for plugin {}. Skip verification is enabled, trying to run recipe any.",
                                 plugin.getName());
+                        plugin.removeErrors();
                     }
-                });
-
-                // Retry to collect metadata after remediation to get up-to-date results
-                if (!config.isFetchMetadataOnly()) {
-                    collectMetadata(plugin, true);
                 }
+
+                // Ensure we recollect metadata
+                collectMetadata(plugin, false);
             }
 
-            // Check if we still have errors and abort if not remediation is possible
-            if (plugin.hasErrors() || plugin.hasPreconditionErrors()) {
-                plugin.addPreconditionErrors(plugin.getMetadata());
-                LOG.info(
-                        "Skipping plugin {} due to metadata/precondition errors. Check logs for more details.",
-                        plugin.getName());
-                return;
+            // Reset the repo to not keep changes for build-metadata
+            // and try to set the right JDK and jenkins version
+            if (config.isFetchMetadataOnly()) {
+                plugin.fetch(ghService);
             }
+        }
 
-            // Handle outdated plugin or unparsable Jenkinsfile
-            if (plugin.getMetadata().getJdks().stream().allMatch(jdk -> jdk.equals(JDK.getImplicit()))) {
-                LOG.info(
-                        "Plugin look outdated or without Jenkinsfile. Or fail it's parsing, falling back to jenkins.version");
-                StaticPomParser parser = new StaticPomParser(
-                        plugin.getLocalRepository().resolve("pom.xml").toString());
-                String jenkinsVersion = parser.getJenkinsVersion();
-                String baseline = parser.getBaseline();
-                if (baseline != null && jenkinsVersion != null && jenkinsVersion.contains("${jenkins.baseline}")) {
-                    jenkinsVersion = jenkinsVersion.replace("${jenkins.baseline}", baseline);
-                }
-                JDK jdk = JDK.get(jenkinsVersion).stream().findFirst().orElse(JDK.min());
-                LOG.info("Found jenkins version {} from pom which support Java {}", jenkinsVersion, jdk.getMajor());
-                plugin.getMetadata().setJdks(Set.of(jdk));
-                plugin.getMetadata().save();
-                LOG.debug("Metadata after fallback: {}", plugin.getMetadata().toJson());
-                if (jdk.getMajor() <= 8) {
-                    LOG.info("Need a first compile to generate classes due to Java 8 and lower");
-                    plugin.verifyQuickBuild(mavenInvoker, jdk);
-                    if (plugin.hasErrors()) {
-                        if (!config.isSkipVerification()) {
-                            plugin.raiseLastError();
-                        } else {
-                            LOG.info(
-                                    "Quick build failed for plugin {}. Skip verification is enabled, trying to run recipe any.",
-                                    plugin.getName());
-                            plugin.removeErrors();
-                        }
-                    }
+        if (keepMetadata) {
+            plugin.saveMetadataByFingerprint(cacheManager);
+        }
+        return true;
+    }
 
-                    // Ensure we recollect metadata
-                    collectMetadata(plugin, false);
-                }
+    /**
+     * Run the recipe unless it was already applied in a single rewrite run
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runRewriteStage(PluginRun run) {
+        Plugin plugin = run.plugin;
+        if (run.singlePass) {
+            return true;
+        }
+        plugin.runOpenRewrite(mavenInvoker);
+        if (plugin.hasErrors()) {
+            LOG.warn(
+                    "Skipping plugin {} due to openrewrite recipes errors. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
+        return true;
+    }
 
-                // Reset the repo to not keep changes for build-metadata
-                // and try to set the right JDK and jenkins version
-                if (config.isFetchMetadataOnly()) {
-                    plugin.fetch(ghService);
-                }
+    /**
+     * Verify the modernized plugin and recollect its metadata
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runVerifyStage(PluginRun run) {
+        Plugin plugin = run.plugin;
+        if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
+            ChangeImpact impact = getChangeImpact(plugin);
+            if (impact == ChangeImpact.NONE) {
+                LOG.info("Skipping verification of plugin {}. Its changes have no build impact", plugin.getName());
+            } else {
+                JDK jdk = verifyPlugin(plugin, impact);
+                LOG.info("Plugin {} verified successfully with JDK {}", plugin.getName(), jdk.getMajor());
             }
+        }
 
-            // Run OpenRewrite
-            plugin.runOpenRewrite(mavenInvoker);
-            if (plugin.hasErrors()) {
-                LOG.warn(
-                        "Skipping plugin {} due to openrewrite recipes errors. Check logs for more details.",
-                        plugin.getName());
-                return;
-            }
+        if (plugin.hasErrors()) {
+            LOG.warn(
+                    "Skipping plugin {} due to verification errors after modernization. Check logs for more details.",
+                    plugin.getName());
+            return false;
+        }
 
-            // Verify plugin
-            if (!config.isFetchMetadataOnly() && !config.isSkipVerification()) {
-                JDK jdk = verifyPlugin(plugin);
-                LOG.info("Plugin {} verified successfully with JDK {}", plugin.getName(), jdk.getMajor());
-            }
+        // Nothing to commit when only fetching metadata
+        if (config.isFetchMetadataOnly()) {
+            return false;
+        }
 
-            if (plugin.hasErrors()) {
-                LOG.warn(
-                        "Skipping plugin {} due to verification errors after modernization. Check logs for more details.",
-                        plugin.getName());
-                return;
-            }
+        // Recollect metadata after modernization
+        if (run.singlePass) {
+            plugin.loadMetadataAfterModernization(cacheManager);
+            plugin.enrichMetadata(pluginService);
+        } else {
+            plugin.withJDK(JDK.JAVA_17);
+            plugin.clean(mavenInvoker);
+            collectMetadata(plugin, false);
+        }
+        LOG.debug(
+                "Plugin {} metadata after modernization: {}",
+                plugin.getName(),
+                plugin.getMetadata().toJson());
+        return true;
+    }
 
-            // Recollect metadata after modernization
-            if (!config.isFetchMetadataOnly()) {
-                plugin.withJDK(JDK.JAVA_17);
-                plugin.clean(mavenInvoker);
-                collectMetadata(plugin, false);
-                LOG.debug(
-                        "Plugin {} metadata after modernization: {}",
-                        plugin.getName(),
-                        plugin.getMetadata().toJson());
+    /**
+     * Commit the changes of a plugin
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runCommitStage(PluginRun run) {
+        Plugin plugin = run.plugin;
 
-                // Clean target folder before committing changes
-                if (!config.isDryRun()) {
-                    plugin.clean(mavenInvoker);
-                }
-                plugin.commit(ghService);
-
-                // Only fork/push/PR if we have any changes
-                if (!plugin.getModifiedFiles().isEmpty()) {
-                    plugin.fork(ghService);
-                    plugin.sync(ghService);
-                    plugin.push(ghService);
-                    plugin.openPullRequest(ghService);
-                } else {
-                    LOG.info("No changes were made for plugin {}", plugin.getName());
-                }
+        // Clean target folder before committing changes
+        if (!config.isDryRun()) {
+            plugin.clean(mavenInvoker);
+        }
+        plugin.commit(ghService);
+        return true;
+    }
 
-                if (config.isRemoveForks()) {
-                    plugin.deleteFork(ghService);
-                }
-            }
+    /**
+     * Fork, push and open the pull request of a plugin
+     * @param run The plugin run
+     * @return True to continue
+     */
+    private boolean runPublishStage(PluginRun run) {
+        Plugin plugin = run.plugin;
 
+        // Only fork/push/PR if we have any changes
+        if (!plugin.getModifiedFiles().isEmpty()) {
+            plugin.fork(ghService);
+            plugin.sync(ghService);
+            plugin.push(ghService);
+            plugin.openPullRequest(ghService);
+        } else {
+            LOG.info("No changes were made for plugin {}", plugin.getName());
         }
-        // Uncatched plugin processing errors
-        catch (PluginProcessingException e) {
-            if (!plugin.hasErrors()) {
-                plugin.addError("Plugin processing error. Check the logs at " + plugin.getLogFile(), e);
-            }
+
+        if (config.isRemoveForks()) {
+            plugin.deleteFork(ghService);
         }
-        // Catch any unexpected exception here
-        catch (Exception e) {
-            if (!plugin.hasErrors()) {
-                plugin.addError("Unexpected processing error. Check the logs at " + plugin.getLogFile(), e);
-            }
+        recordOutcome(run);
+        return true;
+    }
+
+    /**
+     * Compute the outcome key of a plugin run from the head of its remote default branch and check if a previous run
+     * recorded the outcome of the same key. Local plugins, dry runs and metadata only runs have no outcome key
+     * @param run The plugin run
+     * @return True if the outcome is recorded and the plugin is skipped
+     */
+    private boolean isOutcomeRecorded(PluginRun run) {
+        Plugin plugin = run.plugin;
+        if (plugin.isLocal() || config.isDryRun() || config.isFetchMetadataOnly()) {
+            return false;
+        }
+        String headCommit = ghService.getRemoteHeadCommit(plugin);
+        if (headCommit == null) {
+            return false;
+        }
+        run.outcomeKey = OutcomeLedger.key(
+                config.getRecipe().getName(), headCommit, config.getVersion(), JsonUtils.toJson(config.getRecipe()));
+        if (config.isForce()) {
+            return false;
         }
+        OutcomeLedger ledger = cacheManager.get(
+                Path.of(plugin.getName()), CacheManager.OUTCOME_LEDGER_CACHE_KEY, OutcomeLedger.class, false);
+        PluginOutcome outcome = ledger != null ? ledger.getOutcome(run.outcomeKey) : null;
+        if (outcome == null) {
+            return false;
+        }
+        LOG.info(
+                "Plugin {} already processed at {} with the same recipe and version ({}). Skipping.",
+                plugin.getName(),
+                headCommit,
+                outcome);
+        plugin.withRecordedOutcome(outcome);
+        return true;
+    }
+
+    /**
+     * Record the terminal outcome of a plugin run, so the next runs with the same key skip it
+     * @param run The plugin run
+     */
+    private void recordOutcome(PluginRun run) {
+        Plugin plugin = run.plugin;
+        if (run.outcomeKey == null || plugin.hasErrors()) {
+            return;
+        }
+        PluginOutcome outcome;
+        if (plugin.getModifiedFiles().isEmpty()) {
+            outcome = PluginOutcome.NO_CHANGES;
+        } else if (plugin.hasChangesPushed()) {
+            outcome = PluginOutcome.PULL_REQUEST;
+        } else {
+            return;
+        }
+        Path path = Path.of(plugin.getName());
+        OutcomeLedger ledger =
+                cacheManager.get(path, CacheManager.OUTCOME_LEDGER_CACHE_KEY, OutcomeLedger.class, false);
+        if (ledger == null) {
+            ledger = new OutcomeLedger(cacheManager, path);
+        }
+        ledger.putOutcome(run.outcomeKey, outcome);
+        ledger.save();
+        LOG.debug("Recorded outcome {} of plugin {}", outcome, plugin.getName());
     }
 
     /**
@@ -417,6 +877,93 @@ public class PluginModernizer {
         plugin.enrichMetadata(pluginService);
     }
 
+    /**
+     * Collect metadata, run the recipe and collect metadata after modernization in a single rewrite run
+     * Fallback to separate runs (return false) with the repository reset when the single pass cannot be used
+     * or when its metadata requires a first compilation or remediation before applying the recipe
+     * @param plugin The plugin
+     * @return True if the recipe was applied and metadata after modernization is available in cache
+     */
+    private boolean runSinglePassRewrite(Plugin plugin) {
+        if (config.isFetchMetadataOnly() || plugin.isLocal()) {
+            return false;
+        }
+        if (plugin.hasMetadata() && (plugin.hasPreconditionErrors() || hasOnlyImplicitJdk(plugin))) {
+            LOG.debug("Cached metadata of plugin {} requires separate rewrite runs", plugin.getName());
+            return false;
+        }
+        if (!plugin.runSinglePassRewrite(mavenInvoker)) {
+            plugin.copyMetadata(cacheManager);
+            plugin.loadMetadata(cacheManager);
+            plugin.enrichMetadata(pluginService);
+            return false;
+        }
+        if (plugin.hasErrors()) {
+            LOG.info("Single pass rewrite failed for plugin {}. Falling back to separate runs.", plugin.getName());
+            plugin.removeErrors();
+            resetRepository(plugin);
+            return false;
+        }
+        plugin.copyMetadata(cacheManager);
+        plugin.loadMetadata(cacheManager);
+        plugin.enrichMetadata(pluginService);
+        plugin.copyMetadataAfterModernization(cacheManager);
+        if (hasOnlyImplicitJdk(plugin)) {
+            JDK jdk = resolveJenkinsVersionJdk(plugin);
+            if (jdk.getMajor() <= 8) {
+                LOG.info(
+                        "Plugin {} needs a first compile with Java {}. Falling back to separate runs.",
+                        plugin.getName(),
+                        jdk.getMajor());
+                resetRepository(plugin);
+                return false;
+            }
+            plugin.getMetadata().setJdks(Set.of(jdk));
+            plugin.getMetadata().save();
+            LOG.debug("Metadata after fallback: {}", plugin.getMetadata().toJson());
+        }
+        plugin.saveMetadataByFingerprint(cacheManager);
+        return true;
+    }
+
+    /**
+     * Discard changes of a single pass rewrite and checkout the modernization branch again
+     * @param plugin The plugin
+     */
+    private void resetRepository(Plugin plugin) {
+        plugin.fetch(ghService);
+        plugin.checkoutBranch(ghService);
+        plugin.withJDK(JDK.JAVA_17);
+    }
+
+    /**
+     * Check if the metadata only contains the implicit JDK (outdated plugin, no Jenkinsfile or unparsable Jenkinsfile)
+     * @param plugin The plugin
+     * @return True if only the implicit JDK was found
+     */
+    private boolean hasOnlyImplicitJdk(Plugin plugin) {
+        return plugin.getMetadata().getJdks().stream().allMatch(jdk -> jdk.equals(JDK.getImplicit()));
+    }
+
+    /**
+     * Resolve the JDK to use from the jenkins.version of the plugin pom
+     * @param plugin The plugin
+     * @return The JDK supported by the jenkins version
+     */
+    private JDK resolveJenkinsVersionJdk(Plugin plugin) {
+        LOG.info("Plugin look outdated or without Jenkinsfile. Or fail it's parsing, falling back to jenkins.version");
+        StaticPomParser parser = new StaticPomParser(
+                plugin.getLocalRepository().resolve("pom.xml").toString());
+        String jenkinsVersion = parser.getJenkinsVersion();
+        String baseline = parser.getBaseline();
+        if (baseline != null && jenkinsVersion != null && jenkinsVersion.contains("${jenkins.baseline}")) {
+            jenkinsVersion = jenkinsVersion.replace("${jenkins.baseline}", baseline);
+        }
+        JDK jdk = JDK.get(jenkinsVersion).stream().findFirst().orElse(JDK.min());
+        LOG.info("Found jenkins version {} from pom which support Java {}", jenkinsVersion, jdk.getMajor());
+        return jdk;
+    }
+
     /**
      * Compile a plugin
      * @param plugin The plugin to compile
@@ -430,12 +977,31 @@ public class PluginModernizer {
         return jdk;
     }
 
+    /**
+     * Classify the changes made on a plugin. Without analysis or if changes are unknown, the plugin is fully verified
+     * @param plugin The plugin
+     * @return The impact of the changes
+     */
+    private ChangeImpact getChangeImpact(Plugin plugin) {
+        if (!config.isImpactAnalysis()) {
+            return ChangeImpact.SOURCE;
+        }
+        Set<String> files = ghService.getChangedFiles(plugin);
+        if (files == null) {
+            return ChangeImpact.SOURCE;
+        }
+        ChangeImpact impact = ChangeImpact.of(files);
+        LOG.info("Changes of plugin {} have {} build impact: {}", plugin.getName(), impact, files);
+        return impact;
+    }
+
     /**
      * Verify a plugin and return the first JDK that successfully verifies it, starting from the target JDK and moving backward
      * @param plugin The plugin to verify
+     * @param impact The impact of its changes. Plugins with only POM changes are built without tests
      * @return The JDK that verifies the plugin
      */
-    private JDK verifyPlugin(Plugin plugin) {
+    private JDK verifyPlugin(Plugin plugin, ChangeImpact impact) {
         PluginMetadata metadata = plugin.getMetadata();
 
         // Determine the JDK
@@ -459,7 +1025,11 @@ public class PluginModernizer {
         plugin.withJDK(jdk);
         plugin.clean(mavenInvoker);
         plugin.format(mavenInvoker);
-        plugin.verify(mavenInvoker);
+        if (impact == ChangeImpact.POM) {
+            plugin.verifyWithoutTests(mavenInvoker);
+        } else {
+            plugin.verify(mavenInvoker);
+        }
         if (plugin.hasErrors()) {
             LOG.info("Plugin {} failed to verify with JDK {}", plugin.getName(), jdk.getMajor());
             plugin.withoutErrors();
@@ -474,12 +1044,23 @@ public class PluginModernizer {
      * @param plugins The plugins
      */
     private void printResults(List<Plugin> plugins) {
+        BuildComparison buildComparison = BuildComparison.EMPTY;
         for (Plugin plugin : plugins) {
             LOG.info("*************");
             LOG.info("Plugin: {}", plugin.getName());
 
+            // Display completed before resume
+            if (journal != null && journal.getCompleted(plugin.getName(), ProcessingStage.PUBLISH) != null) {
+                LOG.info("Completed before run {} was resumed", journal.getRunId());
+            }
+            // Display skipped
+            else if (plugin.getRecordedOutcome() != null) {
+                LOG.info(
+                        "Skipped. Already processed with the same recipe, commit and version ({}). Use --force to process it again",
+                        plugin.getRecordedOutcome());
+            }
             // Display error
-            if (plugin.hasErrors()) {
+            else if (plugin.hasErrors()) {
                 for (PluginProcessingException error : plugin.getErrors()) {
                     LOG.error("Error: {}", error.getMessage());
                     if (config.isDebug()) {
@@ -509,8 +1090,82 @@ public class PluginModernizer {
                     printModifiedFiles(plugin);
                 }
             }
+            printApiUsage("GitHub API usage", ghService.getApiUsage(plugin));
+            buildComparison = buildComparison.plus(printBuildTimes(plugin));
             LOG.info("*************");
         }
+        printApiUsage("Total GitHub API usage", ghService.getTotalApiUsage());
+        if (!buildComparison.baseline().isZero()) {
+            LOG.info(
+                    "Total build time saved by {} acceleration: {}s ({}s instead of {}s)",
+                    config.getAccelerationProfile(),
+                    buildComparison.saved().toSeconds(),
+                    buildComparison.accelerated().toSeconds(),
+                    buildComparison.baseline().toSeconds());
+        }
+    }
+
+    /**
+     * Display the time spent in the Maven builds of a plugin. Without acceleration, the durations are recorded as the
+     * baseline of the plugin. Otherwise, they are compared to the baseline of the same builds
+     * @param plugin The plugin
+     * @return The comparison of the builds with a baseline
+     */
+    private BuildComparison printBuildTimes(Plugin plugin) {
+        Map<String, Duration> times = plugin.getBuildTimes();
+        if (times.isEmpty()) {
+            return BuildComparison.EMPTY;
+        }
+        Duration total = times.values().stream().reduce(Duration.ZERO, Duration::plus);
+        Path path = Path.of(plugin.getName());
+        BuildTimes baseline = cacheManager.get(path, CacheManager.BUILD_TIMES_CACHE_KEY, BuildTimes.class, false);
+        if (config.getAccelerationProfile() == AccelerationProfile.NONE) {
+            if (baseline == null) {
+                baseline = new BuildTimes(cacheManager, path);
+            }
+            baseline.putBaseline(times);
+            baseline.save();
+            LOG.info("Build time: {}s. Recorded as baseline", total.toSeconds());
+            return BuildComparison.EMPTY;
+        }
+        BuildComparison comparison = BuildComparison.EMPTY;
+        if (baseline != null) {
+            for (Map.Entry<String, Duration> time : times.entrySet()) {
+                Duration baselineTime = baseline.getBaseline(time.getKey());
+                if (baselineTime != null) {
+                    comparison = comparison.plus(new BuildComparison(baselineTime, time.getValue()));
+                }
+            }
+        }
+        if (comparison.baseline().isZero()) {
+            LOG.info("Build time: {}s. No baseline recorded for these builds", total.toSeconds());
+        } else {
+            LOG.info(
+                    "Build time: {}s. Saved {}s against a baseline of {}s for the same builds",
+                    total.toSeconds(),
+                    comparison.saved().toSeconds(),
+                    comparison.baseline().toSeconds());
+        }
+        return comparison;
+    }
+
+    /**
+     * Display the GitHub API budget spent
+     * @param label The label
+     * @param usage The budget spent
+     */
+    private void printApiUsage(String label, GitHubApiUsage usage) {
+        if (usage == null || usage.requests() == 0) {
+            return;
+        }
+        LOG.info(
+                "{}: {} requests ({} not modified, {} writes, {} retried), waited {}s for rate limits",
+                label,
+                usage.requests(),
+                usage.notModified(),
+                usage.writes(),
+                usage.retries(),
+                usage.waited().toSeconds());
     }
 
     private void printModifiedFiles(Plugin plugin) {
@@ -522,4 +1177,49 @@ public class PluginModernizer {
             LOG.info("Modified file: {}", modification);
         }
     }
+
+    /**
+     * Durations of builds with a baseline and of the same builds accelerated
+     * @param baseline The total duration of the builds without acceleration
+     * @param accelerated The total duration of the accelerated builds
+     */
+    private record BuildComparison(Duration baseline, Duration accelerated) {
+
+        private static final BuildComparison EMPTY = new BuildComparison(Duration.ZERO, Duration.ZERO);
+
+        private BuildComparison plus(BuildComparison other) {
+            return new BuildComparison(baseline.plus(other.baseline), accelerated.plus(other.accelerated));
+        }
+
+        private Duration saved() {
+            return baseline.minus(accelerated);
+        }
+    }
+
+    /**
+     * State of a plugin carried between processing stages
+     */
+    private static final class PluginRun {
+
+        private final Plugin plugin;
+
+        /**
+         * Whether the default branch is unchanged since its metadata was collected
+         */
+        private boolean unchanged;
+
+        /**
+         * Whether the recipe was applied in a single rewrite run
+         */
+        private boolean singlePass;
+
+        /**
+         * Key of the outcome of the run in the outcome ledger or null if the outcome is not recorded
+         */
+        private String outcomeKey;
+
+        private PluginRun(Plugin plugin) {
+            this.plugin = plugin;
+        }
+    }
 }
@@ -0,0 +1,245 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import com.google.gson.JsonParseException;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of the stages completed by each plugin of a run, so a run interrupted by a crash can be resumed
+ * from the first incomplete stage of each plugin. Each record is a JSON line forced to disk before the plugin moves to
+ * its next stage. A torn last line left by a crash is discarded when the run is resumed.
+ */
+@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "Run ids are validated")
+public class RunJournal implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunJournal.class);
+
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9-]+");
+
+    private static final DateTimeFormatter RUN_ID_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final String runId;
+    private final Path file;
+    private final FileChannel channel;
+
+    /**
+     * Guard the appends to the journal
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Stages completed by the previous attempts of the run, by plugin
+     */
+    private final Map<String, Map<ProcessingStage, Stage>> completed = new HashMap<>();
+
+    private RunJournal(String runId, Path file, FileChannel channel) {
+        this.runId = runId;
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Start the journal of a new run
+     * @param cachePath The cache path holding the journals
+     * @param recipe The recipe name of the run
+     * @param version The modernizer version
+     * @return The journal
+     */
+    public static RunJournal create(Path cachePath, String recipe, String version) {
+        String runId = RUN_ID_TIME.format(Instant.now()) + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+        Path file = getFile(cachePath, runId);
+        try {
+            Files.createDirectories(file.getParent());
+            RunJournal journal = new RunJournal(
+                    runId, file, FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+            try {
+                journal.append(new Header(runId, recipe, version));
+            } catch (IOException e) {
+                journal.close();
+                throw e;
+            }
+            return journal;
+        } catch (IOException e) {
+            throw new ModernizerException("Unable to create the journal of run " + runId, e);
+        }
+    }
+
+    /**
+     * Resume the journal of a previous run
+     * @param cachePath The cache path holding the journals
+     * @param runId The run id
+     * @param recipe The recipe name, which must be the recipe of the run
+     * @param version The version of the modernizer, which must be the version that started the run
+     * @return The journal with the stages completed by the previous attempts of the run
+     */
+    public static RunJournal resume(Path cachePath, String runId, String recipe, String version) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new ModernizerException("Invalid run id: " + runId);
+        }
+        Path file = getFile(cachePath, runId);
+        if (!Files.isRegularFile(file)) {
+            throw new ModernizerException("No journal found for run %s at %s".formatted(runId, file));
+        }
+        try {
+            byte[] content = Files.readAllBytes(file);
+
+            // Keep complete lines only. The last one might be torn by a crash
+            int length = content.length;
+            while (length > 0 && content[length - 1] != '\n') {
+                length--;
+            }
+            List<String> lines = new String(content, 0, length, StandardCharsets.UTF_8)
+                    .lines()
+                    .toList();
+            Header header = lines.isEmpty() ? null : JsonUtils.fromJson(lines.get(0), Header.class);
+            if (header == null || !runId.equals(header.runId())) {
+                throw new ModernizerException("Journal of run %s is corrupted".formatted(runId));
+            }
+            if (!Objects.equals(recipe, header.recipe())) {
+                throw new ModernizerException(
+                        "Run %s applied recipe %s, not %s".formatted(runId, header.recipe(), recipe));
+            }
+            if (!Objects.equals(version, header.version())) {
+                throw new ModernizerException(
+                        "Run %s was started by version %s, not %s".formatted(runId, header.version(), version));
+            }
+            Map<String, Map<ProcessingStage, Stage>> completed = new HashMap<>();
+            for (String line : lines.subList(1, lines.size())) {
+                Stage stage = JsonUtils.fromJson(line, Stage.class);
+                completed
+                        .computeIfAbsent(stage.plugin(), plugin -> new EnumMap<>(ProcessingStage.class))
+                        .put(stage.stage(), stage);
+            }
+            RunJournal journal = new RunJournal(runId, file, FileChannel.open(file, StandardOpenOption.WRITE));
+            try {
+                journal.channel.truncate(length);
+                journal.channel.position(length);
+            } catch (IOException e) {
+                journal.close();
+                throw e;
+            }
+            journal.completed.putAll(completed);
+            LOG.debug("Resuming run {} with {} plugins started", runId, completed.size());
+            return journal;
+        } catch (JsonParseException e) {
+            throw new ModernizerException("Journal of run %s is corrupted".formatted(runId), e);
+        } catch (IOException e) {
+            throw new ModernizerException("Unable to read the journal of run " + runId, e);
+        }
+    }
+
+    /**
+     * Return the id of the run
+     * @return The run id
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Return the file of the journal
+     * @return The file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get a stage of a plugin completed by the previous attempts of the run
+     * @param plugin The plugin name
+     * @param stage The stage
+     * @return The completed stage or null if the stage must run
+     */
+    public Stage getCompleted(String plugin, ProcessingStage stage) {
+        Map<ProcessingStage, Stage> stages = completed.get(plugin);
+        return stages != null ? stages.get(stage) : null;
+    }
+
+    /**
+     * Record the completion of a stage of a plugin. A failure to record is only logged, so the stage runs again on
+     * resume
+     * @param plugin The plugin name
+     * @param stage The stage
+     * @param singlePass True if the recipe was applied in a single rewrite run
+     * @param modifiedFiles The files committed on the plugin
+     */
+    public void complete(String plugin, ProcessingStage stage, boolean singlePass, Collection<String> modifiedFiles) {
+        try {
+            append(new Stage(
+                    plugin, stage, singlePass, modifiedFiles.stream().sorted().toList()));
+        } catch (IOException e) {
+            LOG.warn("Unable to journal stage {} of plugin {}: {}", stage.getName(), plugin, e.getMessage());
+        }
+    }
+
+    /**
+     * Append a record and force it to disk
+     * @param record The record
+     * @throws IOException If the record cannot be written
+     */
+    private void append(Object record) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((JsonUtils.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static Path getFile(Path cachePath, String runId) {
+        return cachePath.resolve(Settings.RUN_JOURNAL_SUBDIR).resolve(runId + ".jsonl");
+    }
+
+    /**
+     * First record of a journal
+     * @param runId The run id
+     * @param recipe The recipe name
+     * @param version The modernizer version
+     */
+    record Header(String runId, String recipe, String version) {}
+
+    /**
+     * A completed stage of a plugin
+     * @param plugin The plugin name
+     * @param stage The stage
+     * @param singlePass True if the recipe was applied in a single rewrite run
+     * @param modifiedFiles The files committed on the plugin
+     */
+    public record Stage(String plugin, ProcessingStage stage, boolean singlePass, List<String> modifiedFiles) {}
+}
@@ -0,0 +1,287 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Staged execution of items. Each stage has its own workers fed by a bounded queue, so items
+ * in different stages are processed at the same time. Handing an item to a full stage blocks the worker
+ * of the previous stage, so a slow stage throttles the stages before it.
+ * Workers of a stage are either a pool of platform threads or one virtual thread per item for stages mostly
+ * waiting for I/O, where thousands of blocked items cost almost nothing.
+ * The number of items in the pipeline, in any stage, is bounded so a limit of one processes items one after the other.
+ * An item leaves the pipeline when a stage returns false or fails.
+ * @param <T> The type of items
+ */
+final class StagedPipeline<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StagedPipeline.class);
+
+    /**
+     * Work of a stage on an item
+     * @param <T> The type of items
+     */
+    @FunctionalInterface
+    interface Task<T> {
+
+        /**
+         * Process an item
+         * @param item The item
+         * @return True to hand the item to the next stage
+         */
+        boolean run(T item);
+    }
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    private final Duration reportInterval;
+
+    /**
+     * Permits of the items in the pipeline
+     */
+    private final Semaphore inFlight;
+
+    private CountDownLatch remaining;
+
+    private long startTime;
+
+    /**
+     * Create a new pipeline
+     * @param maxInFlight The maximum number of items in the pipeline at the same time
+     * @param reportInterval Interval between reports of the stages while running
+     */
+    StagedPipeline(int maxInFlight, Duration reportInterval) {
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight), true);
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Add a stage running on platform threads after the existing ones
+     * @param name The name of the stage
+     * @param workers The number of workers of the stage
+     * @param capacity The number of items waiting for a worker
+     * @param task The work of the stage
+     * @return This pipeline
+     */
+    StagedPipeline<T> stage(String name, int workers, int capacity, Task<T> task) {
+        return stage(name, workers, capacity, false, task);
+    }
+
+    /**
+     * Add a stage after the existing ones
+     * @param name The name of the stage
+     * @param workers The number of workers of the stage
+     * @param capacity The number of items waiting for a worker
+     * @param virtual True to run each item on its own virtual thread, for stages mostly waiting for I/O
+     * @param task The work of the stage
+     * @return This pipeline
+     */
+    StagedPipeline<T> stage(String name, int workers, int capacity, boolean virtual, Task<T> task) {
+        stages.add(new Stage(stages.size(), name, Math.max(1, workers), Math.max(1, capacity), virtual, task));
+        return this;
+    }
+
+    /**
+     * Process all items and wait until they left the pipeline
+     * @param items The items
+     */
+    void run(Collection<T> items) {
+        remaining = new CountDownLatch(items.size());
+        startTime = System.nanoTime();
+        try {
+            for (T item : items) {
+                inFlight.acquire();
+                try {
+                    stages.getFirst().submit(item);
+                } catch (InterruptedException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            }
+            while (!remaining.await(reportInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+                getStats().forEach(stats -> LOG.info("{}", stats));
+            }
+            LOG.info(
+                    "Pipeline completed in {}s",
+                    Duration.ofNanos(System.nanoTime() - startTime).toSeconds());
+            getStats().forEach(stats -> LOG.info("{}", stats));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted while processing pipeline", e);
+        } finally {
+            stages.forEach(stage -> stage.executor.shutdownNow());
+        }
+    }
+
+    /**
+     * Get the statistics of all stages
+     * @return The statistics in stage order
+     */
+    List<StageStats> getStats() {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        return stages.stream().map(stage -> stage.getStats(elapsed)).toList();
+    }
+
+    private void leave() {
+        inFlight.release();
+        remaining.countDown();
+    }
+
+    /**
+     * Statistics of a stage
+     * @param name The name of the stage
+     * @param workers The number of workers
+     * @param queued The number of items waiting for a worker
+     * @param active The number of items being processed
+     * @param completed The number of items processed
+     * @param busy The total time spent by workers on items
+     * @param throughput The number of items processed per minute since the start of the pipeline
+     */
+    record StageStats(
+            String name, int workers, int queued, int active, long completed, Duration busy, double throughput) {
+
+        @Override
+        public String toString() {
+            return "Stage %s: %d queued, %d/%d active, %d completed (%.1f/min), busy %ds"
+                    .formatted(name, queued, active, workers, completed, throughput, busy.toSeconds());
+        }
+    }
+
+    private final class Stage {
+
+        private final int index;
+        private final String name;
+        private final int workers;
+        private final Task<T> task;
+        private final ExecutorService executor;
+
+        /**
+         * Permits of the items admitted in the stage, waiting or processed
+         */
+        private final Semaphore admitted;
+
+        /**
+         * Permits of the items processed. Only for virtual threads, platform threads are limited by their pool
+         */
+        private final Semaphore running;
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        private Stage(int index, String name, int workers, int capacity, boolean virtual, Task<T> task) {
+            this.index = index;
+            this.name = name;
+            this.workers = workers;
+            this.task = task;
+            this.admitted = new Semaphore(workers + capacity, true);
+            if (virtual) {
+                this.executor = Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name(name + "-", 1).factory());
+                this.running = new Semaphore(workers, true);
+            } else {
+                this.executor = Executors.newFixedThreadPool(
+                        workers,
+                        Thread.ofPlatform().daemon().name(name + "-", 1).factory());
+                this.running = null;
+            }
+        }
+
+        /**
+         * Hand an item to the stage. Block until the stage has room for the item
+         * @param item The item
+         * @throws InterruptedException If interrupted while waiting for room
+         */
+        private void submit(T item) throws InterruptedException {
+            admitted.acquire();
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> process(item));
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                admitted.release();
+                throw e;
+            }
+        }
+
+        private void process(T item) {
+            boolean handedOff = false;
+            try {
+                boolean next;
+                try {
+                    next = runTask(item);
+                } finally {
+                    pending.decrementAndGet();
+                    admitted.release();
+                }
+                if (next && index + 1 < stages.size()) {
+                    stages.get(index + 1).submit(item);
+                    handedOff = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Interrupted while handing item to stage {}", stages.get(index + 1).name);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Item not handed to stage {}", stages.get(index + 1).name, e);
+            } finally {
+                if (!handedOff) {
+                    leave();
+                }
+            }
+        }
+
+        private boolean runTask(T item) {
+            if (running != null) {
+                try {
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            active.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                return task.run(item);
+            } catch (RuntimeException e) {
+                LOG.error("Unexpected error in stage {}", name, e);
+                return false;
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+                completed.incrementAndGet();
+                active.decrementAndGet();
+                if (running != null) {
+                    running.release();
+                }
+            }
+        }
+
+        private StageStats getStats(Duration elapsed) {
+            long done = completed.get();
+            int processing = active.get();
+            double minutes = Math.max(elapsed.toMillis(), 1) / 60_000d;
+            return new StageStats(
+                    name,
+                    workers,
+                    Math.max(0, pending.get() - processing),
+                    processing,
+                    done,
+                    Duration.ofNanos(busyNanos.get()),
+                    done / minutes);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arguments added to Maven builds to speed them up, according to the goal type of the build.
+ * Checks are only skipped when they can't change the outcome expected from the build
+ */
+public enum AccelerationProfile {
+
+    /**
+     * Builds run with the defaults of the plugin. Their durations are the baseline to compute the time saved
+     */
+    NONE,
+
+    /**
+     * Builds run on the reserved cores. Metadata collection and quick builds skip the static analysis and packaging
+     * checks but keep the enforcer rules, which verify POM changes. Full verifications only skip javadoc.
+     * Tests run in parallel only if the plugin declares a fork count
+     */
+    SAFE,
+
+    /**
+     * Like SAFE, but quick builds also skip the enforcer rules, full verifications also skip the static analysis,
+     * left to the CI of the pull request, and tests always run in parallel on the reserved cores
+     */
+    FAST;
+
+    /**
+     * Static analysis checks skipped by quick builds. Same as the quick-build profile of the plugin parent POM, which
+     * is not available on outdated parents
+     */
+    private static final List<String> STATIC_CHECKS = List.of(
+            "-Dspotbugs.skip=true",
+            "-Dcheckstyle.skip=true",
+            "-Dspotless.check.skip=true",
+            "-Daccess-modifier-checker.skip=true",
+            "-Danimal.sniffer.skip=true");
+
+    /**
+     * Packaging checks skipped by quick builds
+     */
+    private static final List<String> PACKAGING_CHECKS =
+            List.of("-Dmaven.javadoc.skip=true", "-Dlicense.skip=true", "-Dinvoker.skip=true");
+
+    /**
+     * Get the arguments of a build
+     * @param type The goal type of the build
+     * @param cores The cores reserved by the build
+     * @param forkCount The fork count declared by the plugin (for example 1C) or null
+     * @return The arguments
+     */
+    public List<String> getArgs(GoalType type, int cores, String forkCount) {
+        List<String> args = new ArrayList<>();
+        if (this == NONE) {
+            return args;
+        }
+        if (cores > 1) {
+            args.add("-T%d".formatted(cores));
+        }
+        switch (type) {
+            case METADATA, QUICK_BUILD -> {
+                args.addAll(STATIC_CHECKS);
+                args.addAll(PACKAGING_CHECKS);
+                if (this == FAST) {
+                    args.add("-Denforcer.skip=true");
+                }
+            }
+            case VERIFY -> {
+                args.add("-Dmaven.javadoc.skip=true");
+                if (this == FAST) {
+                    args.addAll(STATIC_CHECKS);
+                }
+                int forks = this == FAST ? cores : getForkCount(forkCount, cores);
+                if (forks > 1) {
+                    args.add("-DforkCount=%d".formatted(forks));
+                }
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Get the number of test JVMs for a fork count declared by the plugin, in number of JVMs or per core
+     * @param forkCount The fork count or null if the plugin doesn't run tests in parallel
+     * @param cores The cores reserved by the build
+     * @return The number of test JVMs, at most the number of cores
+     */
+    static int getForkCount(String forkCount, int cores) {
+        if (forkCount == null || forkCount.isBlank()) {
+            return 1;
+        }
+        try {
+            String value = forkCount.trim();
+            double forks = value.endsWith("C")
+                    ? Double.parseDouble(value.substring(0, value.length() - 1)) * cores
+                    : Double.parseDouble(value);
+            return (int) Math.max(1, Math.min(cores, Math.round(forks)));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+/**
+ * Resources reserved by a Maven build
+ * @param memory The memory in MB, shared by the Maven JVM and the test forks
+ * @param cores The number of cores, used for the Maven threads and the test forks
+ */
+public record BuildLimits(int memory, int cores) {}
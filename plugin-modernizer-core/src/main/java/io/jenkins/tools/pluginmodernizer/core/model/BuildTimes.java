@@ -0,0 +1,46 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Durations of the Maven builds of a plugin run without acceleration, used as baseline to compute the time saved by
+ * accelerated builds
+ */
+public class BuildTimes extends CacheEntry<BuildTimes> {
+
+    /**
+     * Duration in milliseconds by build goals
+     */
+    private Map<String, Long> baseline = new HashMap<>();
+
+    /**
+     * Create the build times of a plugin
+     * @param cacheManager The cache manager
+     * @param path The path of the plugin in the cache
+     */
+    public BuildTimes(CacheManager cacheManager, Path path) {
+        super(cacheManager, BuildTimes.class, CacheManager.BUILD_TIMES_CACHE_KEY, path);
+    }
+
+    /**
+     * Record the baseline durations of builds
+     * @param times The durations by build goals
+     */
+    public void putBaseline(Map<String, Duration> times) {
+        times.forEach((goals, duration) -> baseline.put(goals, duration.toMillis()));
+    }
+
+    /**
+     * Get the baseline duration of a build
+     * @param goals The build goals
+     * @return The duration or null if the build has no baseline
+     */
+    public Duration getBaseline(String goals) {
+        Long millis = baseline.get(goals);
+        return millis == null ? null : Duration.ofMillis(millis);
+    }
+}
@@ -0,0 +1,105 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding of cache entries on disk. Entries are always serialized with Gson, the codec only changes how
+ * the resulting document is stored. The codec of a stored entry is detected when reading it.
+ */
+public enum CacheCodec {
+
+    /**
+     * JSON text. Human-readable and readable by older versions
+     */
+    JSON {
+        @Override
+        public byte[] encode(Object entry) {
+            return JsonUtils.toJson(entry).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public <T> T decode(byte[] data, Class<T> clazz) throws IOException {
+            try (Reader reader = new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)) {
+                return JsonUtils.fromJson(reader, clazz);
+            }
+        }
+    },
+
+    /**
+     * Binary Smile encoding of the JSON document. Field names and repeated values are written once.
+     * Gson reads and writes the Smile tokens directly, without an intermediate JSON tree
+     */
+    SMILE {
+        @Override
+        public byte[] encode(Object entry) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonWriter writer = new JacksonJsonWriter(SMILE_FACTORY.createGenerator(out))) {
+                JsonUtils.toJson(entry, writer);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public <T> T decode(byte[] data, Class<T> clazz) throws IOException {
+            try (JsonReader reader = new JacksonJsonReader(SMILE_FACTORY.createParser(data))) {
+                T entry = JsonUtils.fromJson(reader, clazz);
+                if (entry == null) {
+                    throw new IOException("Unexpected end of cache entry");
+                }
+                return entry;
+            }
+        }
+    };
+
+    /**
+     * Leading bytes of a Smile document
+     */
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private static final SmileFactory SMILE_FACTORY = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+
+    /**
+     * Encode an entry
+     * @param entry The entry
+     * @return The encoded entry
+     * @throws IOException If the entry cannot be encoded
+     */
+    public abstract byte[] encode(Object entry) throws IOException;
+
+    /**
+     * Decode an entry
+     * @param data The encoded entry
+     * @param clazz The class of the entry
+     * @param <T> The type of the entry
+     * @return The entry
+     * @throws IOException If the entry cannot be decoded
+     */
+    public abstract <T> T decode(byte[] data, Class<T> clazz) throws IOException;
+
+    /**
+     * Detect the codec of an encoded entry
+     * @param data The encoded entry
+     * @return The codec
+     */
+    public static CacheCodec detect(byte[] data) {
+        if (data.length >= SMILE_HEADER.length
+                && data[0] == SMILE_HEADER[0]
+                && data[1] == SMILE_HEADER[1]
+                && data[2] == SMILE_HEADER[2]) {
+            return SMILE;
+        }
+        return JSON;
+    }
+}
@@ -77,6 +77,15 @@ public abstract class CacheEntry<T extends CacheEntry<T>> {
         return cacheManager;
     }
 
+    /**
+     * Return if the entry is never modified once read from the cache. A single instance of a read-only entry is then
+     * shared by all readers. Other entries are decoded again on each read
+     * @return True if the entry is read-only
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     /**
      * Check if the object exists in the cache
      * @return True if the object exists
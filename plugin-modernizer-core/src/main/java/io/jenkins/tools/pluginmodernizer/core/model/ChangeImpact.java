@@ -0,0 +1,84 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Impact of the changes made on a plugin on its build, giving how the modernized plugin is verified
+ */
+public enum ChangeImpact {
+
+    /**
+     * Only files not used by the build changed, like the Jenkinsfile, GitHub configuration or documentation.
+     * The plugin is not built
+     */
+    NONE,
+
+    /**
+     * Only POMs or Maven configuration changed. The plugin is built without tests
+     */
+    POM,
+
+    /**
+     * Sources, resources or unknown files changed. The plugin is verified with its tests
+     */
+    SOURCE;
+
+    /**
+     * Files of the repository root not used by the build
+     */
+    private static final Set<String> NO_BUILD_FILES = Set.of(
+            "Jenkinsfile",
+            "CODEOWNERS",
+            "LICENSE",
+            ".gitignore",
+            ".gitattributes",
+            ".editorconfig",
+            ".mailmap",
+            ".git-blame-ignore-revs");
+
+    /**
+     * Directories of the repository root not used by the build
+     */
+    private static final Set<String> NO_BUILD_DIRECTORIES = Set.of(".github", "docs", "target");
+
+    /**
+     * Classify a change set
+     * @param files The changed files relative to the repository root
+     * @return The highest impact of the files. None for an empty change set
+     */
+    public static ChangeImpact of(Collection<String> files) {
+        ChangeImpact impact = NONE;
+        for (String file : files) {
+            ChangeImpact fileImpact = ofFile(file);
+            if (fileImpact.compareTo(impact) > 0) {
+                impact = fileImpact;
+            }
+        }
+        return impact;
+    }
+
+    /**
+     * Classify a changed file. Unknown files are assumed to impact the build
+     * @param file The file relative to the repository root
+     * @return The impact of the file
+     */
+    private static ChangeImpact ofFile(String file) {
+        String path = file.replace('\\', '/');
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        String root = path.contains("/") ? path.substring(0, path.indexOf('/')) : path;
+        if (root.equals("src") || path.contains("/src/")) {
+            return SOURCE;
+        }
+        if (name.equals("pom.xml") || root.equals(".mvn")) {
+            return POM;
+        }
+        if (NO_BUILD_DIRECTORIES.contains(root)
+                || (!path.contains("/") && NO_BUILD_FILES.contains(name))
+                || name.endsWith(".md")
+                || name.endsWith(".adoc")) {
+            return NONE;
+        }
+        return SOURCE;
+    }
+}
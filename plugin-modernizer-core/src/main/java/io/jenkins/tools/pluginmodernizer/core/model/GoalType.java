@@ -0,0 +1,64 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import java.util.List;
+
+/**
+ * Types of Maven invocations. Each type has its own memory and cores given by the admission control of builds
+ */
+public enum GoalType {
+
+    /**
+     * OpenRewrite runs collecting metadata or applying recipes
+     */
+    METADATA(3072, 1),
+
+    /**
+     * Light builds: clean, compile, formatting and verify without tests
+     */
+    QUICK_BUILD(2048, 1),
+
+    /**
+     * Full verify running the tests
+     */
+    VERIFY(4096, 2);
+
+    private final int defaultMemory;
+    private final int defaultCores;
+
+    GoalType(int defaultMemory, int defaultCores) {
+        this.defaultMemory = defaultMemory;
+        this.defaultCores = defaultCores;
+    }
+
+    /**
+     * Get the memory reserved by default for a build of this type
+     * @return The memory in MB
+     */
+    public int getDefaultMemory() {
+        return defaultMemory;
+    }
+
+    /**
+     * Get the number of cores reserved by default for a build of this type
+     * @return The number of cores
+     */
+    public int getDefaultCores() {
+        return defaultCores;
+    }
+
+    /**
+     * Get the type of an invocation from its goals and arguments
+     * @param goals The goals and arguments
+     * @return The type
+     */
+    public static GoalType of(String... goals) {
+        List<String> args = List.of(goals);
+        if (args.stream().anyMatch(arg -> arg.contains("rewrite-maven-plugin"))) {
+            return METADATA;
+        }
+        if (args.contains("verify") && !args.contains("-DskipTests") && !args.contains("-Pquick-build")) {
+            return VERIFY;
+        }
+        return QUICK_BUILD;
+    }
+}
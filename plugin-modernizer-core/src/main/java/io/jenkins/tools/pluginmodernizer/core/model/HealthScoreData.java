@@ -21,6 +21,11 @@ public class HealthScoreData extends CacheEntry<HealthScoreData> {
         super(cacheManager, HealthScoreData.class, CacheManager.HEALTH_SCORE_KEY, Path.of("."));
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     /**
      * Get the plugins
      * @return Plugins
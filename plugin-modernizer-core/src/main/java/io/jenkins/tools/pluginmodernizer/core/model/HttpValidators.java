@@ -0,0 +1,80 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * ETag and Last-Modified values of the download of a cache entry, stored next to the entry.
+ * They allow revalidating an expired entry instead of downloading it again
+ */
+public class HttpValidators extends CacheEntry<HttpValidators> {
+
+    /**
+     * Suffix of the key of the validators of an entry
+     */
+    private static final String KEY_SUFFIX = "-http-validators";
+
+    /**
+     * URL of the download
+     */
+    private String url;
+
+    /**
+     * ETag of the download or null
+     */
+    private String etag;
+
+    /**
+     * Last-Modified value of the download or null
+     */
+    private String lastModified;
+
+    /**
+     * Create validators of a cache entry
+     * @param cacheManager The cache manager
+     * @param path The path of the entry
+     * @param cacheKey The key of the entry
+     */
+    public HttpValidators(CacheManager cacheManager, Path path, String cacheKey) {
+        super(cacheManager, HttpValidators.class, getKey(cacheKey), path);
+    }
+
+    /**
+     * Get the key of the validators of an entry
+     * @param cacheKey The key of the entry
+     * @return The key of the validators
+     */
+    public static String getKey(String cacheKey) {
+        return cacheKey + KEY_SUFFIX;
+    }
+
+    /**
+     * Return if the validators can revalidate a download
+     * @param url The URL of the download
+     * @return True if a validator was received from the same URL
+     */
+    public boolean matches(URL url) {
+        return url.toString().equals(this.url) && (etag != null || lastModified != null);
+    }
+
+    /**
+     * Update the validators with the ones of a new download
+     * @param url The URL of the download
+     * @param etag The ETag or null
+     * @param lastModified The Last-Modified value or null
+     */
+    public void update(URL url, String etag, String lastModified) {
+        this.url = url.toString();
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,221 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Gson reader over the tokens of a Jackson parser, so documents in the binary formats of Jackson are bound by Gson
+ * without building an intermediate tree.
+ * Gson's map adapter can't read map keys from a subclass of {@link JsonReader}, so maps are bound with
+ * {@link io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils#fromJson(JsonReader, Class)}.
+ */
+final class JacksonJsonReader extends JsonReader {
+
+    private final JsonParser parser;
+
+    /**
+     * The next token, read from the parser but not consumed. Null if not read yet
+     */
+    private com.fasterxml.jackson.core.JsonToken peeked;
+
+    private boolean end;
+
+    /**
+     * Create a new reader
+     * @param parser The parser, before the first token of the document
+     */
+    JacksonJsonReader(JsonParser parser) {
+        super(Reader.nullReader());
+        this.parser = parser;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        com.fasterxml.jackson.core.JsonToken token = peekToken();
+        if (token == null) {
+            return JsonToken.END_DOCUMENT;
+        }
+        return switch (token) {
+            case START_OBJECT -> JsonToken.BEGIN_OBJECT;
+            case END_OBJECT -> JsonToken.END_OBJECT;
+            case START_ARRAY -> JsonToken.BEGIN_ARRAY;
+            case END_ARRAY -> JsonToken.END_ARRAY;
+            case FIELD_NAME -> JsonToken.NAME;
+            case VALUE_STRING -> JsonToken.STRING;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> JsonToken.NUMBER;
+            case VALUE_TRUE, VALUE_FALSE -> JsonToken.BOOLEAN;
+            case VALUE_NULL -> JsonToken.NULL;
+            default -> throw new IOException("Unexpected token " + token + locationString());
+        };
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.START_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.END_ARRAY);
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.START_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.END_OBJECT);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        com.fasterxml.jackson.core.JsonToken token = peekToken();
+        return token != null
+                && token != com.fasterxml.jackson.core.JsonToken.END_OBJECT
+                && token != com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.FIELD_NAME);
+        return parser.currentName();
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            throw unexpected("a string", token);
+        }
+        peeked = null;
+        return parser.getText();
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        JsonToken token = peek();
+        if (token != JsonToken.BOOLEAN) {
+            throw unexpected("a boolean", token);
+        }
+        peeked = null;
+        return parser.getBooleanValue();
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        consume(com.fasterxml.jackson.core.JsonToken.VALUE_NULL);
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        JsonToken token = peek();
+        if (token == JsonToken.STRING) {
+            peeked = null;
+            return Double.parseDouble(parser.getText());
+        }
+        if (token != JsonToken.NUMBER) {
+            throw unexpected("a double", token);
+        }
+        peeked = null;
+        return parser.getDoubleValue();
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        JsonToken token = peek();
+        if (token == JsonToken.STRING) {
+            peeked = null;
+            return Long.parseLong(parser.getText());
+        }
+        if (token != JsonToken.NUMBER) {
+            throw unexpected("a long", token);
+        }
+        peeked = null;
+        if (parser.currentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT
+                && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            return parser.getLongValue();
+        }
+        double value = parser.getDoubleValue();
+        long result = (long) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected a long but was " + parser.getText() + locationString());
+        }
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        int result = (int) value;
+        if (result != value) {
+            throw new NumberFormatException("Expected an int but was " + value + locationString());
+        }
+        return result;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        com.fasterxml.jackson.core.JsonToken token = peekToken();
+        if (token == null) {
+            return;
+        }
+        peeked = null;
+        if (token == com.fasterxml.jackson.core.JsonToken.START_OBJECT
+                || token == com.fasterxml.jackson.core.JsonToken.START_ARRAY) {
+            parser.skipChildren();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    @Override
+    public String getPath() {
+        return "$" + parser.getParsingContext().pathAsPointer();
+    }
+
+    @Override
+    public String getPreviousPath() {
+        return getPath();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + locationString();
+    }
+
+    private com.fasterxml.jackson.core.JsonToken peekToken() throws IOException {
+        if (peeked == null && !end) {
+            peeked = parser.nextToken();
+            end = peeked == null;
+        }
+        return peeked;
+    }
+
+    private void consume(com.fasterxml.jackson.core.JsonToken expected) throws IOException {
+        com.fasterxml.jackson.core.JsonToken token = peekToken();
+        if (token == null) {
+            throw new EOFException("End of input" + locationString());
+        }
+        if (token != expected) {
+            throw unexpected(expected.name(), peek());
+        }
+        peeked = null;
+    }
+
+    private IllegalStateException unexpected(String expected, JsonToken token) {
+        return new IllegalStateException("Expected " + expected + " but was " + token + locationString());
+    }
+
+    private String locationString() {
+        return " at path " + getPath();
+    }
+}
@@ -0,0 +1,23 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+/**
+ * How concurrent Maven builds share the local repository
+ */
+public enum LocalRepositoryMode {
+
+    /**
+     * All builds read and write the local repository without coordination. Only safe for sequential builds
+     */
+    SHARED,
+
+    /**
+     * All builds read and write the local repository, coordinated by the file locks of the Maven resolver
+     */
+    LOCKED,
+
+    /**
+     * The local repository is a read-only base. Each build writes to its own overlay and new artifacts of the
+     * overlays are promoted to the base from time to time
+     */
+    OVERLAY
+}
@@ -0,0 +1,72 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Terminal outcomes of the runs on a plugin, used to skip a plugin already processed with the same recipe, commit
+ * and modernizer version
+ */
+public class OutcomeLedger extends CacheEntry<OutcomeLedger> {
+
+    /**
+     * Outcomes by run key
+     */
+    private Map<String, PluginOutcome> outcomes = new HashMap<>();
+
+    /**
+     * Create the outcome ledger of a plugin
+     * @param cacheManager The cache manager
+     * @param path The path of the plugin in the cache
+     */
+    public OutcomeLedger(CacheManager cacheManager, Path path) {
+        super(cacheManager, OutcomeLedger.class, CacheManager.OUTCOME_LEDGER_CACHE_KEY, path);
+    }
+
+    /**
+     * Compute the key of a run
+     * @param recipe The recipe name
+     * @param headCommit The commit at the head of the default branch of the plugin
+     * @param version The modernizer version
+     * @param options The serialized recipe and options changing its outcome
+     * @return The key
+     */
+    public static String key(String recipe, String headCommit, String version, String options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] optionsHash = digest.digest(String.valueOf(options).getBytes(StandardCharsets.UTF_8));
+            for (String part : new String[] {recipe, headCommit, version}) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update(optionsHash);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the outcome of a run
+     * @param key The run key
+     * @return The outcome or null if no run with this key completed
+     */
+    public PluginOutcome getOutcome(String key) {
+        return outcomes.get(key);
+    }
+
+    /**
+     * Record the outcome of a run
+     * @param key The run key
+     * @param outcome The outcome
+     */
+    public void putOutcome(String key, PluginOutcome outcome) {
+        outcomes.put(key, outcome);
+    }
+}
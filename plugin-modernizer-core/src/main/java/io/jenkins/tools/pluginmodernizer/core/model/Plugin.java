@@ -7,20 +7,30 @@ import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
 import io.jenkins.tools.pluginmodernizer.core.impl.MavenInvoker;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
 import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
@@ -74,6 +84,11 @@ public class Plugin {
      */
     private PluginMetadata metadata;
 
+    /**
+     * Key of the metadata collected from the content of the default branch. Null if unknown
+     */
+    private String metadataFingerprint;
+
     /**
      * Flag to indicate if the plugin has any commits to be pushed
      */
@@ -89,6 +104,11 @@ public class Plugin {
      */
     private boolean hasPullRequest;
 
+    /**
+     * Outcome recorded by a previous run with the same recipe, commit and modernizer version, if skipped
+     */
+    private PluginOutcome recordedOutcome;
+
     /**
      * Return if the plugin has any error
      */
@@ -99,6 +119,11 @@ public class Plugin {
      */
     private final List<String> modifiedFiles = new LinkedList<>();
 
+    /**
+     * Durations of the successful Maven builds by goals
+     */
+    private final Map<String, Duration> buildTimes = new ConcurrentHashMap<>();
+
     /**
      * Tags to apply on pull request for the applied changes
      */
@@ -239,6 +264,24 @@ public class Plugin {
         return this;
     }
 
+    /**
+     * Indicate that the plugin is skipped because a previous run recorded its outcome
+     * @param recordedOutcome The recorded outcome
+     * @return Plugin object
+     */
+    public Plugin withRecordedOutcome(PluginOutcome recordedOutcome) {
+        this.recordedOutcome = recordedOutcome;
+        return this;
+    }
+
+    /**
+     * Return the outcome recorded by a previous run if the plugin was skipped
+     * @return The recorded outcome or null if the plugin was processed
+     */
+    public PluginOutcome getRecordedOutcome() {
+        return recordedOutcome;
+    }
+
     /**
      * Return if the plugin has any commits
      * @return True if the plugin has commits
@@ -549,6 +592,24 @@ public class Plugin {
         }
     }
 
+    /**
+     * Execute maven verify without tests on this plugin. Unlike the quick build, enforcer rules are kept
+     * to check the changes of the POM
+     * @param maven The maven invoker instance
+     */
+    public void verifyWithoutTests(MavenInvoker maven) {
+        if (config.isFetchMetadataOnly()) {
+            LOG.info("Skipping verification for plugin {} as only metadata is required", name);
+            return;
+        }
+        LOG.info(
+                "Verifying plugin {} without tests with JDK {}... Please be patient",
+                name,
+                this.getJDK().getMajor());
+        maven.invokeGoal(this, "verify", "-DskipTests");
+        LOG.info("Done");
+    }
+
     /**
      * Execute maven verify on this plugin
      * @param maven The maven invoker instance
@@ -607,11 +668,39 @@ public class Plugin {
      * @param maven The maven invoker instance
      */
     public void collectMetadata(MavenInvoker maven) {
+        if (hasStaticPreconditionErrors()) {
+            return;
+        }
+
+        // Collect using OpenRewrite
+        maven.collectMetadata(this);
+    }
+
+    /**
+     * Collect plugin metadata, run the openrewrite recipe and collect metadata after modernization in a single rewrite run
+     * Nothing is run if precondition errors are found on the pom file. Only the precondition metadata is saved in that case
+     * @param maven The maven invoker instance
+     * @return True if the single pass rewrite was run, false if precondition errors prevented it
+     */
+    public boolean runSinglePassRewrite(MavenInvoker maven) {
+        if (hasStaticPreconditionErrors()) {
+            return false;
+        }
+        withJDK(JDK.JAVA_17);
+        maven.invokeSinglePassRewrite(this);
+        return true;
+    }
+
+    /**
+     * Static parse of the pom file and check for pattern preventing minimal build
+     * Precondition errors are saved as metadata in the target directory of the plugin
+     * @return True if precondition errors were found
+     */
+    private boolean hasStaticPreconditionErrors() {
 
         XPathFactory xPathFactory = XPathFactory.newInstance();
         XPath xpath = xPathFactory.newXPath();
 
-        // Static parse of the pom file and check for pattern preventing minimal build
         Path pom = getLocalRepository().resolve("pom.xml");
         if (!getLocalRepository().resolve("target").toFile().mkdir()) {
             LOG.trace("Failed to create target directory for plugin {}", name);
@@ -628,11 +717,9 @@ public class Plugin {
         if (!pluginMetadata.getErrors().isEmpty()) {
             LOG.debug("Precondition errors found for plugin {}", name);
             pluginMetadata.save();
-            return;
+            return true;
         }
-
-        // Collect using OpenRewrite
-        maven.collectMetadata(this);
+        return false;
     }
 
     /**
@@ -821,6 +908,90 @@ public class Plugin {
         setMetadata(cacheManager.get(Path.of(getName()), CacheManager.PLUGIN_METADATA_CACHE_KEY, PluginMetadata.class));
     }
 
+    /**
+     * Compute the key of the metadata collected from the default branch checked out locally.
+     * It depends on the commit, the content of the pom.xml and Jenkinsfile and the modernizer version.
+     * Local plugins have no key because their working tree can have any change
+     * @param service The GitHub service
+     */
+    public void computeMetadataFingerprint(GHService service) {
+        metadataFingerprint = null;
+        String commit = service.getHeadCommit(this);
+        if (commit == null) {
+            return;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(commit.getBytes(StandardCharsets.UTF_8));
+            digest.update(
+                    String.valueOf(config != null ? config.getVersion() : null).getBytes(StandardCharsets.UTF_8));
+            for (String file : List.of("pom.xml", "Jenkinsfile")) {
+                Path path = getLocalRepository().resolve(file);
+                digest.update((byte) 0);
+                if (Files.isRegularFile(path)) {
+                    digest.update((byte) 1);
+                    digest.update(Files.readAllBytes(path));
+                }
+            }
+            metadataFingerprint = HexFormat.of().formatHex(digest.digest());
+            LOG.debug("Metadata fingerprint of plugin {} at {}: {}", name, commit, metadataFingerprint);
+        } catch (IOException e) {
+            LOG.debug("Unable to compute metadata fingerprint of plugin {}", name, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Load metadata collected from the same content of the default branch. These metadata never expire
+     * @param cacheManager The cache manager
+     * @return True if metadata were found
+     */
+    public boolean loadMetadataByFingerprint(CacheManager cacheManager) {
+        if (metadataFingerprint == null) {
+            return false;
+        }
+        PluginMetadata cached =
+                cacheManager.get(getMetadataByContentPath(), metadataFingerprint, PluginMetadata.class, false);
+        if (cached == null) {
+            return false;
+        }
+        cached.setPath(Path.of(getName()));
+        cached.setKey(CacheManager.PLUGIN_METADATA_CACHE_KEY);
+        cached.save();
+        setMetadata(cached);
+        return true;
+    }
+
+    /**
+     * Keep the current metadata as the metadata of the default branch content. Metadata of previous contents are removed
+     * @param cacheManager The cache manager
+     */
+    public void saveMetadataByFingerprint(CacheManager cacheManager) {
+        if (metadataFingerprint == null || metadata == null) {
+            return;
+        }
+        Path path = getMetadataByContentPath();
+        try (Stream<Path> files = Files.list(cacheManager.getLocation().resolve(path))) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(key -> !key.equals(metadataFingerprint))
+                    .forEach(key -> cacheManager.remove(path, key));
+        } catch (NoSuchFileException e) {
+            LOG.trace("No metadata by content for plugin {}", name);
+        } catch (IOException e) {
+            LOG.debug("Unable to remove previous metadata of plugin {}", name, e);
+        }
+        PluginMetadata copy = JsonUtils.fromJson(metadata.toJson(), PluginMetadata.class);
+        copy.setCacheManager(cacheManager);
+        copy.setPath(path);
+        copy.setKey(metadataFingerprint);
+        copy.save();
+    }
+
+    private Path getMetadataByContentPath() {
+        return Path.of(getName(), CacheManager.PLUGIN_METADATA_BY_CONTENT_PATH);
+    }
+
     /**
      * Copy metadata from plugin target directory to cache
      * @param cacheManager The cache manager
@@ -838,6 +1009,32 @@ public class Plugin {
                 getMetadata().getLocation().toAbsolutePath());
     }
 
+    /**
+     * Copy metadata collected after modernization from plugin target directory to cache
+     * @param cacheManager The cache manager
+     */
+    public void copyMetadataAfterModernization(CacheManager cacheManager) {
+        CacheManager pluginCacheManager = buildPluginTargetDirectoryCacheManager();
+        PluginMetadata after = new PluginMetadata(CacheManager.PLUGIN_METADATA_AFTER_CACHE_KEY);
+        after.setCacheManager(pluginCacheManager);
+        pluginCacheManager.copy(cacheManager, Path.of(getName()), CacheManager.PLUGIN_METADATA_AFTER_CACHE_KEY, after);
+        LOG.debug("Copied plugin {} metadata after modernization to cache", getName());
+    }
+
+    /**
+     * Replace the metadata of the plugin by the metadata collected after modernization
+     * @param cacheManager The cache manager
+     */
+    public void loadMetadataAfterModernization(CacheManager cacheManager) {
+        PluginMetadata after = cacheManager.get(
+                Path.of(getName()), CacheManager.PLUGIN_METADATA_AFTER_CACHE_KEY, PluginMetadata.class);
+        if (after == null) {
+            addError("Metadata after modernization not found for plugin " + name);
+            raiseLastError();
+        }
+        setMetadata(after.move(cacheManager, Path.of(getName()), CacheManager.PLUGIN_METADATA_CACHE_KEY));
+    }
+
     /**
      * Add a modified file to the plugin
      * @param files The files to add
@@ -846,6 +1043,23 @@ public class Plugin {
         modifiedFiles.addAll(files);
     }
 
+    /**
+     * Record the duration of a successful Maven build. Durations of builds with the same goals add up
+     * @param goals The goals of the build
+     * @param duration The duration
+     */
+    public void addBuildTime(String goals, Duration duration) {
+        buildTimes.merge(goals, duration, Duration::plus);
+    }
+
+    /**
+     * Return the durations of the successful Maven builds
+     * @return The durations by goals
+     */
+    public Map<String, Duration> getBuildTimes() {
+        return Collections.unmodifiableMap(buildTimes);
+    }
+
     /**
      * Return a set of modified files in the plugin
      * @return Set of modified files
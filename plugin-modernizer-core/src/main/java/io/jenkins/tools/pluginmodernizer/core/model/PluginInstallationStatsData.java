@@ -15,6 +15,11 @@ public class PluginInstallationStatsData extends CacheEntry<PluginInstallationSt
         super(cacheManager, PluginInstallationStatsData.class, CacheManager.INSTALLATION_STATS_KEY, Path.of("."));
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     public Map<String, Integer> getPlugins() {
         return plugins;
     }
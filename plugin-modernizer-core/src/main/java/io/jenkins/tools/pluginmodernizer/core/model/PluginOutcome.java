@@ -0,0 +1,18 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+/**
+ * Terminal outcome of the processing of a plugin. Processing the same plugin commit again with the same recipe and
+ * modernizer version gives the same outcome
+ */
+public enum PluginOutcome {
+
+    /**
+     * The recipe made no changes
+     */
+    NO_CHANGES,
+
+    /**
+     * The changes were pushed and a pull request is open
+     */
+    PULL_REQUEST
+}
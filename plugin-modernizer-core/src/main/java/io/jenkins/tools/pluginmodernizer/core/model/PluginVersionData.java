@@ -21,6 +21,11 @@ public class PluginVersionData extends CacheEntry<PluginVersionData> {
         super(cacheManager, PluginVersionData.class, CacheManager.UPDATE_CENTER_CACHE_KEY, Path.of("."));
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     /**
      * Get the plugins
      * @return Plugins
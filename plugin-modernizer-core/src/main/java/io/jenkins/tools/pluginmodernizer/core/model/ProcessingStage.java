@@ -0,0 +1,65 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+/**
+ * Stages of the processing of a plugin. Each stage has its own pool of workers so network, git and Maven
+ * work of different plugins overlap
+ */
+public enum ProcessingStage {
+
+    /**
+     * Resolve the repository and skip deprecated or archived plugins (update center and GitHub API)
+     */
+    PREFLIGHT(true),
+
+    /**
+     * Fetch the repository and load cached metadata (network and git)
+     */
+    FETCH(true),
+
+    /**
+     * Compile, collect metadata and remediate precondition errors (Maven)
+     */
+    METADATA(false),
+
+    /**
+     * Run the recipe (Maven)
+     */
+    REWRITE(false),
+
+    /**
+     * Verify the modernized plugin and collect its metadata (Maven)
+     */
+    VERIFY(false),
+
+    /**
+     * Commit the changes (git)
+     */
+    COMMIT(false),
+
+    /**
+     * Fork, push and open the pull request (network)
+     */
+    PUBLISH(true);
+
+    private final boolean ioBound;
+
+    ProcessingStage(boolean ioBound) {
+        this.ioBound = ioBound;
+    }
+
+    /**
+     * Return if the stage mostly waits for the network (GitHub API and git transport)
+     * @return True if the stage can run on virtual threads
+     */
+    public boolean isIoBound() {
+        return ioBound;
+    }
+
+    /**
+     * Get the name of the stage used for threads and reports
+     * @return The name
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }
+}
@@ -27,6 +27,11 @@ public class UpdateCenterData extends CacheEntry<UpdateCenterData> {
         super(cacheManager, UpdateCenterData.class, CacheManager.UPDATE_CENTER_CACHE_KEY, Path.of("."));
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     /**
      * Get the plugins
      * @return Plugins
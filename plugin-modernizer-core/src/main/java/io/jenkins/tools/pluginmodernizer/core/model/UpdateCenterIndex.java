@@ -0,0 +1,189 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import java.nio.file.attribute.FileTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory snapshot of the update center data with precomputed per-plugin lookups.
+ * The snapshot is bound to the last modified time of the cache entry it was built from, so it can
+ * be shared by all lookups until the entry is refreshed.
+ */
+public final class UpdateCenterIndex {
+
+    /**
+     * Label marking deprecated plugins
+     */
+    public static final String DEPRECATED_LABEL = "deprecated";
+
+    /**
+     * Label marking plugins up for adoption
+     */
+    public static final String ADOPT_THIS_PLUGIN_LABEL = "adopt-this-plugin";
+
+    /**
+     * Label marking API plugins
+     */
+    public static final String API_PLUGIN_LABEL = "api-plugin";
+
+    /**
+     * Indexed plugins by name
+     */
+    private final Map<String, IndexedPlugin> plugins;
+
+    /**
+     * Bit position of each known label
+     */
+    private final Map<String, Integer> labels;
+
+    /**
+     * Deprecated plugins either from the deprecation list or the deprecated label
+     */
+    private final Set<String> deprecated;
+
+    /**
+     * Last modified time of the cache entry used to build the index. Null if unknown
+     */
+    private final FileTime lastModified;
+
+    private UpdateCenterIndex(
+            Map<String, IndexedPlugin> plugins,
+            Map<String, Integer> labels,
+            Set<String> deprecated,
+            FileTime lastModified) {
+        this.plugins = plugins;
+        this.labels = labels;
+        this.deprecated = deprecated;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Build the index from update center data
+     * @param data The update center data
+     * @param lastModified The last modified time of the cache entry or null if unknown
+     * @return The index
+     */
+    public static UpdateCenterIndex build(UpdateCenterData data, FileTime lastModified) {
+        Map<String, IndexedPlugin> plugins = new HashMap<>();
+        Map<String, Integer> labels = new HashMap<>();
+        Set<String> deprecated = new HashSet<>();
+        if (data.getDeprecations() != null) {
+            deprecated.addAll(data.getDeprecations().keySet());
+        }
+        if (data.getPlugins() != null) {
+            data.getPlugins().forEach((name, plugin) -> {
+                BitSet bits = new BitSet();
+                List<String> pluginLabels = plugin.labels();
+                if (pluginLabels != null) {
+                    for (String label : pluginLabels) {
+                        bits.set(labels.computeIfAbsent(label, l -> labels.size()));
+                    }
+                    if (pluginLabels.contains(DEPRECATED_LABEL)) {
+                        deprecated.add(name);
+                    }
+                }
+                plugins.put(
+                        name, new IndexedPlugin(plugin.scm(), extractRepository(plugin.scm()), plugin.version(), bits));
+            });
+        }
+        return new UpdateCenterIndex(Map.copyOf(plugins), Map.copyOf(labels), Set.copyOf(deprecated), lastModified);
+    }
+
+    /**
+     * Extract the repository name from an SCM URL
+     * @param scm The SCM URL
+     * @return The repository name or null if the URL format is invalid
+     */
+    private static String extractRepository(String scm) {
+        if (scm == null) {
+            return null;
+        }
+        int lastSlashIndex = scm.lastIndexOf('/');
+        if (lastSlashIndex != -1 && lastSlashIndex < scm.length() - 1) {
+            return scm.substring(lastSlashIndex + 1).replaceAll(".git$", "");
+        }
+        return null;
+    }
+
+    /**
+     * Check if the index was built from the cache entry with the given last modified time
+     * @param lastModified The last modified time of the cache entry
+     * @return True if the index is up to date
+     */
+    public boolean isUpToDate(FileTime lastModified) {
+        return this.lastModified != null && this.lastModified.equals(lastModified);
+    }
+
+    /**
+     * Check if a plugin is part of the update center
+     * @param name Plugin name
+     * @return True if the plugin is known
+     */
+    public boolean contains(String name) {
+        return plugins.containsKey(name);
+    }
+
+    /**
+     * Get the SCM URL of a plugin
+     * @param name Plugin name
+     * @return The SCM URL or null if the plugin is unknown
+     */
+    public String getScm(String name) {
+        IndexedPlugin plugin = plugins.get(name);
+        return plugin != null ? plugin.scm() : null;
+    }
+
+    /**
+     * Get the repository name of a plugin
+     * @param name Plugin name
+     * @return The repository name or null if the plugin is unknown or the SCM URL is invalid
+     */
+    public String getRepository(String name) {
+        IndexedPlugin plugin = plugins.get(name);
+        return plugin != null ? plugin.repository() : null;
+    }
+
+    /**
+     * Get the version of a plugin
+     * @param name Plugin name
+     * @return The version or null if the plugin is unknown
+     */
+    public String getVersion(String name) {
+        IndexedPlugin plugin = plugins.get(name);
+        return plugin != null ? plugin.version() : null;
+    }
+
+    /**
+     * Check if a plugin has the given label
+     * @param name Plugin name
+     * @param label The label
+     * @return True if the plugin is known and has the label
+     */
+    public boolean hasLabel(String name, String label) {
+        IndexedPlugin plugin = plugins.get(name);
+        Integer bit = labels.get(label);
+        return plugin != null && bit != null && plugin.labels().get(bit);
+    }
+
+    /**
+     * Check if a plugin is deprecated
+     * @param name Plugin name
+     * @return True if deprecated
+     */
+    public boolean isDeprecated(String name) {
+        return deprecated.contains(name);
+    }
+
+    /**
+     * A plugin with its precomputed lookups. The label bitset is never exposed outside the index
+     * @param scm The SCM URL
+     * @param repository The repository name
+     * @param version The version
+     * @param labels The labels bitset
+     */
+    private record IndexedPlugin(String scm, String repository, String version, BitSet labels) {}
+}
@@ -35,11 +35,17 @@ public class FetchMetadata extends Recipe {
     @Option(displayName = "File name", description = "The plugin metadata file name", example = "plugin-metadata")
     private final String fileName;
 
+    /**
+     * Only collect metadata during the first cycle, before other recipes of the same run changed the sources.
+     */
+    private final boolean firstCycleOnly;
+
     /**
      * Default constructor with the default metadata file name.
      */
     public FetchMetadata() {
         this.fileName = CacheManager.PLUGIN_METADATA_CACHE_KEY;
+        this.firstCycleOnly = true;
         metadataContext = new MetadataExecutionContext();
     }
 
@@ -48,7 +54,17 @@ public class FetchMetadata extends Recipe {
      * @param fileName metadata file name
      */
     public FetchMetadata(String fileName) {
+        this(fileName, true);
+    }
+
+    /**
+     * Constructor with the metadata file name.
+     * @param fileName metadata file name
+     * @param firstCycleOnly true to only collect metadata during the first cycle of the run
+     */
+    protected FetchMetadata(String fileName, boolean firstCycleOnly) {
         this.fileName = fileName;
+        this.firstCycleOnly = firstCycleOnly;
         metadataContext = new MetadataExecutionContext(fileName);
     }
 
@@ -60,7 +76,7 @@ public class FetchMetadata extends Recipe {
     @Override
     public void buildRecipeList(RecipeList list) {
         super.buildRecipeList(list);
-        list.recipe(new MetadataFinalizer(metadataContext));
+        list.recipe(new MetadataFinalizer(metadataContext, firstCycleOnly));
     }
 
     @Override
@@ -68,6 +84,9 @@ public class FetchMetadata extends Recipe {
         return new TreeVisitor<>() {
             @Override
             public Tree visit(Tree tree, ExecutionContext ctx) {
+                if (firstCycleOnly && ctx.getCycle() > 1) {
+                    return tree;
+                }
                 return new MetadataVisitor(new PluginMetadata()).visit(tree, metadataContext);
             }
         };
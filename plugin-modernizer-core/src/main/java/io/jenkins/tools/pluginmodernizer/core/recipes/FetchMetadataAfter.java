@@ -0,0 +1,28 @@
+package io.jenkins.tools.pluginmodernizer.core.recipes;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+
+/**
+ * Recipe to fetch metadata after modernization when running in the same rewrite run as the modernization recipe.
+ * Unlike {@link FetchMetadata} the metadata is collected on every cycle so it reflects the final state of the sources.
+ * Metadata is stored in the target directory with the {@link CacheManager#PLUGIN_METADATA_AFTER_CACHE_KEY} file name.
+ */
+public class FetchMetadataAfter extends FetchMetadata {
+
+    /**
+     * Default constructor with the metadata after modernization file name.
+     */
+    public FetchMetadataAfter() {
+        super(CacheManager.PLUGIN_METADATA_AFTER_CACHE_KEY, false);
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Fetch metadata after modernization";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Fetch metadata from source files after modernization.";
+    }
+}
@@ -27,8 +27,18 @@ public class MetadataFinalizer extends Recipe {
      */
     private final MetadataExecutionContext metadataContext;
 
+    /**
+     * Only finalize metadata during the first cycle.
+     */
+    private final boolean firstCycleOnly;
+
     public MetadataFinalizer(MetadataExecutionContext metadataContext) {
+        this(metadataContext, true);
+    }
+
+    public MetadataFinalizer(MetadataExecutionContext metadataContext, boolean firstCycleOnly) {
         this.metadataContext = metadataContext;
+        this.firstCycleOnly = firstCycleOnly;
     }
 
     @Override
@@ -36,6 +46,9 @@ public class MetadataFinalizer extends Recipe {
         return new TreeVisitor<Tree, ExecutionContext>() {
             @Override
             public Tree visit(Tree tree, ExecutionContext ctx) {
+                if (firstCycleOnly && ctx.getCycle() > 1) {
+                    return tree;
+                }
                 return new MetadataFinalizerVisitor().visit(tree, metadataContext);
             }
         };
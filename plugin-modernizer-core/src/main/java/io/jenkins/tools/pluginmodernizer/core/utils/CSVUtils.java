@@ -1,22 +1,17 @@
 package io.jenkins.tools.pluginmodernizer.core.utils;
 
-import com.google.gson.JsonSyntaxException;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URL;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.HashMap;
 import java.util.Map;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.commons.io.IOUtils;
 
 public class CSVUtils {
 
-    private static final Logger LOG = LoggerFactory.getLogger(CSVUtils.class);
-
     private CSVUtils() {
         // Hide constructor
     }
@@ -27,23 +22,7 @@ public class CSVUtils {
      * @return The object
      */
     public static String fromUrl(URL url) {
-        try {
-            HttpClient client = HttpClient.newBuilder()
-                    .followRedirects(HttpClient.Redirect.NORMAL)
-                    .build();
-            HttpRequest request =
-                    HttpRequest.newBuilder().GET().uri(url.toURI()).build();
-            LOG.debug("Fetching data from: {}", url);
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200) {
-                throw new ModernizerException(
-                        "Failed to get CSV data. Received response code: " + response.statusCode() + " from " + url);
-            }
-            LOG.debug("Fetched data from: {}", url);
-            return response.body();
-        } catch (IOException | JsonSyntaxException | URISyntaxException | InterruptedException e) {
-            throw new ModernizerException("Unable to fetch data from " + url, e);
-        }
+        return HttpUtils.get(url, IOUtils::toString);
     }
 
     /**
@@ -52,9 +31,24 @@ public class CSVUtils {
      * @return The parsed stats
      */
     public static Map<String, Integer> parseStats(String data) {
+        try {
+            return parseStats(new StringReader(data));
+        } catch (IOException e) {
+            throw new ModernizerException("Unable to parse CSV stats", e);
+        }
+    }
+
+    /**
+     * Parse a 2 column CSV stats while reading it
+     * @param reader The CSV data
+     * @return The parsed stats
+     * @throws IOException If the data cannot be read
+     */
+    public static Map<String, Integer> parseStats(Reader reader) throws IOException {
         Map<String, Integer> stats = new HashMap<>();
-        String[] lines = data.split("\n");
-        for (String line : lines) {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
             String[] columns = line.split(",");
             if (columns.length == 2) {
                 String pluginName = columns[0].trim().replace("\"", "");
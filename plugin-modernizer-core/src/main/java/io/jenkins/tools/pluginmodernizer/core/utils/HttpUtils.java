@@ -0,0 +1,124 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import com.google.gson.JsonParseException;
+import io.jenkins.tools.pluginmodernizer.core.model.HttpValidators;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Download of remote data through a client shared by the JVM, so connections are kept alive and reused.
+ * Responses are requested compressed and parsed while they are received.
+ */
+public class HttpUtils {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpUtils.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private HttpUtils() {
+        // Hide constructor
+    }
+
+    /**
+     * Parser of a response body
+     * @param <T> The type of the parsed body
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+
+        /**
+         * Parse a response body
+         * @param reader The UTF-8 decoded body
+         * @return The parsed body
+         * @throws IOException If the body cannot be read
+         */
+        T parse(Reader reader) throws IOException;
+    }
+
+    /**
+     * Download data from a URL
+     * @param url The URL to download from
+     * @param parser The parser of the response body
+     * @param <T> The type of the parsed body
+     * @return The parsed body
+     */
+    public static <T> T get(URL url, BodyParser<T> parser) {
+        return get(url, null, parser);
+    }
+
+    /**
+     * Download data from a URL unless it was not modified since the given validators were received
+     * @param url The URL to download from
+     * @param validators The validators of the last download, updated with the ones of the new download. Can be null
+     * @param parser The parser of the response body
+     * @param <T> The type of the parsed body
+     * @return The parsed body or null if not modified
+     */
+    public static <T> T get(URL url, HttpValidators validators, BodyParser<T> parser) {
+        try {
+            HttpRequest.Builder builder =
+                    HttpRequest.newBuilder().GET().uri(url.toURI()).header("Accept-Encoding", "gzip");
+            boolean conditional = validators != null && validators.matches(url);
+            if (conditional) {
+                if (validators.getEtag() != null) {
+                    builder.header("If-None-Match", validators.getEtag());
+                }
+                if (validators.getLastModified() != null) {
+                    builder.header("If-Modified-Since", validators.getLastModified());
+                }
+            }
+            LOG.debug("Fetching data from: {}", url);
+            HttpResponse<InputStream> response =
+                    CLIENT.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (conditional && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    LOG.debug("Data not modified at: {}", url);
+                    return null;
+                }
+                if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                    throw new ModernizerException(
+                            "Failed to get data. Received response code: " + response.statusCode() + " from " + url);
+                }
+                InputStream stream = response.headers()
+                                .firstValue("Content-Encoding")
+                                .filter("gzip"::equalsIgnoreCase)
+                                .isPresent()
+                        ? new GZIPInputStream(body, BUFFER_SIZE)
+                        : body;
+                T result = parser.parse(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                if (validators != null) {
+                    validators.update(
+                            url,
+                            response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null));
+                }
+                LOG.debug("Fetched data from: {}", url);
+                return result;
+            }
+        } catch (IOException | UncheckedIOException | JsonParseException | URISyntaxException e) {
+            throw new ModernizerException("Unable to fetch data from " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModernizerException("Interrupted while fetching data from " + url, e);
+        }
+    }
+}
@@ -6,40 +6,94 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
-import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A utility class for fetching the latest JDK releases from the Adoptium GitHub repository.
+ * Installs are locked per JDK version across threads and processes sharing the same cache. Archives are decompressed
+ * and extracted while downloading, preserving permissions and symbolic links, to a temporary directory moved atomically
+ * into place once the SHA-256 checksum published with the release is verified. Downloaded bytes are kept in a partial
+ * file so an interrupted download is resumed with a range request.
  */
 @SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "false, positive")
 public class JdkFetcher {
     private static final Logger LOG = LoggerFactory.getLogger(JdkFetcher.class);
 
+    /**
+     * In-process locks by JDK directory. File locks cannot be acquired twice by the same JVM
+     */
+    private static final Map<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Buffer size used to download and extract archives
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final Path cacheDir;
 
+    /**
+     * Base URL of the Adoptium GitHub repositories API
+     */
+    private final String apiUrl;
+
+    private final HttpClient client =
+            HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+
     public JdkFetcher(Path cacheDir) {
+        this(cacheDir, Settings.ADOPTIUM_GITHUB_API_URL);
+    }
+
+    /**
+     * Create a fetcher using the given Adoptium GitHub repositories API
+     * @param cacheDir The cache directory
+     * @param apiUrl The base URL of the Adoptium GitHub repositories API
+     */
+    public JdkFetcher(Path cacheDir, String apiUrl) {
         this.cacheDir = cacheDir;
+        this.apiUrl = apiUrl;
     }
 
     /**
@@ -53,37 +107,116 @@ public class JdkFetcher {
      */
     public Path getJdkPath(int jdkVersion) throws IOException, InterruptedException {
         Path jdkPath = getJdkDirectoryPath(jdkVersion);
-        if (Files.notExists(jdkPath)) {
-            downloadAndSetupJdk(jdkVersion, jdkPath);
+        if (Files.isDirectory(jdkPath)) {
+            return jdkPath;
+        }
+        Files.createDirectories(jdkPath.getParent());
+        synchronized (LOCKS.computeIfAbsent(jdkPath, k -> new Object())) {
+            Path lockFile = jdkPath.resolveSibling(jdkPath.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock ignored = channel.lock()) {
+                // Another thread or process may have installed it while waiting for the lock
+                if (Files.notExists(jdkPath)) {
+                    downloadAndSetupJdk(jdkVersion, jdkPath);
+                }
+            }
         }
         return jdkPath;
     }
 
     /**
-     * Downloads and extracts the JDK for the specified version. The method determines the appropriate extraction
-     * method based on the operating system.
+     * Install the given JDKs in parallel. Failures are logged and the JDK will be installed again on first use
+     * @param jdks The JDKs to install
+     */
+    public void prefetch(Collection<JDK> jdks) {
+        if (jdks.isEmpty()) {
+            return;
+        }
+        LOG.info("Prefetching JDKs {}", jdks.stream().map(JDK::getMajor).toList());
+        try (ExecutorService executor = Executors.newFixedThreadPool(jdks.size())) {
+            Map<JDK, Future<Path>> homes = new LinkedHashMap<>();
+            for (JDK jdk : jdks) {
+                homes.put(jdk, executor.submit(() -> jdk.getHome(this)));
+            }
+            for (Map.Entry<JDK, Future<Path>> home : homes.entrySet()) {
+                try {
+                    LOG.debug(
+                            "JDK {} available at {}",
+                            home.getKey().getMajor(),
+                            home.getValue().get());
+                } catch (ExecutionException e) {
+                    LOG.warn(
+                            "Failed to prefetch JDK {}: {}",
+                            home.getKey().getMajor(),
+                            e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while prefetching JDKs");
+        }
+    }
+
+    /**
+     * Downloads and extracts the JDK for the specified version. The archive is extracted while downloading to a
+     * temporary directory moved into place once verified. A corrupted resumed download is restarted once.
      *
      * @param jdkVersion The version of the JDK (e.g., "8").
      * @param extractionDir The directory where the JDK will be extracted.
-     * @throws IOException          If an I/O error occurs.
+     * @throws IOException          If an I/O error occurs or the checksum doesn't match.
      * @throws InterruptedException If the operation is interrupted.
      */
     private void downloadAndSetupJdk(int jdkVersion, Path extractionDir) throws IOException, InterruptedException {
-        LOG.info("Downloading the JDK...");
-        Path downloadedFile = downloadJdk(jdkVersion);
-        LOG.info("Download successful");
-
-        LOG.info("Extracting...");
-        Files.createDirectories(extractionDir);
-        String os = getOSName();
-        if (os.contains("windows")) {
-            extractZip(downloadedFile, extractionDir);
-        } else if (os.contains("linux") || os.contains("mac")) {
-            extractTarGz(downloadedFile, extractionDir);
-            LOG.info("Setting executable permissions for files in bin directory");
-            setJavaBinariesPermissions(extractionDir);
+        JdkRelease release = fetchLatestRelease(jdkVersion);
+        if (release == null) {
+            throw new IOException("No JDK %d release found for %s".formatted(jdkVersion, buildJDKFileName(jdkVersion)));
+        }
+        Path downloadPath = extractionDir.resolveSibling(release.name() + ".part");
+        for (int attempt = 0; ; attempt++) {
+            LOG.info("Downloading and extracting the JDK {}...", jdkVersion);
+            Path tmp = Files.createTempDirectory(extractionDir.getParent(), extractionDir.getFileName() + ".");
+            try {
+                Download download = download(release.url(), downloadPath);
+                String checksum;
+                try (DigestInputStream in = new DigestInputStream(download.stream(), sha256())) {
+                    if (getExtension(release.name()).equals(".zip")) {
+                        extractZip(in, tmp);
+                    } else {
+                        extractTarGz(in, tmp);
+                    }
+                    // Trailing bytes after the end of archive are part of the checksum
+                    in.transferTo(OutputStream.nullOutputStream());
+                    checksum = HexFormat.of().formatHex(in.getMessageDigest().digest());
+                } catch (IOException e) {
+                    // A corrupted partial file would fail every resumed download
+                    if (!download.resumed() || attempt > 0) {
+                        throw e;
+                    }
+                    Files.deleteIfExists(downloadPath);
+                    LOG.warn("Failed to extract resumed download of {}. Downloading again", release.name(), e);
+                    continue;
+                }
+                if (release.sha256() == null || release.sha256().equalsIgnoreCase(checksum)) {
+                    if (release.sha256() == null) {
+                        LOG.warn("No checksum published for {}. Skipping verification", release.name());
+                    } else {
+                        LOG.debug("Verified SHA-256 checksum {} of {}", checksum, release.name());
+                    }
+                    Files.move(tmp, extractionDir, StandardCopyOption.ATOMIC_MOVE);
+                    Files.delete(downloadPath);
+                    LOG.info("JDK {} installed at {}", jdkVersion, extractionDir);
+                    return;
+                }
+                Files.delete(downloadPath);
+                if (!download.resumed() || attempt > 0) {
+                    throw new IOException("Checksum mismatch for %s. Expected %s but got %s"
+                            .formatted(release.name(), release.sha256(), checksum));
+                }
+                LOG.warn("Checksum mismatch for resumed download of {}. Downloading again", release.name());
+            } finally {
+                FileUtils.deleteQuietly(tmp.toFile());
+            }
         }
-        LOG.info("Extraction successful");
     }
 
     /**
@@ -97,29 +230,60 @@ public class JdkFetcher {
     }
 
     /**
-     * Downloads the JDK for the specified version from the appropriate URL and saves it to the local directory.
+     * Open a download stream. Bytes received are appended to a partial file. If a partial file exists, its bytes
+     * are replayed first and only the remaining bytes are requested with a range request
      *
-     * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The path to the downloaded JDK file.
-     * @throws IOException          If an I/O error occurs.
+     * @param url The URL
+     * @param file The partial file
+     * @return The download
+     * @throws IOException          If the download failed
      * @throws InterruptedException If the operation is interrupted.
      */
     @SuppressFBWarnings(value = "URLCONNECTION_SSRF_FD", justification = "false positive")
-    private Path downloadJdk(int jdkVersion) throws IOException, InterruptedException {
-        String downloadUrl = fetchLatestReleaseUrl(jdkVersion);
-        if (downloadUrl != null) {
-            Path downloadPath = cacheDir.resolve(".jdks").resolve("jdk" + jdkVersion + getExtension(downloadUrl));
-            Path parentPath = downloadPath.getParent();
-            if (parentPath != null) {
-                Files.createDirectories(parentPath);
+    private Download download(String url, Path file) throws IOException, InterruptedException {
+        long existing = Files.exists(file) ? Files.size(file) : 0;
+        HttpRequest.Builder request = HttpRequest.newBuilder().uri(URI.create(url));
+        if (existing > 0) {
+            LOG.info("Resuming download of {} from {} bytes", url, existing);
+            request.header("Range", "bytes=" + existing + "-");
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        InputStream body = response.body();
+        return switch (response.statusCode()) {
+            case 206 -> new Download(
+                    new SequenceInputStream(
+                            Files.newInputStream(file),
+                            new TeeInputStream(body, openPartialFile(file, StandardOpenOption.APPEND), true)),
+                    true);
+                // Range not supported. Download the whole file again
+            case 200 -> new Download(
+                    new TeeInputStream(body, openPartialFile(file, StandardOpenOption.TRUNCATE_EXISTING), true), false);
+                // Partial file already complete
+            case 416 -> {
+                body.close();
+                yield new Download(Files.newInputStream(file), true);
             }
-
-            try (InputStream in = URI.create(downloadUrl).toURL().openStream()) {
-                Files.copy(in, downloadPath, StandardCopyOption.REPLACE_EXISTING);
+            default -> {
+                body.close();
+                throw new IOException(
+                        "Failed to download %s. HTTP Status Code: %d".formatted(url, response.statusCode()));
             }
-            return downloadPath;
+        };
+    }
+
+    private OutputStream openPartialFile(Path file, StandardOpenOption mode) throws IOException {
+        return new BufferedOutputStream(
+                Channels.newOutputStream(
+                        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)),
+                BUFFER_SIZE);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return null;
     }
 
     /**
@@ -133,17 +297,15 @@ public class JdkFetcher {
     }
 
     /**
-     * Fetches the latest release download URL for a specified JDK version and OS.
+     * Fetches the latest release archive for a specified JDK version and OS.
      *
      * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The download URL of the latest release, or null if not found.
+     * @return The latest release archive, or null if not found.
      * @throws IOException          If an I/O error occurs.
      * @throws InterruptedException If the operation is interrupted.
      */
-    private String fetchLatestReleaseUrl(int jdkVersion) throws IOException, InterruptedException {
-        String latestUrl =
-                String.format("%s/temurin%s-binaries/releases", Settings.ADOPTIUM_GITHUB_API_URL, jdkVersion);
-        HttpClient client = HttpClient.newHttpClient();
+    private JdkRelease fetchLatestRelease(int jdkVersion) throws IOException, InterruptedException {
+        String latestUrl = String.format("%s/temurin%s-binaries/releases", apiUrl, jdkVersion);
         HttpRequest request =
                 HttpRequest.newBuilder().uri(URI.create(latestUrl)).build();
 
@@ -153,9 +315,11 @@ public class JdkFetcher {
             for (JsonElement releaseElement : releases) {
                 JsonObject release = releaseElement.getAsJsonObject();
                 JsonArray assets = release.getAsJsonArray("assets");
-                String url = getDownloadUrl(assets, jdkVersion);
-                if (url != null) {
-                    return url;
+                JsonObject asset = getArchiveAsset(assets, jdkVersion);
+                if (asset != null) {
+                    String name = asset.get("name").getAsString();
+                    return new JdkRelease(
+                            name, asset.get("browser_download_url").getAsString(), getChecksum(assets, asset));
                 }
             }
         } else {
@@ -165,13 +329,13 @@ public class JdkFetcher {
     }
 
     /**
-     * Finds the download URL for the JDK based on the JDK version and operating system.
+     * Finds the archive asset for the JDK based on the JDK version and operating system.
      *
      * @param assets     A JSON array of assets from a GitHub release.
      * @param jdkVersion The version of the JDK (e.g., "8").
-     * @return The download URL if a matching asset is found, otherwise null.
+     * @return The asset if a matching asset is found, otherwise null.
      */
-    private String getDownloadUrl(JsonArray assets, int jdkVersion) {
+    private JsonObject getArchiveAsset(JsonArray assets, int jdkVersion) {
         String jdkFileName = buildJDKFileName(jdkVersion);
         for (JsonElement element : assets) {
             JsonObject asset = element.getAsJsonObject();
@@ -179,7 +343,40 @@ public class JdkFetcher {
             if (name.toLowerCase().contains(jdkFileName.toLowerCase())
                     && (name.toLowerCase().endsWith(".zip")
                             || name.toLowerCase().endsWith(".tar.gz"))) {
-                return asset.get("browser_download_url").getAsString();
+                return asset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the SHA-256 checksum of an archive from the asset digest or the checksum file published with the release.
+     *
+     * @param assets  A JSON array of assets from a GitHub release.
+     * @param archive The archive asset.
+     * @return The hex encoded checksum or null if not published.
+     * @throws IOException          If an I/O error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private String getChecksum(JsonArray assets, JsonObject archive) throws IOException, InterruptedException {
+        JsonElement digest = archive.get("digest");
+        if (digest != null && !digest.isJsonNull() && digest.getAsString().startsWith("sha256:")) {
+            return digest.getAsString().substring("sha256:".length());
+        }
+        String checksumName = archive.get("name").getAsString() + ".sha256.txt";
+        for (JsonElement element : assets) {
+            JsonObject asset = element.getAsJsonObject();
+            if (checksumName.equals(asset.get("name").getAsString())) {
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create(asset.get("browser_download_url").getAsString()))
+                        .build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IOException("Failed to fetch checksum %s. HTTP Status Code: %d"
+                            .formatted(checksumName, response.statusCode()));
+                }
+                // Format is "<checksum>  <file name>"
+                return response.body().trim().split("\\s+")[0];
             }
         }
         return null;
@@ -245,98 +442,173 @@ public class JdkFetcher {
     }
 
     /**
-     * Extracts a ZIP file to the specified directory without nested directories.
+     * Extracts a ZIP stream to the specified directory without nested directories.
      *
-     * @param zipFile     The path to the ZIP file.
+     * @param in            The ZIP stream. Not closed.
      * @param extractionDir The directory to extract the files into.
      * @throws IOException If an I/O error occurs.
      */
-    private void extractZip(Path zipFile, Path extractionDir) throws IOException {
-        try (ZipInputStream zipIn = new ZipInputStream(Files.newInputStream(zipFile))) {
+    private void extractZip(InputStream in, Path extractionDir) throws IOException {
+        try (ZipInputStream zipIn = new ZipInputStream(CloseShieldInputStream.wrap(in))) {
             ZipEntry entry;
             while ((entry = zipIn.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    extractFile(entry.getName(), zipIn, extractionDir);
+                Path target = resolveEntry(entry.getName(), extractionDir);
+                if (target != null && !entry.isDirectory()) {
+                    extractFile(zipIn, target);
                 }
                 zipIn.closeEntry();
             }
         }
-        Files.delete(zipFile);
     }
 
     /**
-     * Extracts a TAR.GZ file to the specified directory without nested directories.
+     * Extracts a TAR.GZ stream to the specified directory without nested directories.
+     * Permissions, symbolic links and hard links of the entries are preserved.
+     * Links pointing outside the extraction directory and entries written through a symbolic link are rejected.
      *
-     * @param tarGzFile   The path to the TAR.GZ file.
+     * @param in            The TAR.GZ stream. Not closed.
      * @param extractionDir The directory to extract the files into.
      * @throws IOException If an I/O error occurs.
      */
-    private void extractTarGz(Path tarGzFile, Path extractionDir) throws IOException {
-        try (InputStream fileStream = Files.newInputStream(tarGzFile);
-                InputStream gzipStream = new GZIPInputStream(fileStream);
+    private void extractTarGz(InputStream in, Path extractionDir) throws IOException {
+        boolean posix =
+                extractionDir.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Map<Path, Integer> directories = new LinkedHashMap<>();
+        try (InputStream gzipStream = new GZIPInputStream(CloseShieldInputStream.wrap(in), BUFFER_SIZE);
                 TarArchiveInputStream tarStream = new TarArchiveInputStream(gzipStream)) {
-
             TarArchiveEntry entry;
             while ((entry = tarStream.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    extractFile(entry.getName(), tarStream, extractionDir);
+                Path target = resolveEntry(entry.getName(), extractionDir);
+                if (target == null) {
+                    continue;
+                }
+                checkNoSymbolicLink(entry.getName(), target, extractionDir);
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                    directories.put(target, entry.getMode());
+                    continue;
                 }
+                Files.createDirectories(target.getParent());
+                if (entry.isSymbolicLink()) {
+                    Path link = Path.of(entry.getLinkName());
+                    if (link.isAbsolute()
+                            || !target.getParent().resolve(link).normalize().startsWith(extractionDir)) {
+                        throw new IOException("Symbolic link outside of the extraction directory: %s -> %s"
+                                .formatted(entry.getName(), entry.getLinkName()));
+                    }
+                    Files.createSymbolicLink(target, link);
+                } else if (entry.isLink()) {
+                    Path existing = resolveEntry(entry.getLinkName(), extractionDir);
+                    if (existing == null) {
+                        throw new IOException("Hard link to the top level directory of the archive: %s -> %s"
+                                .formatted(entry.getName(), entry.getLinkName()));
+                    }
+                    checkNoSymbolicLink(entry.getLinkName(), existing, extractionDir);
+                    Files.createLink(target, existing);
+                } else {
+                    extractFile(tarStream, target);
+                    if (posix) {
+                        Files.setPosixFilePermissions(target, toPermissions(entry.getMode()));
+                    }
+                }
+            }
+        }
+        // Directories may not be writable. Set their permissions once all their files are extracted
+        if (posix) {
+            for (Map.Entry<Path, Integer> directory : directories.entrySet()) {
+                Files.setPosixFilePermissions(directory.getKey(), toPermissions(directory.getValue()));
             }
         }
-        Files.delete(tarGzFile);
     }
 
     /**
-     * Extracts a file from an input stream to the specified directory without nested directories.
+     * Resolve an archive entry in the extraction directory without the top level directory of the archive.
      *
      * @param entryName     The name of the entry in the archive.
-     * @param inputStream   The input stream from which the file data will be read.
      * @param extractionDir The directory to extract the file into.
-     * @throws IOException If an I/O error occurs.
+     * @return The extracted path or null for the top level directory
+     * @throws IOException If the entry is outside the extraction directory
      */
-    private void extractFile(String entryName, InputStream inputStream, Path extractionDir) throws IOException {
-        Path entryPath = Paths.get(entryName);
-        Path strippedPath = entryPath.subpath(1, entryPath.getNameCount());
-
-        Path filePath = extractionDir.resolve(strippedPath);
-        Path parentPath = filePath.getParent();
-        if (parentPath != null) {
-            Files.createDirectories(parentPath);
+    private Path resolveEntry(String entryName, Path extractionDir) throws IOException {
+        Path entryPath = Path.of(entryName);
+        if (entryPath.getNameCount() < 2) {
+            return null;
+        }
+        Path target = extractionDir
+                .resolve(entryPath.subpath(1, entryPath.getNameCount()))
+                .normalize();
+        if (!target.startsWith(extractionDir)) {
+            throw new IOException("Archive entry outside of the extraction directory: " + entryName);
         }
-        Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
+        return target;
     }
 
     /**
-     * Sets executable permissions on all binaries located in the /bin folder of the JDK.
+     * Ensure an extracted path and its parents up to the extraction directory are not symbolic links,
+     * so writing it cannot follow a link extracted before.
      *
-     * @param jdkPath The path to the JDK directory.
+     * @param entryName     The name of the entry in the archive.
+     * @param target        The extracted path.
+     * @param extractionDir The directory to extract the file into.
+     * @throws IOException If the path or one of its parents is a symbolic link
      */
-    @SuppressFBWarnings(value = "OVERLY_PERMISSIVE_FILE_PERMISSION", justification = "bin requires to be executable")
-    private void setJavaBinariesPermissions(Path jdkPath) {
-        Path binDir = jdkPath.resolve("bin");
-
-        if (!Files.isDirectory(binDir)) {
-            LOG.error("The bin directory does not exist: {}", binDir);
-            return;
+    private void checkNoSymbolicLink(String entryName, Path target, Path extractionDir) throws IOException {
+        for (Path path = target; !path.equals(extractionDir); path = path.getParent()) {
+            if (Files.isSymbolicLink(path)) {
+                throw new IOException("Archive entry written through a symbolic link: " + entryName);
+            }
         }
+    }
 
-        if (!binDir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
-            LOG.error("POSIX file attribute views are not supported on this file system.");
-            return;
+    /**
+     * Extracts the current entry of an archive stream to a file.
+     *
+     * @param in     The archive stream positioned on the entry. Not closed.
+     * @param target The file to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void extractFile(InputStream in, Path target) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(in);
+        try (FileChannel channel = FileChannel.open(
+                target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, BUFFER_SIZE)) > 0) {
+                position += transferred;
+            }
         }
+    }
 
-        Set<PosixFilePermission> executablePermissions = PosixFilePermissions.fromString("rwxr-xr-x");
-
-        try (Stream<Path> files = Files.list(binDir)) {
-            files.filter(Files::isRegularFile).forEach(file -> {
-                try {
-                    Files.setPosixFilePermissions(file, executablePermissions);
-                } catch (IOException e) {
-                    LOG.error("Failed to set executable permissions for {}: {}", file, e.getMessage());
-                }
-            });
-        } catch (IOException e) {
-            LOG.error("Failed to list files in directory {}: {}", binDir, e.getMessage());
+    /**
+     * Convert the permission bits of a file mode.
+     *
+     * @param mode The file mode.
+     * @return The POSIX permissions.
+     */
+    private static Set<PosixFilePermission> toPermissions(int mode) {
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        // Declared from OWNER_READ to OTHERS_EXECUTE, same order as the mode bits
+        PosixFilePermission[] values = PosixFilePermission.values();
+        for (int i = 0; i < values.length; i++) {
+            if ((mode & (0400 >> i)) != 0) {
+                permissions.add(values[i]);
+            }
         }
+        return permissions;
     }
+
+    /**
+     * A download in progress
+     * @param stream The archive stream
+     * @param resumed True if a partial download was resumed
+     */
+    private record Download(InputStream stream, boolean resumed) {}
+
+    /**
+     * A JDK archive of a release
+     * @param name The archive name
+     * @param url The download URL
+     * @param sha256 The hex encoded SHA-256 checksum or null if not published
+     */
+    private record JdkRelease(String name, String url, String sha256) {}
 }
@@ -5,14 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.io.Reader;
 import java.net.URL;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.HashSet;
@@ -28,12 +27,20 @@ public class JsonUtils {
 
     private static final Gson gson;
 
+    /**
+     * Gson reading documents from other readers than JSON text
+     */
+    private static final Gson streamingGson;
+
     private JsonUtils() {
         // Hide constructor
     }
 
     static {
         gson = new Gson();
+        streamingGson = gson.newBuilder()
+                .registerTypeAdapterFactory(new StreamingMapTypeAdapterFactory())
+                .create();
     }
 
     /**
@@ -45,6 +52,24 @@ public class JsonUtils {
         return gson.toJson(object);
     }
 
+    /**
+     * Write an object to a JSON writer
+     * @param object The object to write
+     * @param writer The writer
+     */
+    public static void toJson(Object object, JsonWriter writer) {
+        gson.toJson(object, object.getClass(), writer);
+    }
+
+    /**
+     * Convert an object to a JSON tree
+     * @param object The object to convert
+     * @return The JSON tree
+     */
+    public static JsonElement toJsonTree(Object object) {
+        return gson.toJsonTree(object);
+    }
+
     /**
      * Return of the two JSON strings are semantically equals
      * @param jsonString1 The first JSON string
@@ -153,6 +178,40 @@ public class JsonUtils {
         return gson.fromJson(json, clazz);
     }
 
+    /**
+     * Convert a JSON tree to an object
+     * @param json The JSON tree
+     * @param clazz The class of the object
+     * @param <T> The type of the object
+     * @return The object
+     */
+    public static <T> T fromJson(JsonElement json, Class<T> clazz) {
+        return gson.fromJson(json, clazz);
+    }
+
+    /**
+     * Read a JSON document from a reader and convert it to an object
+     * @param reader The reader
+     * @param clazz The class of the object
+     * @param <T> The type of the object
+     * @return The object
+     */
+    public static <T> T fromJson(Reader reader, Class<T> clazz) {
+        return gson.fromJson(reader, clazz);
+    }
+
+    /**
+     * Read a JSON document from a JSON reader and convert it to an object. The reader can be backed by another
+     * format than JSON text
+     * @param reader The JSON reader
+     * @param clazz The class of the object
+     * @param <T> The type of the object
+     * @return The object
+     */
+    public static <T> T fromJson(JsonReader reader, Class<T> clazz) {
+        return streamingGson.fromJson(reader, clazz);
+    }
+
     /**
      * Convert a JSON string to an object
      * @param path The path to the JSON file
@@ -176,23 +235,7 @@ public class JsonUtils {
      * @param <T> The type of the object
      */
     public static <T> T fromUrl(URL url, Class<T> clazz) {
-        try {
-            HttpClient client = HttpClient.newBuilder()
-                    .followRedirects(HttpClient.Redirect.NORMAL)
-                    .build();
-            HttpRequest request =
-                    HttpRequest.newBuilder().GET().uri(url.toURI()).build();
-            LOG.debug("Fetching data from: {}", url);
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() != 200) {
-                throw new ModernizerException(
-                        "Failed to get JSON data. Received response code: " + response.statusCode());
-            }
-            LOG.debug("Fetched data from: {}", url);
-            return JsonUtils.fromJson(response.body(), clazz);
-        } catch (IOException | JsonSyntaxException | URISyntaxException | InterruptedException e) {
-            throw new ModernizerException("Unable to fetch data from " + url, e);
-        }
+        return HttpUtils.get(url, reader -> fromJson(reader, clazz));
     }
 
     /**
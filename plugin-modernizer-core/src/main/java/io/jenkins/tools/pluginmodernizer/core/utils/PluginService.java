@@ -4,14 +4,24 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import io.jenkins.tools.pluginmodernizer.core.model.HealthScoreData;
+import io.jenkins.tools.pluginmodernizer.core.model.HttpValidators;
 import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginInstallationStatsData;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginVersionData;
 import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterData;
+import io.jenkins.tools.pluginmodernizer.core.model.UpdateCenterIndex;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +38,17 @@ public class PluginService {
     @Inject
     private CacheManager cacheManager;
 
+    /**
+     * Shared in-memory index of the update center data
+     */
+    private volatile UpdateCenterIndex updateCenterIndex;
+
+    /**
+     * Guard the download of each dataset by cache key, so different datasets are fetched concurrently.
+     * Locks rather than monitors so virtual threads waiting for a download are not pinned to their carrier
+     */
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
     /**
      * Extract the repository name for a plugin
      * @param plugin Plugin
@@ -62,23 +83,29 @@ public class PluginService {
             }
             return githubRepo.replaceAll(Settings.ORGANIZATION + "/", "");
         }
-        UpdateCenterData updateCenterData = getUpdateCenterData();
-        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
-                updateCenterData.getPlugins().get(plugin.getName());
-        if (updateCenterPlugin == null) {
+        UpdateCenterIndex index = getUpdateCenterIndex();
+        if (!index.contains(plugin.getName())) {
             plugin.addError("Plugin not found in update center");
             plugin.raiseLastError();
             return null;
         }
-        String scmUrl = updateCenterPlugin.scm();
-        int lastSlashIndex = scmUrl.lastIndexOf('/');
-        if (lastSlashIndex != -1 && lastSlashIndex < scmUrl.length() - 1) {
-            return scmUrl.substring(lastSlashIndex + 1).replaceAll(".git$", "");
+        String repository = index.getRepository(plugin.getName());
+        if (repository != null) {
+            return repository;
         } else {
             plugin.addError("Invalid SCM URL format");
             plugin.raiseLastError();
         }
-        throw new ModernizerException("Invalid SCM URL format: " + scmUrl);
+        throw new ModernizerException("Invalid SCM URL format: " + index.getScm(plugin.getName()));
+    }
+
+    /**
+     * Get the repository name of a plugin from the update center without recording any error on the plugin
+     * @param plugin Plugin
+     * @return The repository name or null if the plugin is unknown or its SCM URL is invalid
+     */
+    public String findRepoName(Plugin plugin) {
+        return getUpdateCenterIndex().getRepository(plugin.getName());
     }
 
     /**
@@ -87,17 +114,8 @@ public class PluginService {
      * @return True if deprecated
      */
     public boolean isDeprecated(Plugin plugin) {
-        // Some old plugin are under a deprecations list
-        UpdateCenterData updateCenterData = getUpdateCenterData();
-        if (updateCenterData.getDeprecations().containsKey(plugin.getName())) {
-            return true;
-        }
-        // More recent deprecated plugins are marked with a label
-        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
-                updateCenterData.getPlugins().get(plugin.getName());
-        return updateCenterPlugin != null
-                && updateCenterPlugin.labels() != null
-                && updateCenterPlugin.labels().contains("deprecated");
+        // Both old plugins under the deprecations list and recent plugins marked with a label
+        return getUpdateCenterIndex().isDeprecated(plugin.getName());
     }
 
     /**
@@ -106,12 +124,7 @@ public class PluginService {
      * @return True if for adoption
      */
     public boolean isForAdoption(Plugin plugin) {
-        UpdateCenterData updateCenterData = getUpdateCenterData();
-        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
-                updateCenterData.getPlugins().get(plugin.getName());
-        return updateCenterPlugin != null
-                && updateCenterPlugin.labels() != null
-                && updateCenterPlugin.labels().contains("adopt-this-plugin");
+        return getUpdateCenterIndex().hasLabel(plugin.getName(), UpdateCenterIndex.ADOPT_THIS_PLUGIN_LABEL);
     }
 
     /**
@@ -120,14 +133,8 @@ public class PluginService {
      * @return True if API plugin
      */
     public boolean isApiPlugin(Plugin plugin) {
-        UpdateCenterData updateCenterData = getUpdateCenterData();
-        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
-                updateCenterData.getPlugins().get(plugin.getName());
-
         // Let's consider only recent convention that API plugins have a labels and end with -api
-        return updateCenterPlugin != null
-                && updateCenterPlugin.labels() != null
-                && updateCenterPlugin.labels().contains("api-plugin")
+        return getUpdateCenterIndex().hasLabel(plugin.getName(), UpdateCenterIndex.API_PLUGIN_LABEL)
                 && plugin.getName().endsWith("-api");
     }
 
@@ -140,15 +147,44 @@ public class PluginService {
         if (plugin.isLocal()) {
             return null;
         }
-        UpdateCenterData updateCenterData = getUpdateCenterData();
-        UpdateCenterData.UpdateCenterPlugin updateCenterPlugin =
-                updateCenterData.getPlugins().get(plugin.getName());
-        if (updateCenterPlugin == null) {
+        UpdateCenterIndex index = getUpdateCenterIndex();
+        if (!index.contains(plugin.getName())) {
             plugin.addError("Plugin not found in update center");
             plugin.raiseLastError();
             return null;
         }
-        return updateCenterPlugin.version();
+        return index.getVersion(plugin.getName());
+    }
+
+    /**
+     * Retrieve the in-memory index of the update center data.
+     * The index is shared by all lookups and only rebuilt when the cache entry is refreshed or expired
+     * @return Update center index
+     */
+    public UpdateCenterIndex getUpdateCenterIndex() {
+        UpdateCenterIndex index = updateCenterIndex;
+        if (index != null
+                && index.isUpToDate(
+                        cacheManager.getLastModifiedTime(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY))) {
+            return index;
+        }
+        ReentrantLock lock = getLock(CacheManager.UPDATE_CENTER_CACHE_KEY);
+        lock.lock();
+        try {
+            FileTime lastModified =
+                    cacheManager.getLastModifiedTime(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY);
+            if (updateCenterIndex != null && updateCenterIndex.isUpToDate(lastModified)) {
+                return updateCenterIndex;
+            }
+            UpdateCenterData updateCenterData = getUpdateCenterData();
+            // Entry might have been downloaded and stored again
+            lastModified = cacheManager.getLastModifiedTime(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY);
+            updateCenterIndex = UpdateCenterIndex.build(updateCenterData, lastModified);
+            LOG.debug("Update center index built with last modified time {}", lastModified);
+            return updateCenterIndex;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -156,16 +192,17 @@ public class PluginService {
      * @return Update center data
      */
     public UpdateCenterData getUpdateCenterData() {
-        UpdateCenterData updateCenterData =
-                cacheManager.get(cacheManager.root(), CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
-        // Download and update cache
-        if (updateCenterData == null) {
-            updateCenterData = downloadUpdateCenterData();
-            updateCenterData.setKey(CacheManager.UPDATE_CENTER_CACHE_KEY);
-            updateCenterData.setPath(cacheManager.root());
-            cacheManager.put(updateCenterData);
+        ReentrantLock lock = getLock(CacheManager.UPDATE_CENTER_CACHE_KEY);
+        lock.lock();
+        try {
+            return getOrDownload(
+                    CacheManager.UPDATE_CENTER_CACHE_KEY,
+                    UpdateCenterData.class,
+                    config.getJenkinsUpdateCenter(),
+                    reader -> JsonUtils.fromJson(reader, UpdateCenterData.class));
+        } finally {
+            lock.unlock();
         }
-        return updateCenterData;
     }
 
     /**
@@ -173,16 +210,17 @@ public class PluginService {
      * @return Health score data
      */
     public HealthScoreData getHealthScoreData() {
-        HealthScoreData healthScoreData =
-                cacheManager.get(cacheManager.root(), CacheManager.HEALTH_SCORE_KEY, HealthScoreData.class);
-        // Download and update cache
-        if (healthScoreData == null) {
-            healthScoreData = downloadHealthScoreData();
-            healthScoreData.setKey(CacheManager.HEALTH_SCORE_KEY);
-            healthScoreData.setPath(cacheManager.root());
-            cacheManager.put(healthScoreData);
+        ReentrantLock lock = getLock(CacheManager.HEALTH_SCORE_KEY);
+        lock.lock();
+        try {
+            return getOrDownload(
+                    CacheManager.HEALTH_SCORE_KEY,
+                    HealthScoreData.class,
+                    config.getPluginHealthScore(),
+                    reader -> JsonUtils.fromJson(reader, HealthScoreData.class));
+        } finally {
+            lock.unlock();
         }
-        return healthScoreData;
     }
 
     /**
@@ -205,9 +243,18 @@ public class PluginService {
      * Retrieve installation stats data from the given URL
      */
     public PluginInstallationStatsData downloadInstallationStatsData() {
-        String data = CSVUtils.fromUrl(config.getPluginStatsInstallations());
+        return HttpUtils.get(config.getPluginStatsInstallations(), this::parseInstallationStatsData);
+    }
+
+    /**
+     * Parse installation stats data
+     * @param reader The CSV data
+     * @return Installation stats data
+     * @throws IOException If the data cannot be read
+     */
+    private PluginInstallationStatsData parseInstallationStatsData(Reader reader) throws IOException {
         PluginInstallationStatsData pluginInstallationStatsData = new PluginInstallationStatsData(cacheManager);
-        pluginInstallationStatsData.setPlugins(CSVUtils.parseStats(data));
+        pluginInstallationStatsData.setPlugins(CSVUtils.parseStats(reader));
         return pluginInstallationStatsData;
     }
 
@@ -274,16 +321,17 @@ public class PluginService {
      * @return Plugin version data
      */
     public PluginVersionData getPluginVersionData() {
-        PluginVersionData pluginVersionData =
-                cacheManager.get(cacheManager.root(), CacheManager.PLUGIN_VERSIONS_CACHE_KEY, PluginVersionData.class);
-        // Download and update cache
-        if (pluginVersionData == null) {
-            pluginVersionData = downloadPluginVersionData(config);
-            pluginVersionData.setKey(CacheManager.PLUGIN_VERSIONS_CACHE_KEY);
-            pluginVersionData.setPath(cacheManager.root());
-            cacheManager.put(pluginVersionData);
+        ReentrantLock lock = getLock(CacheManager.PLUGIN_VERSIONS_CACHE_KEY);
+        lock.lock();
+        try {
+            return getOrDownload(
+                    CacheManager.PLUGIN_VERSIONS_CACHE_KEY,
+                    PluginVersionData.class,
+                    config.getJenkinsPluginVersions(),
+                    reader -> JsonUtils.fromJson(reader, PluginVersionData.class));
+        } finally {
+            lock.unlock();
         }
-        return pluginVersionData;
     }
 
     /**
@@ -291,16 +339,17 @@ public class PluginService {
      * @return Plugin installation stats data
      */
     public PluginInstallationStatsData getPluginInstallationStatsData() {
-        PluginInstallationStatsData pluginInstallationStatsData = cacheManager.get(
-                cacheManager.root(), CacheManager.INSTALLATION_STATS_KEY, PluginInstallationStatsData.class);
-        // Download and update cache
-        if (pluginInstallationStatsData == null) {
-            pluginInstallationStatsData = downloadInstallationStatsData();
-            pluginInstallationStatsData.setKey(CacheManager.INSTALLATION_STATS_KEY);
-            pluginInstallationStatsData.setPath(cacheManager.root());
-            cacheManager.put(pluginInstallationStatsData);
+        ReentrantLock lock = getLock(CacheManager.INSTALLATION_STATS_KEY);
+        lock.lock();
+        try {
+            return getOrDownload(
+                    CacheManager.INSTALLATION_STATS_KEY,
+                    PluginInstallationStatsData.class,
+                    config.getPluginStatsInstallations(),
+                    this::parseInstallationStatsData);
+        } finally {
+            lock.unlock();
         }
-        return pluginInstallationStatsData;
     }
 
     /**
@@ -311,4 +360,51 @@ public class PluginService {
     public PluginVersionData downloadPluginVersionData(Config config) {
         return JsonUtils.fromUrl(config.getJenkinsPluginVersions(), PluginVersionData.class);
     }
+
+    /**
+     * Get the lock guarding the download of a dataset
+     * @param cacheKey The cache key of the dataset
+     * @return The lock
+     */
+    private ReentrantLock getLock(String cacheKey) {
+        return locks.computeIfAbsent(cacheKey, k -> new ReentrantLock());
+    }
+
+    /**
+     * Retrieve data from cache or download it. An expired entry is revalidated with the validators of its
+     * download and kept if not modified
+     * @param cacheKey The cache key
+     * @param clazz The class of the data
+     * @param url The URL to download from
+     * @param parser The parser of the downloaded data
+     * @return The data
+     */
+    private <T extends CacheEntry<T>> T getOrDownload(
+            String cacheKey, Class<T> clazz, URL url, HttpUtils.BodyParser<T> parser) {
+        T data = cacheManager.get(cacheManager.root(), cacheKey, clazz);
+        if (data != null) {
+            return data;
+        }
+        HttpValidators validators =
+                cacheManager.get(cacheManager.root(), HttpValidators.getKey(cacheKey), HttpValidators.class, false);
+        T expired = validators != null && validators.matches(url)
+                ? cacheManager.get(cacheManager.root(), cacheKey, clazz, false)
+                : null;
+        if (expired == null) {
+            validators = new HttpValidators(cacheManager, cacheManager.root(), cacheKey);
+        }
+        // Download and update cache
+        data = HttpUtils.get(url, validators, parser);
+        if (data == null) {
+            LOG.debug("Cache entry {} not modified at {}", cacheKey, url);
+            data = expired;
+        }
+        data.setKey(cacheKey);
+        data.setPath(cacheManager.root());
+        cacheManager.put(data);
+        if (validators.matches(url)) {
+            cacheManager.put(validators);
+        }
+        return data;
+    }
 }
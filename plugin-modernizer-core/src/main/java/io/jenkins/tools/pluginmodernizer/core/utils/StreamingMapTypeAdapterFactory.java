@@ -0,0 +1,69 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Read maps from JSON objects with {@link JsonReader#nextName()} only. The map adapter of Gson promotes names to
+ * values with internal access that only works for the JSON text and tree readers, not for other readers.
+ * Maps are still created and written by the adapter of Gson.
+ */
+final class StreamingMapTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!Map.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        Type keyType = Object.class;
+        Type valueType = Object.class;
+        if (type.getType() instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments().length == 2) {
+            keyType = parameterized.getActualTypeArguments()[0];
+            valueType = parameterized.getActualTypeArguments()[1];
+        }
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        boolean stringKeys = keyType == String.class || keyType == Object.class;
+        TypeAdapter<?> keyAdapter = gson.getAdapter(TypeToken.get(keyType));
+        TypeAdapter<?> valueAdapter = gson.getAdapter(TypeToken.get(valueType));
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T read(JsonReader in) throws IOException {
+                if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                    return delegate.read(in);
+                }
+                // Let Gson create the map of the declared type
+                T result = delegate.fromJsonTree(new JsonObject());
+                Map<Object, Object> map = (Map<Object, Object>) result;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    Object key = stringKeys ? name : keyAdapter.fromJsonTree(new JsonPrimitive(name));
+                    if (map.put(key, valueAdapter.read(in)) != null) {
+                        throw new JsonSyntaxException("duplicate key: " + key);
+                    }
+                }
+                in.endObject();
+                return result;
+            }
+        };
+    }
+}
@@ -2,13 +2,20 @@ package io.jenkins.tools.pluginmodernizer.core.config;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.jenkins.tools.pluginmodernizer.core.model.AccelerationProfile;
+import io.jenkins.tools.pluginmodernizer.core.model.BuildLimits;
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
+import io.jenkins.tools.pluginmodernizer.core.model.GoalType;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
@@ -41,6 +48,26 @@ public class ConfigTest {
                 .withMavenHome(mavenHome)
                 .withDryRun(dryRun)
                 .withRemoveForks(true)
+                .withParallelism(4)
+                .withMavenDaemon(true)
+                .withMvndHome(Paths.get("path/to/mvnd"))
+                .withSinglePassRewrite(true)
+                .withGitMirror(true)
+                .withGitMirrorPath(Paths.get("path/to/mirrors"))
+                .withShallowClone(true)
+                .withPrefetchJdks(true)
+                .withOffline(true)
+                .withImpactAnalysis(false)
+                .withAccelerationProfile(AccelerationProfile.FAST)
+                .withForce(true)
+                .withResumeRunId("20261018-120000-0a1b2c3d")
+                .withCacheCodec(CacheCodec.SMILE)
+                .withStageParallelism(Map.of(ProcessingStage.FETCH, 8, ProcessingStage.VERIFY, 2))
+                .withVirtualThreads(true)
+                .withGithubMaxRequests(8)
+                .withBuildMemory(Map.of(GoalType.VERIFY, 6144))
+                .withBuildCores(Map.of(GoalType.VERIFY, 4, GoalType.METADATA, 0))
+                .withLocalRepositoryMode(LocalRepositoryMode.OVERLAY)
                 .build();
 
         assertEquals(version, config.getVersion());
@@ -53,6 +80,29 @@ public class ConfigTest {
         assertTrue(config.isRemoveForks());
         assertTrue(config.isRemoveForks());
         assertTrue(config.isDryRun());
+        assertEquals(4, config.getParallelism());
+        assertTrue(config.isMavenDaemon());
+        assertEquals(Paths.get("path/to/mvnd").toAbsolutePath(), config.getMvndHome());
+        assertTrue(config.isSinglePassRewrite());
+        assertTrue(config.isGitMirror());
+        assertEquals(Paths.get("path/to/mirrors").toAbsolutePath(), config.getGitMirrorPath());
+        assertTrue(config.isShallowClone());
+        assertTrue(config.isPrefetchJdks());
+        assertTrue(config.isOffline());
+        assertFalse(config.isImpactAnalysis());
+        assertEquals(AccelerationProfile.FAST, config.getAccelerationProfile());
+        assertTrue(config.isForce());
+        assertEquals("20261018-120000-0a1b2c3d", config.getResumeRunId());
+        assertEquals(CacheCodec.SMILE, config.getCacheCodec());
+        assertEquals(8, config.getStageParallelism(ProcessingStage.FETCH));
+        assertEquals(2, config.getStageParallelism(ProcessingStage.VERIFY));
+        assertEquals(4, config.getStageParallelism(ProcessingStage.COMMIT));
+        assertEquals(4, config.getStageParallelism(ProcessingStage.PUBLISH));
+        assertTrue(config.isVirtualThreads());
+        assertEquals(8, config.getGithubMaxRequests());
+        assertEquals(new BuildLimits(6144, 4), config.getBuildLimits(GoalType.VERIFY));
+        assertEquals(new BuildLimits(3072, 1), config.getBuildLimits(GoalType.METADATA));
+        assertEquals(LocalRepositoryMode.OVERLAY, config.getLocalRepositoryMode());
         assertEquals("https://api.github.com", config.getGithubApiUrl().toString());
     }
 
@@ -69,6 +119,26 @@ public class ConfigTest {
         assertFalse(config.isRemoveForks());
         assertFalse(config.isRemoveForks());
         assertFalse(config.isDryRun());
+        assertEquals(1, config.getParallelism());
+        assertEquals(1, config.getStageParallelism(ProcessingStage.METADATA));
+        assertEquals(1, config.getStageParallelism(ProcessingStage.FETCH));
+        assertFalse(config.isVirtualThreads());
+        assertEquals(Settings.GITHUB_MAX_CONCURRENT_REQUESTS, config.getGithubMaxRequests());
+        assertEquals(new BuildLimits(2048, 1), config.getBuildLimits(GoalType.QUICK_BUILD));
+        assertEquals(new BuildLimits(4096, 2), config.getBuildLimits(GoalType.VERIFY));
+        assertEquals(LocalRepositoryMode.LOCKED, config.getLocalRepositoryMode());
+        assertFalse(config.isMavenDaemon());
+        assertFalse(config.isSinglePassRewrite());
+        assertFalse(config.isGitMirror());
+        assertEquals(Settings.DEFAULT_GIT_MIRROR_PATH, config.getGitMirrorPath());
+        assertFalse(config.isShallowClone());
+        assertFalse(config.isPrefetchJdks());
+        assertFalse(config.isOffline());
+        assertTrue(config.isImpactAnalysis());
+        assertEquals(AccelerationProfile.SAFE, config.getAccelerationProfile());
+        assertFalse(config.isForce());
+        assertNull(config.getResumeRunId());
+        assertEquals(CacheCodec.JSON, config.getCacheCodec());
     }
 
     @Test
@@ -106,6 +176,17 @@ public class ConfigTest {
         assertFalse(config.isDryRun());
     }
 
+    @Test
+    public void testConfigBuilderIgnoreInvalidParallelism() {
+        Config config = Config.builder()
+                .withParallelism(0)
+                .withStageParallelism(Map.of(ProcessingStage.FETCH, 0))
+                .build();
+
+        assertEquals(1, config.getParallelism());
+        assertEquals(1, config.getStageParallelism(ProcessingStage.FETCH));
+    }
+
     @Test
     public void testConfigBuilderDryRun() {
         Config config = Config.builder().withDryRun(true).build();
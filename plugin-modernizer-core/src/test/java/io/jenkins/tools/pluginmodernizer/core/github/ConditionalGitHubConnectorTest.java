@@ -0,0 +1,132 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class ConditionalGitHubConnectorTest {
+
+    @Test
+    public void shouldReplayNotModifiedResponse() throws Exception {
+        List<GitHubConnectorRequest> sent = new ArrayList<>();
+        ConditionalGitHubConnector connector = new ConditionalGitHubConnector(request -> {
+            sent.add(request);
+            if ("\"v1\"".equals(request.header("If-None-Match"))) {
+                return new TestResponse(request, 304, Map.of("X-RateLimit-Remaining", List.of("4999")), "");
+            }
+            return new TestResponse(
+                    request,
+                    200,
+                    Map.of("ETag", List.of("\"v1\""), "X-RateLimit-Remaining", List.of("5000")),
+                    "{\"archived\":false}");
+        });
+
+        GitHubConnectorResponse first = connector.send(new TestRequest("GET"));
+        GitHubConnectorResponse second = connector.send(new TestRequest("GET"));
+
+        assertEquals(2, sent.size());
+        assertNull(sent.get(0).header("If-None-Match"));
+        assertEquals("\"v1\"", sent.get(1).header("If-None-Match"));
+        assertEquals(200, first.statusCode());
+        assertEquals(200, second.statusCode());
+        assertEquals("{\"archived\":false}", new String(second.bodyStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals("4999", second.header("X-RateLimit-Remaining"));
+        assertEquals("\"v1\"", second.header("ETag"));
+    }
+
+    @Test
+    public void shouldNotRevalidateOtherMethods() throws Exception {
+        List<GitHubConnectorRequest> sent = new ArrayList<>();
+        ConditionalGitHubConnector connector = new ConditionalGitHubConnector(request -> {
+            sent.add(request);
+            return new TestResponse(request, 200, Map.of("ETag", List.of("\"v1\"")), "{}");
+        });
+
+        connector.send(new TestRequest("POST"));
+        connector.send(new TestRequest("POST"));
+
+        assertEquals(2, sent.size());
+        assertNull(sent.get(1).header("If-None-Match"));
+    }
+
+    @Test
+    public void shouldNotRevalidateWithoutValidator() throws Exception {
+        List<GitHubConnectorRequest> sent = new ArrayList<>();
+        ConditionalGitHubConnector connector = new ConditionalGitHubConnector(request -> {
+            sent.add(request);
+            return new TestResponse(request, 200, Map.of(), "{}");
+        });
+
+        connector.send(new TestRequest("GET"));
+        connector.send(new TestRequest("GET"));
+
+        assertEquals(2, sent.size());
+        assertNull(sent.get(1).header("If-None-Match"));
+        assertNull(sent.get(1).header("If-Modified-Since"));
+    }
+
+    private record TestRequest(String method) implements GitHubConnectorRequest {
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return Map.of("Accept", List.of("application/vnd.github+json"));
+        }
+
+        @Override
+        public String header(String name) {
+            return name.equals("Accept") ? "application/vnd.github+json" : null;
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public URL url() {
+            try {
+                return new URL("https://api.github.com/repos/jenkinsci/fake-repo");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+
+    private static class TestResponse extends GitHubConnectorResponse.ByteArrayResponse {
+
+        private final String body;
+
+        private TestResponse(
+                GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, String body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        protected InputStream rawBodyStream() {
+            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
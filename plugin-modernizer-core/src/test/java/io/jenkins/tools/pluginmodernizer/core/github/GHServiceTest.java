@@ -1,9 +1,11 @@
 package io.jenkins.tools.pluginmodernizer.core.github;
 
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -17,6 +19,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.google.inject.Guice;
 import io.jenkins.tools.pluginmodernizer.core.GuiceModule;
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
@@ -24,12 +28,16 @@ import io.jenkins.tools.pluginmodernizer.core.config.Settings;
 import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
 import io.jenkins.tools.pluginmodernizer.core.model.PluginProcessingException;
 import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
+import io.jenkins.tools.pluginmodernizer.core.utils.TemplateUtils;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
@@ -41,7 +49,9 @@ import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.platform.commons.util.ReflectionUtils;
-import org.kohsuke.github.GHCommitPointer;
+import org.kohsuke.github.GHBranch;
+import org.kohsuke.github.GHIssue;
+import org.kohsuke.github.GHIssueSearchBuilder;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHMyself;
 import org.kohsuke.github.GHOrganization;
@@ -51,6 +61,8 @@ import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GHRepositoryForkBuilder;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.PagedIterable;
+import org.kohsuke.github.PagedIterator;
+import org.kohsuke.github.PagedSearchIterable;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -75,6 +87,9 @@ public class GHServiceTest {
     @TempDir
     private Path sshDir;
 
+    @TempDir
+    private Path remoteDir;
+
     /**
      * Tested instance
      */
@@ -112,6 +127,22 @@ public class GHServiceTest {
         assertSame(mock, repository);
     }
 
+    @Test
+    public void shouldCacheRepositoryDuringRun() throws Exception {
+
+        // Mock
+        GHRepository mock = Mockito.mock(GHRepository.class);
+        doReturn("fake-repo").when(plugin).getRepositoryName();
+        doReturn(mock).when(github).getRepository(eq("jenkinsci/fake-repo"));
+
+        // Test
+        assertSame(mock, service.getRepository(plugin));
+        assertSame(mock, service.getRepository(plugin));
+
+        // Verify
+        verify(github, times(1)).getRepository(eq("jenkinsci/fake-repo"));
+    }
+
     @Test
     public void shouldFailToGetRepository() throws Exception {
 
@@ -155,6 +186,44 @@ public class GHServiceTest {
         });
     }
 
+    @Test
+    public void shouldUsePreflightStateWithoutRestCalls() throws Exception {
+
+        WireMockServer server = new WireMockServer(options().dynamicPort());
+        server.start();
+        try {
+            server.stubFor(
+                    WireMock.post("/graphql")
+                            .willReturn(
+                                    WireMock.okJson(
+                                            """
+                            {
+                              "data": {
+                                "r0": {
+                                  "isArchived": true,
+                                  "defaultBranchRef": { "name": "main" },
+                                  "pullRequests": { "pageInfo": { "hasNextPage": false }, "nodes": [] }
+                                },
+                                "f0": { "isFork": true }
+                              }
+                            }
+                            """)));
+            doReturn(new URL(server.baseUrl())).when(config).getGithubApiUrl();
+            doReturn("fake-owner").when(config).getGithubOwner();
+            doReturn("fake-repo").when(plugin).getRepositoryName();
+
+            // Test
+            service.preflight(List.of("fake-repo"));
+
+            // Verify
+            assertTrue(service.isArchived(plugin));
+            assertTrue(service.isForked(plugin));
+            verifyNoInteractions(github);
+        } finally {
+            server.stop();
+        }
+    }
+
     @Test
     public void isArchivedTest() throws Exception {
         // Mock
@@ -314,7 +383,7 @@ public class GHServiceTest {
 
         // Verify
         verify(repository, times(0)).createFork();
-        verify(myself, times(2)).getRepository(eq("fake-repo"));
+        verify(myself, times(1)).getRepository(eq("fake-repo"));
     }
 
     @Test
@@ -398,7 +467,7 @@ public class GHServiceTest {
 
         // Verify
         verify(repository, times(0)).createFork();
-        verify(org, times(2)).getRepository(eq("fake-repo"));
+        verify(org, times(1)).getRepository(eq("fake-repo"));
     }
 
     @Test
@@ -460,6 +529,29 @@ public class GHServiceTest {
     @Test
     public void shouldNotDeleteForkWithOpenPullRequestSource() throws Exception {
 
+        // Mock
+        doReturn("fake-owner").when(config).getGithubOwner();
+        doReturn(null).when(config).getGithubAppId();
+        GHRepository fork = Mockito.mock(GHRepository.class);
+        GHMyself myself = Mockito.mock(GHMyself.class);
+
+        doReturn("fake-repo").when(plugin).getRepositoryName();
+        doReturn(myself).when(github).getMyself();
+        doReturn("fake-owner").when(myself).getLogin();
+        doReturn(fork).when(myself).getRepository(eq("fake-repo"));
+
+        // Own open PR found by the index
+        mockOwnPullRequests("https://github.com/jenkinsci/fake-repo/pull/1");
+
+        // Test
+        service.deleteFork(plugin);
+        verify(fork, never()).delete();
+        verify(fork, never()).getBranches();
+    }
+
+    @Test
+    public void shouldNotDeleteForkWithOpenPullRequestFromBranch() throws Exception {
+
         // Mock
         doReturn("fake-owner").when(config).getGithubOwner();
         doReturn(null).when(config).getGithubAppId();
@@ -467,28 +559,23 @@ public class GHServiceTest {
         GHRepository fork = Mockito.mock(GHRepository.class);
         GHMyself myself = Mockito.mock(GHMyself.class);
         GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
-        doReturn("fake-owner/fake-repo").when(fork).getFullName();
         doReturn("fake-repo").when(plugin).getRepositoryName();
         doReturn(myself).when(github).getMyself();
+        doReturn("fake-owner").when(myself).getLogin();
         doReturn(fork).when(myself).getRepository(eq("fake-repo"));
         doReturn(repository).when(plugin).getRemoteRepository(eq(service));
         doReturn(fork).when(plugin).getRemoteForkRepository(eq(service));
 
-        // Return at least one PR open
-        doReturn(head).when(pr).getHead();
-        doReturn(fork).when(head).getRepository();
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of(pr)).when(prQueryList).toList();
+        // PR opened by someone else from a branch of the fork
+        mockOwnPullRequests();
+        doReturn(Map.of("fix", Mockito.mock(GHBranch.class))).when(fork).getBranches();
+        GHPullRequestQueryBuilder prQuery = mockOpenPullRequests(repository, pr);
 
         // Test
         service.deleteFork(plugin);
         verify(fork, never()).delete();
+        verify(prQuery).head(eq("fake-owner:fix"));
     }
 
     @Test
@@ -500,29 +587,19 @@ public class GHServiceTest {
         GHRepository repository = Mockito.mock(GHRepository.class);
         GHRepository fork = Mockito.mock(GHRepository.class);
         GHMyself myself = Mockito.mock(GHMyself.class);
-        GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
         doReturn(false).when(fork).isFork();
-        doReturn(fork).when(github).getRepository(eq("fake-owner/fake-repo"));
-        doReturn("fake-owner/fake-repo").when(fork).getFullName();
         doReturn("fake-repo").when(plugin).getRepositoryName();
         doReturn(myself).when(github).getMyself();
+        doReturn("fake-owner").when(myself).getLogin();
         doReturn(fork).when(myself).getRepository(eq("fake-repo"));
         doReturn(repository).when(plugin).getRemoteRepository(eq(service));
         doReturn(fork).when(plugin).getRemoteForkRepository(eq(service));
 
-        // One PR open but not from the fork
-        doReturn(head).when(pr).getHead();
-        GHRepository otherFork = Mockito.mock(GHRepository.class);
-        doReturn("an/other").when(otherFork).getFullName();
-        doReturn(otherFork).when(head).getRepository();
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of(pr)).when(prQueryList).toList();
+        // No PR open from the fork
+        mockOwnPullRequests();
+        doReturn(Map.of("main", Mockito.mock(GHBranch.class))).when(fork).getBranches();
+        mockOpenPullRequests(repository);
 
         // Test
         service.deleteFork(plugin);
@@ -538,29 +615,19 @@ public class GHServiceTest {
         GHRepository repository = Mockito.mock(GHRepository.class);
         GHRepository fork = Mockito.mock(GHRepository.class);
         GHMyself myself = Mockito.mock(GHMyself.class);
-        GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
         doReturn(true).when(fork).isFork();
-        doReturn(fork).when(github).getRepository(eq("fake-owner/fake-repo"));
-        doReturn("fake-owner/fake-repo").when(fork).getFullName();
         doReturn("fake-repo").when(plugin).getRepositoryName();
         doReturn(myself).when(github).getMyself();
+        doReturn("fake-owner").when(myself).getLogin();
         doReturn(fork).when(myself).getRepository(eq("fake-repo"));
         doReturn(repository).when(plugin).getRemoteRepository(eq(service));
         doReturn(fork).when(plugin).getRemoteForkRepository(eq(service));
 
-        // One PR open but not from the fork
-        doReturn(head).when(pr).getHead();
-        GHRepository otherFork = Mockito.mock(GHRepository.class);
-        doReturn("an/other").when(otherFork).getFullName();
-        doReturn(otherFork).when(head).getRepository();
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of(pr)).when(prQueryList).toList();
+        // No PR open from the fork
+        mockOwnPullRequests();
+        doReturn(Map.of("main", Mockito.mock(GHBranch.class))).when(fork).getBranches();
+        mockOpenPullRequests(repository);
 
         // Owner of the fork is jenkinsci
         doReturn(Settings.ORGANIZATION).when(fork).getOwnerName();
@@ -579,30 +646,20 @@ public class GHServiceTest {
         GHRepository repository = Mockito.mock(GHRepository.class);
         GHRepository fork = Mockito.mock(GHRepository.class);
         GHMyself myself = Mockito.mock(GHMyself.class);
-        GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHCommitPointer head = Mockito.mock(GHCommitPointer.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
         doReturn(true).when(fork).isFork();
-        doReturn(fork).when(github).getRepository(eq("fake-owner/fake-repo"));
         doReturn("fake-owner").when(fork).getOwnerName();
-        doReturn("fake-owner/fake-repo").when(fork).getFullName();
         doReturn("fake-repo").when(plugin).getRepositoryName();
         doReturn(myself).when(github).getMyself();
+        doReturn("fake-owner").when(myself).getLogin();
         doReturn(fork).when(myself).getRepository(eq("fake-repo"));
         doReturn(repository).when(plugin).getRemoteRepository(eq(service));
         doReturn(fork).when(plugin).getRemoteForkRepository(eq(service));
 
-        // One PR open but not from the fork
-        doReturn(head).when(pr).getHead();
-        GHRepository otherFork = Mockito.mock(GHRepository.class);
-        doReturn("an/other").when(otherFork).getFullName();
-        doReturn(otherFork).when(head).getRepository();
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of(pr)).when(prQueryList).toList();
+        // Own PR open on another repository only
+        mockOwnPullRequests("https://github.com/jenkinsci/other-repo/pull/1");
+        doReturn(Map.of("main", Mockito.mock(GHBranch.class))).when(fork).getBranches();
+        mockOpenPullRequests(repository);
 
         // Test
         service.deleteFork(plugin);
@@ -752,8 +809,6 @@ public class GHServiceTest {
         Recipe recipe = Mockito.mock(Recipe.class);
         GHRepository repository = Mockito.mock(GHRepository.class);
         GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
         doReturn(recipe).when(config).getRecipe();
         doReturn("recipe1").when(recipe).getName();
@@ -767,10 +822,7 @@ public class GHServiceTest {
                 .getTags();
 
         // Return no open PR
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of()).when(prQueryList).toList();
+        GHPullRequestQueryBuilder prQuery = mockOpenPullRequests(repository);
 
         doReturn(pr)
                 .when(repository)
@@ -779,6 +831,7 @@ public class GHServiceTest {
         // Test
         service.openPullRequest(plugin);
 
+        verify(prQuery).head(eq("test:" + TemplateUtils.renderBranchName(plugin, recipe)));
         verify(pr, times(1)).addLabels(List.of("dependencies", "developer").toArray(String[]::new));
     }
 
@@ -789,8 +842,6 @@ public class GHServiceTest {
         Recipe recipe = Mockito.mock(Recipe.class);
         GHRepository repository = Mockito.mock(GHRepository.class);
         GHPullRequest pr = Mockito.mock(GHPullRequest.class);
-        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
-        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
 
         doReturn(recipe).when(config).getRecipe();
         doReturn("recipe1").when(recipe).getName();
@@ -801,10 +852,7 @@ public class GHServiceTest {
         doReturn(repository).when(plugin).getRemoteRepository(eq(service));
 
         // Return no open PR
-        doReturn(prQuery).when(repository).queryPullRequests();
-        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
-        doReturn(prQueryList).when(prQuery).list();
-        doReturn(List.of()).when(prQueryList).toList();
+        GHPullRequestQueryBuilder prQuery = mockOpenPullRequests(repository);
 
         doReturn(pr)
                 .when(repository)
@@ -813,4 +861,84 @@ public class GHServiceTest {
         // Test
         service.openPullRequest(plugin);
     }
+
+    @Test
+    public void shouldCollectChangesCommittedByInterruptedRun() throws Exception {
+
+        // Remote with the default branch
+        try (Git remote = Git.init()
+                .setDirectory(remoteDir.toFile())
+                .setInitialBranch("main")
+                .call()) {
+            Files.writeString(remoteDir.resolve("pom.xml"), "<project/>");
+            Files.writeString(remoteDir.resolve("README.md"), "Readme");
+            remote.add().addFilepattern(".").call();
+            remote.commit().setMessage("Initial").setSign(false).call();
+        }
+
+        // Clone with the changes committed on the plugin branch before the interruption
+        try (Git git = Git.cloneRepository()
+                .setURI(remoteDir.toUri().toString())
+                .setDirectory(pluginDir.toFile())
+                .call()) {
+            git.checkout()
+                    .setCreateBranch(true)
+                    .setName("plugin-modernizer/recipe")
+                    .call();
+            Files.writeString(pluginDir.resolve("pom.xml"), "<project></project>");
+            Files.delete(pluginDir.resolve("README.md"));
+            Files.writeString(pluginDir.resolve("Jenkinsfile"), "buildPlugin()");
+            git.add().addFilepattern(".").call();
+            git.rm().addFilepattern("README.md").call();
+            git.commit().setMessage("Changes").setSign(false).call();
+        }
+
+        // Mocks
+        GHRepository repository = Mockito.mock(GHRepository.class);
+        doReturn(false).when(config).isDryRun();
+        doReturn(false).when(plugin).isArchived(eq(service));
+        doReturn(pluginDir).when(plugin).getLocalRepository();
+        doReturn(repository).when(plugin).getRemoteRepository(eq(service));
+        doReturn("main").when(repository).getDefaultBranch();
+
+        // Test
+        service.commitChanges(plugin);
+
+        // Verify
+        verify(plugin).addModifiedFiles(eq(Set.of("Jenkinsfile", "README.md", "pom.xml")));
+        verify(plugin).withCommits();
+    }
+
+    private void mockOwnPullRequests(String... urls) throws Exception {
+        GHIssueSearchBuilder search = Mockito.mock(GHIssueSearchBuilder.class);
+        PagedSearchIterable<?> results = Mockito.mock(PagedSearchIterable.class);
+        List<GHIssue> issues = new ArrayList<>();
+        for (String url : urls) {
+            GHIssue issue = Mockito.mock(GHIssue.class);
+            doReturn(new URL(url)).when(issue).getHtmlUrl();
+            issues.add(issue);
+        }
+        doReturn(search).when(github).searchIssues();
+        doReturn(search).when(search).q(anyString());
+        doReturn(results).when(search).list();
+        doReturn(results).when(results).withPageSize(anyInt());
+        doReturn(issues).when(results).toList();
+    }
+
+    private GHPullRequestQueryBuilder mockOpenPullRequests(GHRepository repository, GHPullRequest... pullRequests) {
+        GHPullRequestQueryBuilder prQuery = Mockito.mock(GHPullRequestQueryBuilder.class);
+        PagedIterable<?> prQueryList = Mockito.mock(PagedIterable.class);
+        PagedIterator<?> iterator = Mockito.mock(PagedIterator.class);
+        doReturn(prQuery).when(repository).queryPullRequests();
+        doReturn(prQuery).when(prQuery).state(eq(GHIssueState.OPEN));
+        doReturn(prQuery).when(prQuery).head(anyString());
+        doReturn(prQueryList).when(prQuery).list();
+        doReturn(prQueryList).when(prQueryList).withPageSize(eq(1));
+        doReturn(iterator).when(prQueryList).iterator();
+        doReturn(pullRequests.length > 0).when(iterator).hasNext();
+        if (pullRequests.length > 0) {
+            doReturn(pullRequests[0]).when(iterator).next();
+        }
+        return prQuery;
+    }
 }
@@ -0,0 +1,91 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GitMirrorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path origin;
+
+    private URIish originUri;
+
+    private GitMirror mirror;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = tempDir.resolve("origin");
+        try (Git git = Git.init()
+                .setInitialBranch("main")
+                .setDirectory(origin.toFile())
+                .call()) {
+            commit(git, "pom.xml", "<project/>");
+        }
+        originUri = new URIish(origin.toUri().toURL());
+        mirror = new GitMirror(tempDir.resolve("mirrors"));
+    }
+
+    @Test
+    public void shouldCloneFromMirrorUsingAlternates() throws Exception {
+        Path clone = tempDir.resolve("clone");
+        mirror.update("fake-repo", originUri, null);
+        mirror.cloneTo("fake-repo", "main", originUri, clone);
+
+        assertTrue(Files.isDirectory(mirror.getLocation("fake-repo").resolve("objects")));
+        assertTrue(Files.isRegularFile(clone.resolve("pom.xml")));
+        assertEquals(
+                mirror.getLocation("fake-repo").resolve("objects").toAbsolutePath() + "\n",
+                Files.readString(clone.resolve(".git/objects/info/alternates")));
+        try (Git git = Git.open(clone.toFile())) {
+            assertEquals("main", git.getRepository().getBranch());
+            assertEquals(originUri.toString(), git.getRepository().getConfig().getString("remote", "origin", "url"));
+        }
+        // Objects are borrowed from the mirror
+        Path packs = clone.resolve(".git/objects/pack");
+        if (Files.isDirectory(packs)) {
+            try (var files = Files.list(packs)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+    @Test
+    public void shouldFetchLatestChangesThroughMirror() throws Exception {
+        Path clone = tempDir.resolve("clone");
+        mirror.update("fake-repo", originUri, null);
+        mirror.cloneTo("fake-repo", "main", originUri, clone);
+
+        ObjectId latest;
+        try (Git git = Git.open(origin.toFile())) {
+            latest = commit(git, "Jenkinsfile", "buildPlugin()").getId();
+        }
+
+        mirror.update("fake-repo", originUri, null);
+        try (Git git = Git.open(clone.toFile())) {
+            mirror.fetch(git, "fake-repo");
+            assertEquals(latest, git.getRepository().resolve("origin/main"));
+        }
+    }
+
+    private RevCommit commit(Git git, String file, String content) throws Exception {
+        Files.writeString(git.getRepository().getWorkTree().toPath().resolve(file), content);
+        git.add().addFilepattern(file).call();
+        return git.commit()
+                .setMessage("Add " + file)
+                .setAuthor("test", "test@example.com")
+                .setCommitter("test", "test@example.com")
+                .setSign(false)
+                .call();
+    }
+}
@@ -0,0 +1,113 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.kohsuke.github.connector.GitHubConnector;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class GraphQLPreflightTest {
+
+    private WireMockServer server;
+
+    private GraphQLPreflight preflight;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        preflight = new GraphQLPreflight(GitHubConnector.DEFAULT, new URL(server.baseUrl() + "/graphql"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldFetchStateInBatches() {
+        server.stubFor(
+                WireMock.post("/graphql")
+                        .withRequestBody(WireMock.containing("a-plugin"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        """
+                        {
+                          "data": {
+                            "r0": {
+                              "isArchived": false,
+                              "defaultBranchRef": { "name": "main", "target": { "oid": "0a1b2c3d" } },
+                              "pullRequests": {
+                                "pageInfo": { "hasNextPage": false },
+                                "nodes": [
+                                  { "number": 1, "url": "https://github.com/jenkinsci/a-plugin/pull/1", "headRefName": "fix", "headRepositoryOwner": { "login": "fake-owner" } },
+                                  { "number": 2, "url": "https://github.com/jenkinsci/a-plugin/pull/2", "headRefName": "fix", "headRepositoryOwner": { "login": "someone" } }
+                                ]
+                              }
+                            },
+                            "f0": { "isFork": true },
+                            "r1": {
+                              "isArchived": true,
+                              "defaultBranchRef": { "name": "master" },
+                              "pullRequests": { "pageInfo": { "hasNextPage": true }, "nodes": [] }
+                            },
+                            "f1": null
+                          },
+                          "errors": [ { "type": "NOT_FOUND", "message": "Could not resolve to a Repository" } ]
+                        }
+                        """)));
+        server.stubFor(
+                WireMock.post("/graphql")
+                        .withRequestBody(WireMock.containing("c-plugin"))
+                        .willReturn(
+                                WireMock.okJson(
+                                        """
+                        { "data": { "r0": null, "f0": null }, "errors": [ { "type": "NOT_FOUND", "message": "Not found" } ] }
+                        """)));
+
+        Map<String, RepositoryState> states = preflight.fetch(
+                "jenkinsci", "fake-owner", "Bearer fake-token", List.of("a-plugin", "b-plugin", "c-plugin"));
+
+        server.verify(2, WireMock.postRequestedFor(WireMock.urlEqualTo("/graphql")));
+        server.verify(WireMock.postRequestedFor(WireMock.urlEqualTo("/graphql"))
+                .withHeader("Authorization", WireMock.equalTo("Bearer fake-token")));
+        assertEquals(2, states.size());
+
+        RepositoryState a = states.get("a-plugin");
+        assertFalse(a.archived());
+        assertEquals("main", a.defaultBranch());
+        assertEquals("0a1b2c3d", a.headCommit());
+        assertTrue(a.forked());
+        assertEquals(1, a.pullRequests().size());
+        assertEquals(
+                "https://github.com/jenkinsci/a-plugin/pull/1",
+                a.pullRequests().get(0).url());
+
+        RepositoryState b = states.get("b-plugin");
+        assertTrue(b.archived());
+        assertNull(b.headCommit());
+        assertFalse(b.forked());
+        assertNull(b.pullRequests());
+
+        assertNull(states.get("c-plugin"));
+    }
+
+    @Test
+    public void shouldIgnoreFailedBatch() {
+        server.stubFor(WireMock.post("/graphql").willReturn(WireMock.serverError()));
+
+        Map<String, RepositoryState> states = preflight.fetch("jenkinsci", "fake-owner", null, List.of("a-plugin"));
+
+        assertTrue(states.isEmpty());
+    }
+}
@@ -0,0 +1,207 @@
+package io.jenkins.tools.pluginmodernizer.core.github;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.PluginModernizer;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.slf4j.MDC;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class RateLimitSchedulerTest {
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove(PluginModernizer.PLUGIN_MDC_KEY);
+    }
+
+    @Test
+    public void shouldRetryAfterSecondaryRateLimit() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        TestScheduler scheduler = new TestScheduler(request -> {
+            if (sent.getAndIncrement() == 0) {
+                return new TestResponse(
+                        request,
+                        403,
+                        Map.of("Retry-After", List.of("2")),
+                        "{\"message\":\"You have exceeded a secondary rate limit\"}");
+            }
+            return new TestResponse(request, 200, Map.of(), "{}");
+        });
+        MDC.put(PluginModernizer.PLUGIN_MDC_KEY, "fake-plugin");
+
+        GitHubConnectorResponse response = scheduler.send(new TestRequest("GET", "/repos/jenkinsci/fake-repo"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(2, sent.get());
+        assertEquals(List.of(2000L), scheduler.sleeps);
+        GitHubApiUsage usage = scheduler.getUsage("fake-plugin");
+        assertEquals(2, usage.requests());
+        assertEquals(1, usage.retries());
+        assertEquals(Duration.ofSeconds(2), usage.waited());
+    }
+
+    @Test
+    public void shouldNotRetryForbiddenResponse() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        TestScheduler scheduler = new TestScheduler(request -> {
+            sent.incrementAndGet();
+            return new TestResponse(request, 403, Map.of(), "{\"message\":\"Resource not accessible\"}");
+        });
+
+        GitHubConnectorResponse response = scheduler.send(new TestRequest("POST", "/repos/jenkinsci/fake-repo/forks"));
+
+        assertEquals(403, response.statusCode());
+        assertEquals(1, sent.get());
+        assertTrue(scheduler.sleeps.isEmpty());
+        assertEquals(
+                "{\"message\":\"Resource not accessible\"}",
+                new String(response.bodyStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldWaitForResetWhenBudgetIsSpent() throws Exception {
+        long reset = System.currentTimeMillis() / 1000 + 30;
+        TestScheduler scheduler = new TestScheduler(request -> new TestResponse(
+                request,
+                200,
+                Map.of("X-RateLimit-Remaining", List.of("1"), "X-RateLimit-Reset", List.of(String.valueOf(reset))),
+                "{}"));
+
+        scheduler.send(new TestRequest("GET", "/repos/jenkinsci/fake-repo"));
+        assertTrue(scheduler.sleeps.isEmpty());
+        scheduler.send(new TestRequest("GET", "/repos/jenkinsci/fake-repo"));
+
+        assertEquals(1, scheduler.sleeps.size());
+        assertTrue(scheduler.sleeps.get(0) > 25000);
+
+        // Search has its own budget
+        scheduler.send(new TestRequest("GET", "/search/issues"));
+        assertEquals(1, scheduler.sleeps.size());
+    }
+
+    @Test
+    public void shouldPaceWrites() throws Exception {
+        TestScheduler scheduler = new TestScheduler(request -> new TestResponse(request, 201, Map.of(), "{}"));
+        MDC.put(PluginModernizer.PLUGIN_MDC_KEY, "fake-plugin");
+
+        scheduler.send(new TestRequest("POST", "/repos/jenkinsci/fake-repo/pulls"));
+        scheduler.send(new TestRequest("POST", "/repos/jenkinsci/fake-repo/pulls"));
+
+        assertEquals(1, scheduler.sleeps.size());
+        assertTrue(scheduler.sleeps.get(0) > 0 && scheduler.sleeps.get(0) <= 10000);
+        assertEquals(2, scheduler.getUsage("fake-plugin").writes());
+        assertEquals(2, scheduler.getTotalUsage().requests());
+    }
+
+    @Test
+    public void shouldCapRequestsInFlight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        TestScheduler scheduler = new TestScheduler(request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new TestResponse(request, 200, Map.of(), "{}");
+        });
+        scheduler.setMaxConcurrentRequests(2);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(() -> scheduler.send(new TestRequest("GET", "/repos/jenkinsci/fake-repo")));
+            }
+        }
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals(10, scheduler.getTotalUsage().requests());
+    }
+
+    private static class TestScheduler extends RateLimitScheduler {
+
+        private final List<Long> sleeps = Collections.synchronizedList(new ArrayList<>());
+
+        private TestScheduler(GitHubConnector delegate) {
+            super(delegate, Duration.ofSeconds(10), 10, 3);
+        }
+
+        @Override
+        protected void sleep(long millis) {
+            sleeps.add(millis);
+        }
+    }
+
+    private record TestRequest(String method, String path) implements GitHubConnectorRequest {
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return Map.of("Authorization", List.of("token fake-token"));
+        }
+
+        @Override
+        public String header(String name) {
+            return name.equals("Authorization") ? "token fake-token" : null;
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public URL url() {
+            try {
+                return new URL("https://api.github.com" + path);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+
+    private static class TestResponse extends GitHubConnectorResponse.ByteArrayResponse {
+
+        private final String body;
+
+        private TestResponse(
+                GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, String body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        protected InputStream rawBodyStream() {
+            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
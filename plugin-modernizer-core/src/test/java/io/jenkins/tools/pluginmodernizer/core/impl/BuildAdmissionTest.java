@@ -0,0 +1,125 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.model.BuildLimits;
+import io.jenkins.tools.pluginmodernizer.core.model.GoalType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class BuildAdmissionTest {
+
+    @Test
+    public void shouldQueueBuildsWhenMemoryIsReserved() throws Exception {
+        BuildAdmission admission = new BuildAdmission(new TestResources(9 * 1024, 8));
+
+        BuildAdmission.Permit first = admission.acquire(new BuildLimits(4096, 1));
+        BuildAdmission.Permit second = admission.acquire(new BuildLimits(4096, 1));
+        CompletableFuture<BuildAdmission.Permit> third =
+                CompletableFuture.supplyAsync(() -> acquire(admission, new BuildLimits(4096, 1)));
+
+        assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, admission.getRunning());
+        first.close();
+        try (BuildAdmission.Permit admitted = third.get(10, TimeUnit.SECONDS)) {
+            assertEquals(2, admission.getRunning());
+            assertEquals(3072, admitted.getHeap());
+        }
+        second.close();
+        assertEquals(0, admission.getRunning());
+    }
+
+    @Test
+    public void shouldQueueBuildsWhenCoresAreReserved() throws Exception {
+        BuildAdmission admission = new BuildAdmission(new TestResources(64 * 1024, 2));
+
+        BuildAdmission.Permit verify = admission.acquire(new BuildLimits(4096, 2));
+        CompletableFuture<BuildAdmission.Permit> metadata =
+                CompletableFuture.supplyAsync(() -> acquire(admission, new BuildLimits(3072, 1)));
+
+        assertThrows(TimeoutException.class, () -> metadata.get(200, TimeUnit.MILLISECONDS));
+        verify.close();
+        metadata.get(10, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    public void shouldQueueBuildsWhenNodeIsLowOnMemory() throws Exception {
+        TestResources resources = new TestResources(64 * 1024, 8);
+        BuildAdmission admission = new BuildAdmission(resources);
+
+        BuildAdmission.Permit first = admission.acquire(new BuildLimits(2048, 1));
+        resources.available.set(1024);
+        CompletableFuture<BuildAdmission.Permit> second =
+                CompletableFuture.supplyAsync(() -> acquire(admission, new BuildLimits(2048, 1)));
+
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+        first.close();
+        second.get(10, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    public void shouldAlwaysAdmitSingleBuild() throws Exception {
+        TestResources resources = new TestResources(2048, 1);
+        resources.available.set(0);
+        BuildAdmission admission = new BuildAdmission(resources);
+
+        try (BuildAdmission.Permit permit = admission.acquire(new BuildLimits(4096, 2))) {
+            assertEquals(1024, permit.getMemory());
+            assertEquals(1, permit.getCores());
+        }
+    }
+
+    @Test
+    public void shouldInferGoalType() {
+        assertEquals(GoalType.VERIFY, GoalType.of("verify"));
+        assertEquals(
+                GoalType.QUICK_BUILD, GoalType.of("verify", "-DskipTests", "-Pquick-build", "-Denforcer.skip=true"));
+        assertEquals(GoalType.QUICK_BUILD, GoalType.of("clean"));
+        assertEquals(
+                GoalType.METADATA,
+                GoalType.of("org.openrewrite.maven:rewrite-maven-plugin:6.0.0:run", "-Denforcer.skip=true"));
+    }
+
+    private static BuildAdmission.Permit acquire(BuildAdmission admission, BuildLimits limits) {
+        try {
+            return admission.acquire(limits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TestResources implements BuildAdmission.Resources {
+
+        private final long total;
+        private final int cores;
+        private final AtomicLong available;
+
+        private TestResources(long total, int cores) {
+            this.total = total;
+            this.cores = cores;
+            this.available = new AtomicLong(total);
+        }
+
+        @Override
+        public long totalMemory() {
+            return total;
+        }
+
+        @Override
+        public long availableMemory() {
+            return available.get();
+        }
+
+        @Override
+        public int cores() {
+            return cores;
+        }
+    }
+}
@@ -4,10 +4,12 @@ import static java.time.Clock.systemUTC;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.jenkins.tools.pluginmodernizer.core.model.CacheCodec;
 import io.jenkins.tools.pluginmodernizer.core.model.CacheEntry;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -31,6 +33,17 @@ public class CacheManagerTest {
         }
     }
 
+    private static class ReadOnlyCacheEntry extends CacheEntry<ReadOnlyCacheEntry> {
+        public ReadOnlyCacheEntry(CacheManager cacheManager, String key, Path path) {
+            super(cacheManager, ReadOnlyCacheEntry.class, key, path);
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+
     @BeforeEach
     void setUp() {
         cachePath = tempDir.resolve("cache");
@@ -119,6 +132,37 @@ public class CacheManagerTest {
         assertNotNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
     }
 
+    @Test
+    void testDecodeReadOnlyEntriesOnce() {
+        TestCacheEntry mutable = new TestCacheEntry(cacheManager, TestCacheEntry.class, "mutable", cachePath);
+        ReadOnlyCacheEntry readOnly = new ReadOnlyCacheEntry(cacheManager, "read-only", cachePath);
+        cacheManager.put(mutable);
+        cacheManager.put(readOnly);
+
+        assertNotSame(
+                cacheManager.get(cacheManager.root(), "mutable", TestCacheEntry.class),
+                cacheManager.get(cacheManager.root(), "mutable", TestCacheEntry.class));
+        ReadOnlyCacheEntry first = cacheManager.get(cacheManager.root(), "read-only", ReadOnlyCacheEntry.class);
+        assertSame(first, cacheManager.get(cacheManager.root(), "read-only", ReadOnlyCacheEntry.class));
+
+        // A new content is decoded again
+        cacheManager.put(readOnly);
+        assertNotSame(first, cacheManager.get(cacheManager.root(), "read-only", ReadOnlyCacheEntry.class));
+    }
+
+    @Test
+    void testGetLastModifiedTime() {
+        String cacheKey = "testKey";
+        assertNull(cacheManager.getLastModifiedTime(cacheManager.root(), cacheKey));
+
+        TestCacheEntry value = new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath);
+        cacheManager.put(value);
+        assertNotNull(cacheManager.getLastModifiedTime(cacheManager.root(), cacheKey));
+
+        // Expired entries have no last modified time
+        assertNull(cacheManagerWithExpiredEntries().getLastModifiedTime(cacheManager.root(), cacheKey));
+    }
+
     @Test
     void testRemove() {
         Path cachePath = tempDir.resolve("cache");
@@ -136,6 +180,61 @@ public class CacheManagerTest {
         assertFalse(Files.exists(fileToCache));
     }
 
+    @Test
+    void testWriteBehind() {
+        CacheManager cacheManager = new CacheManager(
+                cachePath,
+                Clock.systemDefaultZone(),
+                true,
+                true,
+                CacheCodec.JSON,
+                new CacheStore(1024, Duration.ofHours(1)));
+        cacheManager.init();
+
+        String cacheKey = "testKey";
+        TestCacheEntry value = new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath);
+        cacheManager.put(value);
+
+        Path fileToCache = cachePath.resolve(cacheKey);
+        assertFalse(Files.exists(fileToCache));
+        assertNotNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+        assertNotNull(cacheManager.getLastModifiedTime(cacheManager.root(), cacheKey));
+
+        cacheManager.flush();
+        assertTrue(Files.exists(fileToCache));
+        assertNotNull(cacheManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class));
+    }
+
+    @Test
+    void testMigrateCodec() throws IOException {
+        String cacheKey = "testKey";
+        TestCacheEntry value = new TestCacheEntry(cacheManager, TestCacheEntry.class, cacheKey, cachePath);
+        cacheManager.put(value);
+        Path fileToCache = cachePath.resolve(cacheKey);
+        FileTime lastModified = FileTime.from(Instant.now().minus(Duration.ofMinutes(30)));
+        Files.setLastModifiedTime(fileToCache, lastModified);
+
+        CacheManager smileManager = new CacheManager(
+                cachePath,
+                Clock.systemDefaultZone(),
+                true,
+                false,
+                CacheCodec.SMILE,
+                new CacheStore(1024, Duration.ofHours(1)));
+        TestCacheEntry entry = smileManager.get(cacheManager.root(), cacheKey, TestCacheEntry.class);
+
+        assertEquals(cacheKey, entry.getKey());
+        assertEquals(CacheCodec.SMILE, CacheCodec.detect(Files.readAllBytes(fileToCache)));
+        assertEquals(
+                lastModified.toMillis(), Files.getLastModifiedTime(fileToCache).toMillis());
+        // Still readable by a JSON cache manager
+        assertEquals(
+                cacheKey,
+                cacheManager
+                        .get(cacheManager.root(), cacheKey, TestCacheEntry.class)
+                        .getKey());
+    }
+
     @Test
     void testRemoveWhenFileDoesNotExist() {
         Path cachePath = tempDir.resolve("cache");
@@ -0,0 +1,96 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class CacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldServeUnchangedFilesFromMemory() throws Exception {
+        CacheStore store = new CacheStore(1024, Duration.ofHours(1));
+        Path file = tempDir.resolve("entry");
+        Files.writeString(file, "{\"a\":1}");
+        FileTime time = Files.getLastModifiedTime(file);
+        assertEquals("{\"a\":1}", json(store.read(file)));
+
+        // Same size and modification time. Not read again
+        Files.writeString(file, "{\"a\":2}");
+        Files.setLastModifiedTime(file, time);
+        assertEquals("{\"a\":1}", json(store.read(file)));
+
+        // Written by another process
+        Files.setLastModifiedTime(file, FileTime.from(time.toInstant().plusSeconds(1)));
+        assertEquals("{\"a\":2}", json(store.read(file)));
+
+        Files.delete(file);
+        assertNull(store.read(file));
+        assertEquals(0, store.getWeight());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        CacheStore store = new CacheStore(10, Duration.ofHours(1));
+        store.write(tempDir.resolve("a"), bytes("aaaa"), null, false);
+        store.write(tempDir.resolve("b"), bytes("bbbb"), null, false);
+        store.read(tempDir.resolve("a"));
+        store.write(tempDir.resolve("c"), bytes("cccc"), null, false);
+
+        assertEquals(8, store.getWeight());
+        // Evicted entries are read from disk
+        assertEquals("bbbb", json(store.read(tempDir.resolve("b"))));
+        assertEquals(8, store.getWeight());
+    }
+
+    @Test
+    public void shouldCoalesceDeferredWrites() throws Exception {
+        CacheStore store = new CacheStore(1024, Duration.ofHours(1));
+        Path file = tempDir.resolve("plugin").resolve("entry");
+        FileTime time = FileTime.from(Instant.parse("2025-01-01T00:00:00Z"));
+        store.write(file, bytes("{\"a\":1}"), time, true);
+        store.write(file, bytes("{\"a\":2}"), time, true);
+
+        assertFalse(Files.exists(file));
+        assertEquals("{\"a\":2}", json(store.read(file)));
+        assertEquals(time, store.getLastModifiedTime(file));
+
+        store.flush();
+        assertEquals("{\"a\":2}", Files.readString(file, StandardCharsets.UTF_8));
+        assertEquals(time, Files.getLastModifiedTime(file));
+        assertEquals("{\"a\":2}", json(store.read(file)));
+    }
+
+    @Test
+    public void shouldCancelDeferredWriteOnDelete() throws Exception {
+        CacheStore store = new CacheStore(1024, Duration.ofMillis(1));
+        Path file = tempDir.resolve("entry");
+        store.write(file, bytes("{}"), FileTime.from(Instant.now()), true);
+
+        assertTrue(store.delete(file));
+        Thread.sleep(50);
+        assertFalse(Files.exists(file));
+        assertNull(store.read(file));
+        assertNull(store.getLastModifiedTime(file));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String json(CacheStore.Content content) {
+        return new String(content.data(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,174 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.model.LocalRepositoryMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class LocalRepositoriesTest {
+
+    private static final String JUNIT = "junit/junit/4.13.2";
+
+    @TempDir
+    private Path base;
+
+    @TempDir
+    private Path cache;
+
+    @Test
+    public void shouldShareLocalRepository() throws Exception {
+        LocalRepositories repositories = new LocalRepositories(base, cache, LocalRepositoryMode.SHARED);
+        try (LocalRepositories.Lease lease = repositories.acquire()) {
+            assertEquals(List.of("-Dmaven.repo.local=" + base), lease.getArgs());
+        }
+    }
+
+    @Test
+    public void shouldLockLocalRepository() throws Exception {
+        LocalRepositories repositories = new LocalRepositories(base, cache, LocalRepositoryMode.LOCKED);
+        try (LocalRepositories.Lease lease = repositories.acquire()) {
+            assertEquals(
+                    List.of(
+                            "-Dmaven.repo.local=" + base,
+                            "-Daether.syncContext.named.factory=file-lock",
+                            "-Daether.syncContext.named.nameMapper=file-gav"),
+                    lease.getArgs());
+        }
+    }
+
+    @Test
+    public void shouldLeaseOneOverlayPerBuild() throws Exception {
+        LocalRepositories repositories =
+                new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+
+        LocalRepositories.Lease first = repositories.acquire();
+        LocalRepositories.Lease second = repositories.acquire();
+        Path overlay = getOverlay(first);
+        assertEquals(cache.resolve(Settings.LOCAL_REPO_OVERLAYS_SUBDIR), overlay.getParent());
+        assertTrue(overlay.getFileName().toString().startsWith("overlay-"));
+        assertEquals(
+                List.of(
+                        "-Dmaven.repo.local=" + overlay,
+                        "-Dmaven.repo.local.tail=" + base,
+                        "-Dmaven.repo.local.tail.ignoreAvailability=true"),
+                first.getArgs());
+        assertNotEquals(overlay, getOverlay(second));
+        assertTrue(Files.isDirectory(getOverlay(second)));
+
+        second.close();
+        try (LocalRepositories.Lease third = repositories.acquire()) {
+            assertEquals(second.getArgs(), third.getArgs());
+        }
+        first.close();
+    }
+
+    @Test
+    public void shouldNotShareOverlayBetweenProcesses() throws Exception {
+        LocalRepositories repositories =
+                new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+        LocalRepositories other = new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+
+        Path leased;
+        try (LocalRepositories.Lease lease = repositories.acquire();
+                LocalRepositories.Lease otherLease = other.acquire()) {
+            leased = getOverlay(lease);
+            assertNotEquals(leased, getOverlay(otherLease));
+        }
+
+        // Once unlocked, an overlay left by another process is reused
+        LocalRepositories next = new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+        try (LocalRepositories.Lease lease = next.acquire()) {
+            assertTrue(Files.isDirectory(getOverlay(lease)));
+            assertTrue(Files.exists(
+                    getOverlay(lease).resolveSibling(getOverlay(lease).getFileName() + ".lock")));
+        }
+        try (Stream<Path> overlays = Files.list(cache.resolve(Settings.LOCAL_REPO_OVERLAYS_SUBDIR))) {
+            assertEquals(2, overlays.filter(Files::isDirectory).count());
+        }
+    }
+
+    @Test
+    public void shouldPromoteReleasedArtifacts() throws Exception {
+        LocalRepositories repositories =
+                new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+        Path overlay;
+        try (LocalRepositories.Lease lease = repositories.acquire()) {
+            overlay = getOverlay(lease);
+        }
+        write(overlay.resolve(JUNIT).resolve("junit-4.13.2.jar"), "jar");
+        write(overlay.resolve(JUNIT).resolve("junit-4.13.2.pom"), "pom");
+        write(overlay.resolve(JUNIT).resolve("_remote.repositories"), "remote");
+        write(overlay.resolve(JUNIT).resolve("junit-4.13.2-sources.jar.lastUpdated"), "failed");
+        write(overlay.resolve("junit/junit/maven-metadata-central.xml"), "metadata");
+        write(overlay.resolve("org/example/lib/1.0-SNAPSHOT/lib-1.0-SNAPSHOT.jar"), "snapshot");
+        write(base.resolve(JUNIT).resolve("junit-4.13.2.pom"), "existing");
+
+        repositories.promoteAll();
+
+        assertEquals("jar", Files.readString(base.resolve(JUNIT).resolve("junit-4.13.2.jar")));
+        assertFalse(Files.exists(base.resolve(JUNIT).resolve("_remote.repositories")));
+        assertEquals("existing", Files.readString(base.resolve(JUNIT).resolve("junit-4.13.2.pom")));
+        assertFalse(Files.exists(overlay.resolve(JUNIT).resolve("junit-4.13.2.jar")));
+        assertFalse(Files.exists(overlay.resolve(JUNIT).resolve("junit-4.13.2.pom")));
+
+        assertFalse(Files.exists(base.resolve(JUNIT).resolve("junit-4.13.2-sources.jar.lastUpdated")));
+        assertFalse(Files.exists(base.resolve("junit/junit/maven-metadata-central.xml")));
+        assertFalse(Files.exists(base.resolve("org/example")));
+        assertTrue(Files.exists(overlay.resolve("junit/junit/maven-metadata-central.xml")));
+        assertTrue(Files.exists(overlay.resolve("org/example/lib/1.0-SNAPSHOT/lib-1.0-SNAPSHOT.jar")));
+        assertTrue(Files.exists(overlay.resolve(JUNIT).resolve("_remote.repositories")));
+        try (Stream<Path> files = Files.list(base.resolve(JUNIT))) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".promote")));
+        }
+    }
+
+    @Test
+    public void shouldKeepRemoteRepositoriesRecordOfLocalRepository() throws Exception {
+        LocalRepositories repositories =
+                new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ofDays(1));
+        Path overlay;
+        try (LocalRepositories.Lease lease = repositories.acquire()) {
+            overlay = getOverlay(lease);
+        }
+        write(overlay.resolve(JUNIT).resolve("junit-4.13.2-sources.jar"), "sources");
+        write(overlay.resolve(JUNIT).resolve("_remote.repositories"), "junit-4.13.2-sources.jar>mirror=");
+        write(base.resolve(JUNIT).resolve("junit-4.13.2.jar"), "jar");
+        write(base.resolve(JUNIT).resolve("_remote.repositories"), "junit-4.13.2.jar>central=");
+
+        repositories.promoteAll();
+
+        assertEquals("sources", Files.readString(base.resolve(JUNIT).resolve("junit-4.13.2-sources.jar")));
+        assertEquals(
+                "junit-4.13.2.jar>central=",
+                Files.readString(base.resolve(JUNIT).resolve("_remote.repositories")));
+    }
+
+    @Test
+    public void shouldPromoteOnReleaseWhenDue() throws Exception {
+        LocalRepositories repositories = new LocalRepositories(base, cache, LocalRepositoryMode.OVERLAY, Duration.ZERO);
+        try (LocalRepositories.Lease lease = repositories.acquire()) {
+            write(getOverlay(lease).resolve(JUNIT).resolve("junit-4.13.2.jar"), "jar");
+        }
+        assertTrue(Files.exists(base.resolve(JUNIT).resolve("junit-4.13.2.jar")));
+    }
+
+    private static Path getOverlay(LocalRepositories.Lease lease) {
+        return Path.of(lease.getArgs().getFirst().substring("-Dmaven.repo.local=".length()));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
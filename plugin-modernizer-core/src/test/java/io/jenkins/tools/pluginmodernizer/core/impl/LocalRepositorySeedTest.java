@@ -0,0 +1,72 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class LocalRepositorySeedTest {
+
+    @Test
+    public void shouldCollectSharedArtifacts() {
+        LocalRepositorySeed seed = LocalRepositorySeed.of(
+                List.of(
+                        metadata("5.6", "bom-2.462.x", "4023.va_eeb_b_4e45f07", "2.462.3"),
+                        metadata("5.6", "bom-2.462.x", "4023.va_eeb_b_4e45f07", "2.462.3"),
+                        metadata("4.88", null, null, "2.440.3")),
+                "999");
+
+        assertEquals(
+                Set.of(
+                        "org.jenkins-ci.plugins:plugin:5.6:pom",
+                        "org.jenkins-ci.plugins:plugin:4.88:pom",
+                        "io.jenkins.tools.bom:bom-2.462.x:4023.va_eeb_b_4e45f07:pom",
+                        "org.jenkins-ci.main:jenkins-core:2.462.3:jar",
+                        "org.jenkins-ci.main:jenkins-core:2.440.3:jar",
+                        "io.jenkins.plugin-modernizer:plugin-modernizer-core:999:jar"),
+                seed.getArtifacts());
+    }
+
+    @Test
+    public void shouldSkipUnresolvedVersionsAndSnapshotRecipes() {
+        LocalRepositorySeed seed = LocalRepositorySeed.of(
+                List.of(metadata("5.6", "bom-${jenkins.baseline}.x", "4023.va_eeb_b_4e45f07", "${jenkins.version}")),
+                "999-SNAPSHOT");
+
+        assertEquals(Set.of("org.jenkins-ci.plugins:plugin:5.6:pom"), seed.getArtifacts());
+    }
+
+    @Test
+    public void shouldWriteSeedProject() {
+        String pom = LocalRepositorySeed.of(List.of(metadata("5.6", null, null, null)), null)
+                .toPom();
+
+        assertTrue(pom.contains("<url>" + Settings.JENKINS_REPOSITORY_URL + "</url>"));
+        assertTrue(
+                pom.contains(
+                        """
+                      <groupId>org.jenkins-ci.plugins</groupId>
+                      <artifactId>plugin</artifactId>
+                      <version>5.6</version>
+                      <type>pom</type>
+                """));
+        assertTrue(pom.contains("<artifactId>rewrite-maven-plugin</artifactId>"));
+        assertTrue(pom.contains("<version>" + Settings.MAVEN_REWRITE_PLUGIN_VERSION + "</version>"));
+    }
+
+    private static PluginMetadata metadata(
+            String parentVersion, String bomArtifactId, String bomVersion, String jenkinsVersion) {
+        PluginMetadata metadata = new PluginMetadata();
+        metadata.setParentVersion(parentVersion);
+        metadata.setBomArtifactId(bomArtifactId);
+        metadata.setBomVersion(bomVersion);
+        metadata.setJenkinsVersion(jenkinsVersion);
+        return metadata;
+    }
+}
@@ -0,0 +1,217 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.inject.Guice;
+import io.jenkins.tools.pluginmodernizer.core.GuiceModule;
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.model.JDK;
+import io.jenkins.tools.pluginmodernizer.core.model.Plugin;
+import io.jenkins.tools.pluginmodernizer.core.model.Recipe;
+import io.jenkins.tools.pluginmodernizer.core.utils.JdkFetcher;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.mockito.ArgumentCaptor;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class MavenInvokerTest {
+
+    @TempDir
+    private Path cachePath;
+
+    @TempDir
+    private Path mvndHome;
+
+    @TempDir
+    private Path pluginPath;
+
+    @Test
+    public void shouldRunGoalsOnMavenDaemon() throws Exception {
+        Invoker invoker = mockInvoker();
+        JdkFetcher jdkFetcher = mock(JdkFetcher.class);
+        doReturn(pluginPath.resolve("jdk-17")).when(jdkFetcher).getJdkPath(17);
+        MavenInvoker mavenInvoker = createMavenInvoker(true, invoker, jdkFetcher);
+        Plugin plugin = createPlugin().withJDK(JDK.JAVA_17);
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeGoal(plugin, "verify");
+
+        ArgumentCaptor<InvocationRequest> captor = ArgumentCaptor.forClass(InvocationRequest.class);
+        verify(invoker, times(2)).execute(captor.capture());
+        InvocationRequest quickBuild = captor.getAllValues().get(0);
+        InvocationRequest verify = captor.getAllValues().get(1);
+        assertFalse(plugin.hasErrors());
+        assertEquals(mvndHome.resolve("bin/mvnd").toFile(), quickBuild.getMavenExecutable());
+        assertEquals(mvndHome.toFile(), quickBuild.getMavenHome());
+
+        List<String> args = quickBuild.getArgs();
+        assertTrue(args.contains("-Dmvnd.javaHome=" + JDK.JAVA_17.getHome(jdkFetcher)));
+        assertTrue(args.contains("-Dmvnd.rawStreams=true"));
+        assertTrue(args.contains("-Dmvnd.idleTimeout=" + Settings.MVND_IDLE_TIMEOUT));
+
+        // Same heap for all goal types so a single pool of daemons is used per JDK
+        String jvmArgs = getArg(args, "-Dmvnd.jvmArgs=");
+        assertTrue(jvmArgs.startsWith("-Dmvnd.jvmArgs=-Xmx3072m "), jvmArgs);
+        assertTrue(jvmArgs.contains("--add-opens java.base/java.lang=ALL-UNNAMED"), jvmArgs);
+        assertEquals(jvmArgs, getArg(verify.getArgs(), "-Dmvnd.jvmArgs="));
+    }
+
+    @Test
+    public void shouldRunGoalsOnNewMavenJvm() throws Exception {
+        Invoker invoker = mockInvoker();
+        MavenInvoker mavenInvoker = createMavenInvoker(false, invoker, mock(JdkFetcher.class));
+        Plugin plugin = createPlugin();
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeGoal(plugin, "verify");
+
+        ArgumentCaptor<InvocationRequest> captor = ArgumentCaptor.forClass(InvocationRequest.class);
+        verify(invoker, times(2)).execute(captor.capture());
+        InvocationRequest quickBuild = captor.getAllValues().get(0);
+        assertNull(quickBuild.getMavenExecutable());
+        assertTrue(quickBuild.getArgs().stream().noneMatch(arg -> arg.startsWith("-Dmvnd.")));
+        assertEquals("-Xmx1536m", quickBuild.getMavenOpts());
+        assertEquals("-Xmx3072m", captor.getAllValues().get(1).getMavenOpts());
+    }
+
+    @Test
+    public void shouldBuildOnlineFromModernizationRecipe() throws Exception {
+        Invoker invoker = mockInvoker();
+        MavenInvoker mavenInvoker = createMavenInvoker(false, invoker, mock(JdkFetcher.class));
+        Plugin plugin = createPlugin();
+        mavenInvoker.seedLocalRepository(Map.of(plugin.getName(), new PluginMetadata()));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeRewrite(plugin);
+        mavenInvoker.invokeGoal(plugin, "verify");
+
+        ArgumentCaptor<InvocationRequest> captor = ArgumentCaptor.forClass(InvocationRequest.class);
+        verify(invoker, times(4)).execute(captor.capture());
+        assertFalse(plugin.hasErrors());
+        assertTrue(captor.getAllValues().get(1).isOffline(), "Build before the recipe should be offline");
+        assertFalse(captor.getAllValues().get(2).isOffline(), "Recipe should run online");
+        assertFalse(captor.getAllValues().get(3).isOffline(), "Build after the recipe should be online");
+    }
+
+    @Test
+    public void shouldBuildOnlineWhenOfflineBuildMissesArtifacts() throws Exception {
+        Invoker invoker = mock(Invoker.class);
+        InvocationResult success = mock(InvocationResult.class);
+        InvocationResult failure = mock(InvocationResult.class);
+        doReturn(1).when(failure).getExitCode();
+        doAnswer(invocation -> {
+                    InvocationRequest request = invocation.getArgument(0);
+                    if (!request.isOffline()) {
+                        return success;
+                    }
+                    request.getOutputHandler(null)
+                            .consumeLine(
+                                    "[ERROR] Plugin org.jenkins-ci.tools:maven-hpi-plugin:3.61 or one of its dependencies could not be resolved: Cannot access incrementals (https://repo.jenkins-ci.org/incrementals/) in offline mode and the artifact org.jenkins-ci.tools:maven-hpi-plugin:jar:3.61 has not been downloaded from it before.");
+                    return failure;
+                })
+                .when(invoker)
+                .execute(any(InvocationRequest.class));
+        MavenInvoker mavenInvoker = createMavenInvoker(false, invoker, mock(JdkFetcher.class));
+        Plugin plugin = createPlugin();
+        mavenInvoker.seedLocalRepository(Map.of(plugin.getName(), new PluginMetadata()));
+
+        mavenInvoker.invokeGoal(plugin, "clean");
+        mavenInvoker.invokeGoal(plugin, "verify");
+
+        ArgumentCaptor<InvocationRequest> captor = ArgumentCaptor.forClass(InvocationRequest.class);
+        verify(invoker, times(4)).execute(captor.capture());
+        assertFalse(plugin.hasErrors());
+        assertTrue(captor.getAllValues().get(1).isOffline(), "First build should be offline");
+        assertFalse(captor.getAllValues().get(2).isOffline(), "Build should be retried online");
+        assertFalse(captor.getAllValues().get(3).isOffline(), "Later builds should be online");
+    }
+
+    private Plugin createPlugin() throws Exception {
+        Files.writeString(pluginPath.resolve("pom.xml"), "<project/>");
+        return Plugin.build("sample-plugin", pluginPath);
+    }
+
+    private static Invoker mockInvoker() throws Exception {
+        Invoker invoker = mock(Invoker.class);
+        InvocationResult result = mock(InvocationResult.class);
+        doReturn(0).when(result).getExitCode();
+        doReturn(result).when(invoker).execute(any(InvocationRequest.class));
+        return invoker;
+    }
+
+    private MavenInvoker createMavenInvoker(boolean mavenDaemon, Invoker invoker, JdkFetcher jdkFetcher)
+            throws Exception {
+        Recipe recipe = mock(Recipe.class);
+        doReturn("io.jenkins.tools.pluginmodernizer.UpgradeParentVersion")
+                .when(recipe)
+                .getName();
+        Config config = Config.builder()
+                .withVersion("1.0")
+                .withCachePath(cachePath)
+                .withMavenHome(cachePath)
+                .withMavenDaemon(mavenDaemon)
+                .withMvndHome(mvndHome)
+                .withRecipe(recipe)
+                .build();
+        MavenInvoker mavenInvoker =
+                Guice.createInjector(new GuiceModule(config)).getInstance(MavenInvoker.class);
+        setField(mavenInvoker, "invoker", invoker);
+        setField(mavenInvoker, "jdkFetcher", jdkFetcher);
+        setField(mavenInvoker, "buildAdmission", new BuildAdmission(new NodeResources()));
+        return mavenInvoker;
+    }
+
+    private static String getArg(List<String> args, String prefix) {
+        return args.stream().filter(arg -> arg.startsWith(prefix)).findFirst().orElseThrow();
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = ReflectionUtils.findFields(
+                        MavenInvoker.class,
+                        f -> f.getName().equals(name),
+                        ReflectionUtils.HierarchyTraversalMode.TOP_DOWN)
+                .get(0);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Node large enough to admit any build
+     */
+    private static class NodeResources implements BuildAdmission.Resources {
+
+        @Override
+        public long totalMemory() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public long availableMemory() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public int cores() {
+            return 8;
+        }
+    }
+}
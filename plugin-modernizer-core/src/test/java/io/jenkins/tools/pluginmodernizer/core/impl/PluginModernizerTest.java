@@ -0,0 +1,127 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.google.inject.Guice;
+import io.jenkins.tools.pluginmodernizer.core.GuiceModule;
+import io.jenkins.tools.pluginmodernizer.core.config.Config;
+import io.jenkins.tools.pluginmodernizer.core.github.GHService;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.utils.PluginService;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.platform.commons.util.ReflectionUtils;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class PluginModernizerTest {
+
+    @TempDir
+    private Path cachePath;
+
+    @Test
+    public void shouldFetchDatasetsConcurrentlyOnStartup() throws Exception {
+        PluginService pluginService = mock(PluginService.class);
+        PluginModernizer modernizer = createPluginModernizer(pluginService);
+
+        // Each dataset is only returned once all datasets are being fetched
+        CountDownLatch fetching = new CountDownLatch(4);
+        doAnswer(invocation -> awaitAll(fetching)).when(pluginService).getUpdateCenterIndex();
+        doAnswer(invocation -> awaitAll(fetching)).when(pluginService).getPluginVersionData();
+        doAnswer(invocation -> awaitAll(fetching)).when(pluginService).getHealthScoreData();
+        doAnswer(invocation -> awaitAll(fetching)).when(pluginService).getPluginInstallationStatsData();
+
+        modernizer.startup();
+
+        assertEquals(0, fetching.getCount());
+    }
+
+    @Test
+    public void shouldRethrowFirstStartupFailureAndCancelOtherTasks() throws Exception {
+        PluginService pluginService = mock(PluginService.class);
+        PluginModernizer modernizer = createPluginModernizer(pluginService);
+
+        // The update center is fetched until interrupted
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+                    fetching.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                })
+                .when(pluginService)
+                .getUpdateCenterIndex();
+
+        // Health score fails once the update center fetch started
+        ModernizerException failure = new ModernizerException("Health score unavailable");
+        doAnswer(invocation -> {
+                    assertTrue(fetching.await(10, TimeUnit.SECONDS));
+                    throw failure;
+                })
+                .when(pluginService)
+                .getHealthScoreData();
+
+        ModernizerException e = assertThrows(ModernizerException.class, modernizer::startup);
+
+        assertSame(failure, e);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS), "Update center fetch was not cancelled");
+    }
+
+    @Test
+    public void shouldWrapUnexpectedStartupFailure() throws Exception {
+        PluginService pluginService = mock(PluginService.class);
+        PluginModernizer modernizer = createPluginModernizer(pluginService);
+        doThrow(new IllegalStateException("Invalid data")).when(pluginService).getPluginVersionData();
+
+        ModernizerException e = assertThrows(ModernizerException.class, modernizer::startup);
+
+        assertEquals("Plugin versions failed: Invalid data", e.getMessage());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    private static Object awaitAll(CountDownLatch fetching) throws InterruptedException {
+        fetching.countDown();
+        assertTrue(fetching.await(10, TimeUnit.SECONDS), "Datasets are not fetched concurrently");
+        return null;
+    }
+
+    private PluginModernizer createPluginModernizer(PluginService pluginService) throws Exception {
+        Config config = Config.builder()
+                .withVersion("1.0")
+                .withCachePath(cachePath)
+                .withMavenHome(cachePath)
+                .build();
+        PluginModernizer modernizer =
+                Guice.createInjector(new GuiceModule(config)).getInstance(PluginModernizer.class);
+        GHService ghService = mock(GHService.class);
+        doReturn(true).when(ghService).isConnected();
+        setField(modernizer, "mavenInvoker", mock(MavenInvoker.class));
+        setField(modernizer, "ghService", ghService);
+        setField(modernizer, "pluginService", pluginService);
+        setField(modernizer, "cacheManager", mock(CacheManager.class));
+        return modernizer;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = ReflectionUtils.findFields(
+                        PluginModernizer.class,
+                        f -> f.getName().equals(name),
+                        ReflectionUtils.HierarchyTraversalMode.TOP_DOWN)
+                .get(0);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,89 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import io.jenkins.tools.pluginmodernizer.core.model.ProcessingStage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class RunJournalTest {
+
+    @TempDir
+    private Path cachePath;
+
+    @Test
+    public void shouldResumeCompletedStages() throws Exception {
+        String runId;
+        try (RunJournal journal = RunJournal.create(cachePath, "SetupDependabot", "1.0")) {
+            runId = journal.getRunId();
+            assertTrue(Files.isRegularFile(journal.getFile()));
+            journal.complete("a-plugin", ProcessingStage.FETCH, false, List.of());
+            journal.complete("a-plugin", ProcessingStage.METADATA, true, List.of());
+            journal.complete("a-plugin", ProcessingStage.COMMIT, true, List.of("pom.xml", ".github/dependabot.yml"));
+            journal.complete("b-plugin", ProcessingStage.FETCH, false, List.of());
+            assertNull(journal.getCompleted("a-plugin", ProcessingStage.FETCH));
+        }
+
+        try (RunJournal journal = RunJournal.resume(cachePath, runId, "SetupDependabot", "1.0")) {
+            assertEquals(runId, journal.getRunId());
+            assertNotNull(journal.getCompleted("a-plugin", ProcessingStage.FETCH));
+            assertTrue(
+                    journal.getCompleted("a-plugin", ProcessingStage.METADATA).singlePass());
+            assertEquals(
+                    List.of(".github/dependabot.yml", "pom.xml"),
+                    journal.getCompleted("a-plugin", ProcessingStage.COMMIT).modifiedFiles());
+            assertNull(journal.getCompleted("a-plugin", ProcessingStage.PUBLISH));
+            assertNotNull(journal.getCompleted("b-plugin", ProcessingStage.FETCH));
+            assertNull(journal.getCompleted("c-plugin", ProcessingStage.FETCH));
+            journal.complete("b-plugin", ProcessingStage.METADATA, false, List.of());
+        }
+
+        try (RunJournal journal = RunJournal.resume(cachePath, runId, "SetupDependabot", "1.0")) {
+            assertNotNull(journal.getCompleted("b-plugin", ProcessingStage.METADATA));
+        }
+    }
+
+    @Test
+    public void shouldDiscardTornRecord() throws Exception {
+        String runId;
+        Path file;
+        try (RunJournal journal = RunJournal.create(cachePath, "SetupDependabot", "1.0")) {
+            runId = journal.getRunId();
+            file = journal.getFile();
+            journal.complete("a-plugin", ProcessingStage.FETCH, false, List.of());
+        }
+        Files.writeString(file, "{\"plugin\":\"a-plugin\",\"sta", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (RunJournal journal = RunJournal.resume(cachePath, runId, "SetupDependabot", "1.0")) {
+            assertNotNull(journal.getCompleted("a-plugin", ProcessingStage.FETCH));
+            journal.complete("a-plugin", ProcessingStage.METADATA, false, List.of());
+        }
+        try (RunJournal journal = RunJournal.resume(cachePath, runId, "SetupDependabot", "1.0")) {
+            assertNotNull(journal.getCompleted("a-plugin", ProcessingStage.METADATA));
+        }
+    }
+
+    @Test
+    public void shouldRejectUnknownRuns() throws Exception {
+        assertThrows(
+                ModernizerException.class, () -> RunJournal.resume(cachePath, "unknown", "SetupDependabot", "1.0"));
+        assertThrows(
+                ModernizerException.class, () -> RunJournal.resume(cachePath, "../runs", "SetupDependabot", "1.0"));
+        String runId;
+        try (RunJournal journal = RunJournal.create(cachePath, "SetupDependabot", "1.0")) {
+            runId = journal.getRunId();
+        }
+        assertThrows(
+                ModernizerException.class, () -> RunJournal.resume(cachePath, runId, "UpgradeParentVersion", "1.0"));
+        assertThrows(ModernizerException.class, () -> RunJournal.resume(cachePath, runId, "SetupDependabot", "2.0"));
+    }
+}
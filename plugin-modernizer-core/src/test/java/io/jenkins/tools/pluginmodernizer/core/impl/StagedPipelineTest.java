@@ -0,0 +1,145 @@
+package io.jenkins.tools.pluginmodernizer.core.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class StagedPipelineTest {
+
+    @Test
+    public void shouldRunStagesInOrder() {
+        Queue<String> events = new ConcurrentLinkedQueue<>();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(10, Duration.ofMinutes(1))
+                .stage("first", 1, 1, item -> events.add("first-" + item))
+                .stage("second", 1, 1, item -> events.add("second-" + item));
+
+        pipeline.run(List.of(1));
+
+        assertEquals(List.of("first-1", "second-1"), List.copyOf(events));
+    }
+
+    @Test
+    public void shouldLeaveWhenStageStopsOrFails() {
+        Queue<Integer> last = new ConcurrentLinkedQueue<>();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(10, Duration.ofMinutes(1))
+                .stage("filter", 2, 2, item -> {
+                    if (item == 3) {
+                        throw new IllegalStateException("Failure of " + item);
+                    }
+                    return item % 2 == 0;
+                })
+                .stage("last", 2, 2, last::add);
+
+        pipeline.run(IntStream.rangeClosed(1, 6).boxed().toList());
+
+        assertEquals(List.of(2, 4, 6), last.stream().sorted().toList());
+        List<StagedPipeline.StageStats> stats = pipeline.getStats();
+        assertEquals(6, stats.get(0).completed());
+        assertEquals(3, stats.get(1).completed());
+        assertEquals(0, stats.get(1).queued());
+    }
+
+    @Test
+    public void shouldCapVirtualStage() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Queue<Boolean> virtual = new ConcurrentLinkedQueue<>();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(10, Duration.ofMinutes(1))
+                .stage("network", 3, 1, true, item -> {
+                    virtual.add(Thread.currentThread().isVirtual());
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    return true;
+                })
+                .stage("build", 1, 1, item -> !Thread.currentThread().isVirtual());
+
+        pipeline.run(IntStream.range(0, 20).boxed().toList());
+
+        assertEquals(20, virtual.size());
+        assertTrue(virtual.stream().allMatch(Boolean::booleanValue));
+        assertTrue(maxInFlight.get() <= 3);
+        assertEquals(20, pipeline.getStats().get(1).completed());
+    }
+
+    @Test
+    public void shouldOverlapStages() {
+        // The first item waits in the second stage until the second item was handled by the first stage
+        CountDownLatch secondFetched = new CountDownLatch(1);
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(10, Duration.ofMinutes(1))
+                .stage("fetch", 1, 1, item -> {
+                    if (item == 2) {
+                        secondFetched.countDown();
+                    }
+                    return true;
+                })
+                .stage("build", 1, 1, item -> {
+                    try {
+                        return item != 1 || secondFetched.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                });
+
+        pipeline.run(List.of(1, 2));
+
+        assertEquals(0, secondFetched.getCount());
+        assertEquals(2, pipeline.getStats().get(1).completed());
+    }
+
+    @Test
+    public void shouldBoundItemsInPipeline() {
+        AtomicInteger inPipeline = new AtomicInteger();
+        AtomicInteger maxInPipeline = new AtomicInteger();
+        Queue<Integer> order = new ConcurrentLinkedQueue<>();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(1, Duration.ofMinutes(1))
+                .stage("fetch", 4, 4, item -> {
+                    maxInPipeline.accumulateAndGet(inPipeline.incrementAndGet(), Math::max);
+                    return true;
+                })
+                .stage("build", 4, 4, true, item -> {
+                    order.add(item);
+                    inPipeline.decrementAndGet();
+                    return true;
+                });
+
+        pipeline.run(IntStream.range(0, 20).boxed().toList());
+
+        assertEquals(1, maxInPipeline.get());
+        assertEquals(IntStream.range(0, 20).boxed().toList(), List.copyOf(order));
+    }
+
+    @Test
+    public void shouldLeaveWhenStageThrowsError() {
+        Queue<Integer> last = new ConcurrentLinkedQueue<>();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(1, Duration.ofMinutes(1))
+                .stage("failing", 1, 1, item -> {
+                    if (item == 1) {
+                        throw new AssertionError("Failure of " + item);
+                    }
+                    return true;
+                })
+                .stage("last", 1, 1, last::add);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> pipeline.run(List.of(1, 2, 3)));
+
+        assertEquals(List.of(2, 3), List.copyOf(last));
+    }
+}
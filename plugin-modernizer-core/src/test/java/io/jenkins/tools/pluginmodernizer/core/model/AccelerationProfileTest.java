@@ -0,0 +1,87 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class AccelerationProfileTest {
+
+    @TempDir
+    private Path cachePath;
+
+    @Test
+    public void shouldNotAccelerateBaseline() {
+        for (GoalType type : GoalType.values()) {
+            assertEquals(List.of(), AccelerationProfile.NONE.getArgs(type, 4, "1C"));
+        }
+    }
+
+    @Test
+    public void shouldSkipChecksOfQuickBuilds() {
+        List<String> args = AccelerationProfile.SAFE.getArgs(GoalType.QUICK_BUILD, 1, null);
+        assertFalse(args.stream().anyMatch(arg -> arg.startsWith("-T")));
+        assertTrue(args.contains("-Dspotbugs.skip=true"));
+        assertTrue(args.contains("-Dmaven.javadoc.skip=true"));
+        assertFalse(args.contains("-Denforcer.skip=true"));
+        assertEquals(args, AccelerationProfile.SAFE.getArgs(GoalType.METADATA, 1, null));
+    }
+
+    @Test
+    public void shouldSkipEnforcerOfFastQuickBuilds() {
+        List<String> args = AccelerationProfile.FAST.getArgs(GoalType.QUICK_BUILD, 1, null);
+        assertTrue(args.contains("-Dspotbugs.skip=true"));
+        assertTrue(args.contains("-Denforcer.skip=true"));
+    }
+
+    @Test
+    public void shouldKeepChecksOfSafeVerify() {
+        assertEquals(
+                List.of("-T2", "-Dmaven.javadoc.skip=true"),
+                AccelerationProfile.SAFE.getArgs(GoalType.VERIFY, 2, null));
+        assertEquals(
+                List.of("-T4", "-Dmaven.javadoc.skip=true", "-DforkCount=2"),
+                AccelerationProfile.SAFE.getArgs(GoalType.VERIFY, 4, "0.5C"));
+    }
+
+    @Test
+    public void shouldSkipStaticAnalysisOfFastVerify() {
+        List<String> args = AccelerationProfile.FAST.getArgs(GoalType.VERIFY, 2, null);
+        assertTrue(args.contains("-Dspotbugs.skip=true"));
+        assertTrue(args.contains("-DforkCount=2"));
+        assertFalse(args.contains("-Denforcer.skip=true"));
+    }
+
+    @Test
+    public void shouldDeriveForkCount() {
+        assertEquals(1, AccelerationProfile.getForkCount(null, 4));
+        assertEquals(4, AccelerationProfile.getForkCount("1C", 4));
+        assertEquals(4, AccelerationProfile.getForkCount("2C", 4));
+        assertEquals(2, AccelerationProfile.getForkCount("2", 4));
+        assertEquals(1, AccelerationProfile.getForkCount("2", 1));
+        assertEquals(1, AccelerationProfile.getForkCount("${forkCount}", 4));
+    }
+
+    @Test
+    public void shouldStoreBaseline() {
+        CacheManager cacheManager = new CacheManager(cachePath);
+        cacheManager.init();
+        BuildTimes times = new BuildTimes(cacheManager, Path.of("sample-plugin"));
+        times.putBaseline(Map.of("verify", Duration.ofSeconds(90), "clean", Duration.ofMillis(1500)));
+        times.save();
+
+        BuildTimes cached =
+                cacheManager.get(Path.of("sample-plugin"), CacheManager.BUILD_TIMES_CACHE_KEY, BuildTimes.class, false);
+        assertEquals(Duration.ofSeconds(90), cached.getBaseline("verify"));
+        assertEquals(Duration.ofMillis(1500), cached.getBaseline("clean"));
+        assertNull(cached.getBaseline("compile"));
+    }
+}
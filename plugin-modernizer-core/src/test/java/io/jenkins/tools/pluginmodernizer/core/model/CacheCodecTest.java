@@ -0,0 +1,106 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import io.jenkins.tools.pluginmodernizer.core.utils.JsonUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class CacheCodecTest {
+
+    private static final String HEALTH_SCORE =
+            """
+            {
+              "plugins": {
+                "git": { "value": 98.5 },
+                "git-client": { "value": 100 },
+                "unscored": {}
+              },
+              "key": "health-score",
+              "path": "."
+            }
+            """;
+
+    @Test
+    public void shouldRoundTrip() throws Exception {
+        HealthScoreData data = JsonUtils.fromJson(HEALTH_SCORE, HealthScoreData.class);
+        for (CacheCodec codec : CacheCodec.values()) {
+            byte[] encoded = codec.encode(data);
+            assertEquals(codec, CacheCodec.detect(encoded));
+            HealthScoreData decoded = codec.decode(encoded, HealthScoreData.class);
+            assertEquals(CacheManager.HEALTH_SCORE_KEY, decoded.getKey());
+            assertEquals(98.5, decoded.getPlugins().get("git").value());
+            assertEquals(100.0, decoded.getPlugins().get("git-client").value());
+            assertNull(decoded.getPlugins().get("unscored").value());
+            assertEquals(JsonUtils.toJson(data), JsonUtils.toJson(decoded));
+        }
+    }
+
+    @Test
+    public void shouldRoundTripMapsAndValues() throws Exception {
+        Sample sample = new Sample();
+        sample.jdks = new EnumMap<>(Map.of(JDK.JAVA_17, List.of("17.0.1"), JDK.JAVA_21, List.of()));
+        sample.counts = new TreeMap<>(Map.of("a", 1, "b", Integer.MAX_VALUE));
+        sample.total = Long.MAX_VALUE;
+        sample.ratio = 0.25;
+        sample.enabled = true;
+        sample.nested = new Sample();
+        sample.nested.name = "nested";
+
+        for (CacheCodec codec : CacheCodec.values()) {
+            Sample decoded = codec.decode(codec.encode(sample), Sample.class);
+            assertEquals(List.of("17.0.1"), decoded.jdks.get(JDK.JAVA_17));
+            assertEquals(List.of(), decoded.jdks.get(JDK.JAVA_21));
+            assertEquals(Map.of("a", 1, "b", Integer.MAX_VALUE), decoded.counts);
+            assertEquals(Long.MAX_VALUE, decoded.total);
+            assertEquals(0.25, decoded.ratio);
+            assertTrue(decoded.enabled);
+            assertNull(decoded.name);
+            assertEquals("nested", decoded.nested.name);
+            assertNull(decoded.nested.counts);
+            assertEquals(JsonUtils.toJson(sample), JsonUtils.toJson(decoded));
+        }
+    }
+
+    @Test
+    public void shouldRejectTruncatedSmile() throws Exception {
+        byte[] encoded = CacheCodec.SMILE.encode(JsonUtils.fromJson(HEALTH_SCORE, HealthScoreData.class));
+        assertThrows(
+                Exception.class,
+                () -> CacheCodec.SMILE.decode(Arrays.copyOf(encoded, encoded.length / 2), HealthScoreData.class));
+    }
+
+    @Test
+    public void shouldBeSmallerThanJson() throws Exception {
+        HealthScoreData data = JsonUtils.fromJson(HEALTH_SCORE, HealthScoreData.class);
+        assertTrue(CacheCodec.SMILE.encode(data).length < CacheCodec.JSON.encode(data).length);
+    }
+
+    @Test
+    public void shouldDetectJson() {
+        assertEquals(CacheCodec.JSON, CacheCodec.detect(HEALTH_SCORE.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(CacheCodec.JSON, CacheCodec.detect(new byte[0]));
+    }
+
+    private static class Sample {
+        private String name;
+        private Map<JDK, List<String>> jdks;
+        private Map<String, Integer> counts;
+        private long total;
+        private double ratio;
+        private boolean enabled;
+        private Sample nested;
+    }
+}
@@ -0,0 +1,52 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class ChangeImpactTest {
+
+    @Test
+    public void shouldHaveNoImpactWithoutChanges() {
+        assertEquals(ChangeImpact.NONE, ChangeImpact.of(List.of()));
+    }
+
+    @Test
+    public void shouldHaveNoImpactForRepositoryFiles() {
+        assertEquals(
+                ChangeImpact.NONE,
+                ChangeImpact.of(List.of(
+                        ".github/dependabot.yml",
+                        ".github/release-drafter.yml",
+                        ".github/CODEOWNERS",
+                        "CODEOWNERS",
+                        "Jenkinsfile",
+                        ".gitignore",
+                        "README.md",
+                        "docs/images/screenshot.png")));
+    }
+
+    @Test
+    public void shouldHavePomImpact() {
+        assertEquals(ChangeImpact.POM, ChangeImpact.of(List.of("pom.xml", "Jenkinsfile")));
+        assertEquals(ChangeImpact.POM, ChangeImpact.of(List.of("plugin/pom.xml")));
+        assertEquals(ChangeImpact.POM, ChangeImpact.of(List.of(".mvn/extensions.xml", ".github/dependabot.yml")));
+    }
+
+    @Test
+    public void shouldHaveSourceImpact() {
+        assertEquals(
+                ChangeImpact.SOURCE,
+                ChangeImpact.of(List.of("pom.xml", "src/main/java/io/jenkins/plugins/sample/HelloWorldBuilder.java")));
+        assertEquals(
+                ChangeImpact.SOURCE,
+                ChangeImpact.of(List.of("src/main/resources/index.jelly", ".github/dependabot.yml")));
+        assertEquals(ChangeImpact.SOURCE, ChangeImpact.of(List.of("plugin/src/test/java/SampleTest.java")));
+        assertEquals(ChangeImpact.SOURCE, ChangeImpact.of(List.of("Jenkinsfile", "build.gradle")));
+        assertEquals(ChangeImpact.SOURCE, ChangeImpact.of(List.of("plugin/Jenkinsfile")));
+    }
+}
@@ -0,0 +1,43 @@
+package io.jenkins.tools.pluginmodernizer.core.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class OutcomeLedgerTest {
+
+    @TempDir
+    private Path cachePath;
+
+    @Test
+    public void shouldKeyRunsByRecipeCommitVersionAndOptions() {
+        String key = OutcomeLedger.key("recipe", "abc123", "1.0", "{}");
+        assertEquals(key, OutcomeLedger.key("recipe", "abc123", "1.0", "{}"));
+        assertNotEquals(key, OutcomeLedger.key("other-recipe", "abc123", "1.0", "{}"));
+        assertNotEquals(key, OutcomeLedger.key("recipe", "def456", "1.0", "{}"));
+        assertNotEquals(key, OutcomeLedger.key("recipe", "abc123", "1.1", "{}"));
+        assertNotEquals(key, OutcomeLedger.key("recipe", "abc123", "1.0", "{\"option\":true}"));
+        assertNotEquals(OutcomeLedger.key("ab", "c", "1.0", "{}"), OutcomeLedger.key("a", "bc", "1.0", "{}"));
+    }
+
+    @Test
+    public void shouldStoreOutcomes() {
+        CacheManager cacheManager = new CacheManager(cachePath);
+        cacheManager.init();
+        String key = OutcomeLedger.key("recipe", "abc123", "1.0", "{}");
+        OutcomeLedger ledger = new OutcomeLedger(cacheManager, Path.of("sample-plugin"));
+        ledger.putOutcome(key, PluginOutcome.PULL_REQUEST);
+        ledger.save();
+
+        OutcomeLedger cached = cacheManager.get(
+                Path.of("sample-plugin"), CacheManager.OUTCOME_LEDGER_CACHE_KEY, OutcomeLedger.class, false);
+        assertEquals(PluginOutcome.PULL_REQUEST, cached.getOutcome(key));
+        assertNull(cached.getOutcome(OutcomeLedger.key("recipe", "def456", "1.0", "{}")));
+    }
+}
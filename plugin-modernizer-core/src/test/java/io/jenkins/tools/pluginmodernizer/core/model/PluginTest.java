@@ -5,11 +5,16 @@ import static org.mockito.Mockito.*;
 
 import io.jenkins.tools.pluginmodernizer.core.config.Config;
 import io.jenkins.tools.pluginmodernizer.core.config.Settings;
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
 import io.jenkins.tools.pluginmodernizer.core.github.GHService;
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
 import io.jenkins.tools.pluginmodernizer.core.impl.MavenInvoker;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.mockito.Mock;
@@ -290,6 +295,40 @@ public class PluginTest {
         assertTrue(plugin.hasErrors());
     }
 
+    @Test
+    public void testMetadataByFingerprint(@TempDir Path tempDir) throws Exception {
+        doReturn(tempDir).when(config).getCachePath();
+        doReturn("1.0").when(config).getVersion();
+        doReturn("0123456789abcdef").when(ghService).getHeadCommit(any(Plugin.class));
+        CacheManager cacheManager = new CacheManager(tempDir);
+        Plugin plugin = Plugin.build("example").withConfig(config);
+        Path pom = plugin.getLocalRepository().resolve("pom.xml");
+        Files.createDirectories(pom.getParent());
+        Files.writeString(pom, "<project/>");
+
+        plugin.computeMetadataFingerprint(ghService);
+        assertFalse(plugin.loadMetadataByFingerprint(cacheManager));
+        PluginMetadata metadata = new PluginMetadata();
+        metadata.setJdks(Set.of(JDK.JAVA_17));
+        plugin.setMetadata(metadata);
+        plugin.saveMetadataByFingerprint(cacheManager);
+
+        // Same content
+        Plugin unchanged = Plugin.build("example").withConfig(config);
+        unchanged.computeMetadataFingerprint(ghService);
+        assertTrue(unchanged.loadMetadataByFingerprint(cacheManager));
+        assertEquals(Set.of(JDK.JAVA_17), unchanged.getMetadata().getJdks());
+        assertEquals(
+                tempDir.resolve("example").resolve(CacheManager.PLUGIN_METADATA_CACHE_KEY),
+                unchanged.getMetadata().getLocation());
+
+        // Changed pom
+        Files.writeString(pom, "<project><version>2</version></project>");
+        Plugin changed = Plugin.build("example").withConfig(config);
+        changed.computeMetadataFingerprint(ghService);
+        assertFalse(changed.loadMetadataByFingerprint(cacheManager));
+    }
+
     @Test
     public void testToString() {
         Plugin plugin = Plugin.build("example");
@@ -0,0 +1,88 @@
+package io.jenkins.tools.pluginmodernizer.core.recipes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.openrewrite.maven.Assertions.pomXml;
+
+import io.jenkins.tools.pluginmodernizer.core.extractor.PluginMetadata;
+import io.jenkins.tools.pluginmodernizer.core.impl.CacheManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.openrewrite.maven.ChangePropertyValue;
+import org.openrewrite.test.RewriteTest;
+
+/**
+ * Tests for {@link FetchMetadata} and {@link FetchMetadataAfter} running in the same rewrite run as a recipe.
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class FetchMetadataAfterTest implements RewriteTest {
+
+    @Test
+    void shouldCollectMetadataBeforeAndAfterRecipe(TestInfo testInfo) {
+        rewriteRun(
+                spec -> spec.recipes(
+                        new FetchMetadata(testInfo.getDisplayName()),
+                        new ChangePropertyValue("jenkins.version", "2.452.4", false, false),
+                        new FetchMetadataAfter()),
+                // language=xml
+                pomXml(
+                        """
+                        <?xml version="1.0" encoding="UTF-8"?>
+                        <project xmlns="http://maven.apache.org/POM/4.0.0" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd">
+                          <modelVersion>4.0.0</modelVersion>
+                          <groupId>io.jenkins.plugins</groupId>
+                          <artifactId>empty</artifactId>
+                          <version>1.0.0-SNAPSHOT</version>
+                          <packaging>hpi</packaging>
+                          <name>Empty Plugin</name>
+                          <properties>
+                            <jenkins.version>2.426.3</jenkins.version>
+                          </properties>
+                          <dependencyManagement>
+                            <dependencies>
+                              <dependency>
+                                <groupId>org.jenkins-ci.main</groupId>
+                                <artifactId>jenkins-core</artifactId>
+                                <version>${jenkins.version}</version>
+                              </dependency>
+                            </dependencies>
+                          </dependencyManagement>
+                        </project>
+                        """,
+                        """
+                        <?xml version="1.0" encoding="UTF-8"?>
+                        <project xmlns="http://maven.apache.org/POM/4.0.0" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd">
+                          <modelVersion>4.0.0</modelVersion>
+                          <groupId>io.jenkins.plugins</groupId>
+                          <artifactId>empty</artifactId>
+                          <version>1.0.0-SNAPSHOT</version>
+                          <packaging>hpi</packaging>
+                          <name>Empty Plugin</name>
+                          <properties>
+                            <jenkins.version>2.452.4</jenkins.version>
+                          </properties>
+                          <dependencyManagement>
+                            <dependencies>
+                              <dependency>
+                                <groupId>org.jenkins-ci.main</groupId>
+                                <artifactId>jenkins-core</artifactId>
+                                <version>${jenkins.version}</version>
+                              </dependency>
+                            </dependencies>
+                          </dependencyManagement>
+                        </project>
+                        """));
+
+        // Before metadata is only collected during the first cycle, before the recipe changed the POM
+        PluginMetadata before = new PluginMetadata(testInfo.getDisplayName()).refresh();
+        assertEquals("2.426.3", before.getJenkinsVersion());
+        assertEquals("2.426.3", before.getProperties().get("jenkins.version"));
+
+        // After metadata reflects the POM changed by the recipe
+        PluginMetadata after = new PluginMetadata(CacheManager.PLUGIN_METADATA_AFTER_CACHE_KEY).refresh();
+        assertEquals("2.452.4", after.getJenkinsVersion());
+        assertEquals("2.452.4", after.getProperties().get("jenkins.version"));
+        assertEquals("Empty Plugin", after.getPluginName());
+    }
+}
@@ -0,0 +1,86 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.jenkins.tools.pluginmodernizer.core.model.HttpValidators;
+import io.jenkins.tools.pluginmodernizer.core.model.ModernizerException;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+public class HttpUtilsTest {
+
+    private WireMockServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new WireMockServer(options().dynamicPort().gzipDisabled(true));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldDecodeCompressedResponse() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write("{\"a\":\"b\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        server.stubFor(WireMock.get("/data.json")
+                .withHeader("Accept-Encoding", WireMock.containing("gzip"))
+                .willReturn(WireMock.ok().withHeader("Content-Encoding", "gzip").withBody(bytes.toByteArray())));
+
+        Map<?, ?> data = JsonUtils.fromUrl(new URL(server.baseUrl() + "/data.json"), Map.class);
+
+        assertEquals(Map.of("a", "b"), data);
+    }
+
+    @Test
+    public void shouldRevalidateWithValidators() throws Exception {
+        URL url = new URL(server.baseUrl() + "/data.csv");
+        server.stubFor(WireMock.get("/data.csv")
+                .willReturn(WireMock.ok("\"git\",\"1\"")
+                        .withHeader("ETag", "\"v1\"")
+                        .withHeader("Last-Modified", "Wed, 01 Jan 2025 00:00:00 GMT")));
+        server.stubFor(WireMock.get("/data.csv")
+                .withHeader("If-None-Match", WireMock.equalTo("\"v1\""))
+                .willReturn(WireMock.aResponse().withStatus(304)));
+        HttpValidators validators = new HttpValidators(null, Path.of("."), "data");
+
+        assertEquals("\"git\",\"1\"", HttpUtils.get(url, validators, IOUtils::toString));
+        assertTrue(validators.matches(url));
+        assertEquals("\"v1\"", validators.getEtag());
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", validators.getLastModified());
+
+        assertNull(HttpUtils.get(url, validators, IOUtils::toString));
+        server.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/data.csv"))
+                .withHeader("If-Modified-Since", WireMock.equalTo("Wed, 01 Jan 2025 00:00:00 GMT")));
+        assertFalse(validators.matches(new URL(server.baseUrl() + "/other.csv")));
+    }
+
+    @Test
+    public void shouldFailOnUnexpectedStatus() throws Exception {
+        URL url = new URL(server.baseUrl() + "/missing.json");
+        server.stubFor(WireMock.get("/missing.json").willReturn(WireMock.notFound()));
+
+        ModernizerException e = assertThrows(ModernizerException.class, () -> JsonUtils.fromUrl(url, Map.class));
+
+        assertEquals("Failed to get data. Received response code: 404 from " + url, e.getMessage());
+    }
+}
@@ -0,0 +1,299 @@
+package io.jenkins.tools.pluginmodernizer.core.utils;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+@Execution(ExecutionMode.CONCURRENT)
+@DisabledOnOs(OS.WINDOWS)
+public class JdkFetcherTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private WireMockServer server;
+
+    private JdkFetcher fetcher;
+
+    private String archiveName;
+
+    private byte[] archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new WireMockServer(options().dynamicPort());
+        server.start();
+        fetcher = new JdkFetcher(cacheDir, server.baseUrl());
+        archiveName = "OpenJDK21U-" + fetcher.buildJDKFileName(21) + "_21.0.5_11.tar.gz";
+        archive = createArchive();
+        server.stubFor(WireMock.get("/download/" + archiveName)
+                .willReturn(WireMock.ok().withBody(archive)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldDownloadVerifyAndInstall() throws Exception {
+        stubRelease("\"digest\": \"sha256:" + sha256(archive) + "\"");
+
+        Path jdk = fetcher.getJdkPath(21);
+
+        assertEquals(cacheDir.resolve(".jdks").resolve("plugin-modernizer-jdk-21"), jdk);
+        assertEquals("JAVA_VERSION=\"21.0.5\"", Files.readString(jdk.resolve("release")));
+        assertEquals(
+                PosixFilePermissions.fromString("rwxr-xr-x"),
+                Files.getPosixFilePermissions(jdk.resolve("bin").resolve("java")));
+        assertEquals(
+                PosixFilePermissions.fromString("rw-r--r--"), Files.getPosixFilePermissions(jdk.resolve("release")));
+        assertTrue(Files.isSymbolicLink(jdk.resolve("lib").resolve("java")));
+        assertEquals(
+                Path.of("../bin/java"),
+                Files.readSymbolicLink(jdk.resolve("lib").resolve("java")));
+        // Only the installed JDK and its lock file are left
+        try (Stream<Path> files = Files.list(cacheDir.resolve(".jdks"))) {
+            assertEquals(
+                    List.of("plugin-modernizer-jdk-21", "plugin-modernizer-jdk-21.lock"),
+                    files.map(f -> f.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    public void shouldVerifyWithChecksumFile() throws Exception {
+        server.stubFor(WireMock.get("/download/" + archiveName + ".sha256.txt")
+                .willReturn(WireMock.ok(sha256(archive) + "  " + archiveName + "\n")));
+        stubRelease(null);
+
+        Path jdk = fetcher.getJdkPath(21);
+
+        assertTrue(Files.isExecutable(jdk.resolve("bin").resolve("java")));
+    }
+
+    @Test
+    public void shouldRejectChecksumMismatch() throws Exception {
+        stubRelease("\"digest\": \"sha256:" + sha256("corrupted".getBytes(StandardCharsets.UTF_8)) + "\"");
+
+        IOException e = assertThrows(IOException.class, () -> fetcher.getJdkPath(21));
+
+        assertTrue(e.getMessage().startsWith("Checksum mismatch for " + archiveName), e.getMessage());
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve("plugin-modernizer-jdk-21")));
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve(archiveName + ".part")));
+    }
+
+    @Test
+    public void shouldResumePartialDownload() throws Exception {
+        stubRelease("\"digest\": \"sha256:" + sha256(archive) + "\"");
+        int offset = archive.length / 2;
+        Files.createDirectories(cacheDir.resolve(".jdks"));
+        Files.write(cacheDir.resolve(".jdks").resolve(archiveName + ".part"), Arrays.copyOf(archive, offset));
+        server.stubFor(WireMock.get("/download/" + archiveName)
+                .withHeader("Range", WireMock.equalTo("bytes=" + offset + "-"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(206)
+                        .withHeader(
+                                "Content-Range", "bytes %d-%d/%d".formatted(offset, archive.length - 1, archive.length))
+                        .withBody(Arrays.copyOfRange(archive, offset, archive.length))));
+
+        Path jdk = fetcher.getJdkPath(21);
+
+        assertTrue(Files.isExecutable(jdk.resolve("bin").resolve("java")));
+        server.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/download/" + archiveName)));
+        server.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/download/" + archiveName))
+                .withHeader("Range", WireMock.equalTo("bytes=" + offset + "-")));
+    }
+
+    @Test
+    public void shouldDownloadAgainWhenResumedDownloadIsCorrupted() throws Exception {
+        stubRelease("\"digest\": \"sha256:" + sha256(archive) + "\"");
+        int offset = archive.length / 2;
+        Files.createDirectories(cacheDir.resolve(".jdks"));
+        byte[] corrupted = new byte[offset];
+        Arrays.fill(corrupted, (byte) 'x');
+        Files.write(cacheDir.resolve(".jdks").resolve(archiveName + ".part"), corrupted);
+        server.stubFor(WireMock.get("/download/" + archiveName)
+                .withHeader("Range", WireMock.equalTo("bytes=" + offset + "-"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(206)
+                        .withHeader(
+                                "Content-Range", "bytes %d-%d/%d".formatted(offset, archive.length - 1, archive.length))
+                        .withBody(Arrays.copyOfRange(archive, offset, archive.length))));
+
+        Path jdk = fetcher.getJdkPath(21);
+
+        assertTrue(Files.isExecutable(jdk.resolve("bin").resolve("java")));
+        server.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/download/" + archiveName)));
+        server.verify(
+                1,
+                WireMock.getRequestedFor(WireMock.urlEqualTo("/download/" + archiveName))
+                        .withoutHeader("Range"));
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve(archiveName + ".part")));
+    }
+
+    @Test
+    public void shouldInstallOnceWhenRequestedConcurrently() throws Exception {
+        stubRelease("\"digest\": \"sha256:" + sha256(archive) + "\"");
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<Path>> jdks = executor.invokeAll(List.of(
+                    () -> fetcher.getJdkPath(21),
+                    () -> fetcher.getJdkPath(21),
+                    () -> new JdkFetcher(cacheDir, server.baseUrl()).getJdkPath(21),
+                    () -> new JdkFetcher(cacheDir, server.baseUrl()).getJdkPath(21)));
+            for (Future<Path> jdk : jdks) {
+                assertTrue(Files.isExecutable(jdk.get().resolve("bin").resolve("java")));
+            }
+        }
+        server.verify(1, WireMock.getRequestedFor(WireMock.urlEqualTo("/download/" + archiveName)));
+    }
+
+    @Test
+    public void shouldRejectSymbolicLinkOutsideExtractionDirectory() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addLink(tar, "jdk-21.0.5+11/lib/escape", "../../outside", TarConstants.LF_SYMLINK);
+            addEntry(tar, "jdk-21.0.5+11/lib/escape/evil", "evil", 0644);
+        }
+
+        assertArchiveRejected(bytes.toByteArray(), "Symbolic link outside of the extraction directory");
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve("outside")));
+    }
+
+    @Test
+    public void shouldRejectAbsoluteSymbolicLink() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addLink(tar, "jdk-21.0.5+11/lib/escape", cacheDir.toString(), TarConstants.LF_SYMLINK);
+        }
+
+        assertArchiveRejected(bytes.toByteArray(), "Symbolic link outside of the extraction directory");
+    }
+
+    @Test
+    public void shouldRejectEntryWrittenThroughSymbolicLink() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addEntry(tar, "jdk-21.0.5+11/bin/java", "#!/bin/sh\n", 0755);
+            addLink(tar, "jdk-21.0.5+11/lib/bin", "../bin", TarConstants.LF_SYMLINK);
+            addEntry(tar, "jdk-21.0.5+11/lib/bin/java", "evil", 0755);
+        }
+
+        assertArchiveRejected(bytes.toByteArray(), "Archive entry written through a symbolic link");
+    }
+
+    @Test
+    public void shouldRejectHardLinkToTopLevelDirectory() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addLink(tar, "jdk-21.0.5+11/lib/root", "jdk-21.0.5+11", TarConstants.LF_LINK);
+        }
+
+        assertArchiveRejected(bytes.toByteArray(), "Hard link to the top level directory of the archive");
+    }
+
+    /**
+     * Serve an archive and check it is rejected without installing the JDK
+     * @param rejected The archive
+     * @param message The expected start of the error message
+     */
+    private void assertArchiveRejected(byte[] rejected, String message) throws Exception {
+        server.stubFor(WireMock.get("/download/" + archiveName)
+                .willReturn(WireMock.ok().withBody(rejected)));
+        stubRelease("\"digest\": \"sha256:" + sha256(rejected) + "\"");
+
+        IOException e = assertThrows(IOException.class, () -> fetcher.getJdkPath(21));
+
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+        assertFalse(Files.exists(cacheDir.resolve(".jdks").resolve("plugin-modernizer-jdk-21")));
+    }
+
+    /**
+     * Stub the Adoptium releases API with a single release for the archive
+     * @param digest The digest property of the archive asset or null
+     */
+    private void stubRelease(String digest) {
+        String downloadUrl = server.baseUrl() + "/download/" + archiveName;
+        server.stubFor(WireMock.get("/temurin21-binaries/releases")
+                .willReturn(WireMock.okJson(
+                        """
+                        [
+                          {
+                            "tag_name": "jdk-21.0.5+11",
+                            "assets": [
+                              { "name": "%s.sha256.txt", "browser_download_url": "%s.sha256.txt" },
+                              { %s"name": "%s", "browser_download_url": "%s" }
+                            ]
+                          }
+                        ]
+                        """
+                                .formatted(
+                                        archiveName,
+                                        downloadUrl,
+                                        digest != null ? digest + ", " : "",
+                                        archiveName,
+                                        downloadUrl))));
+    }
+
+    private byte[] createArchive() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            addEntry(tar, "jdk-21.0.5+11/release", "JAVA_VERSION=\"21.0.5\"", 0644);
+            addEntry(tar, "jdk-21.0.5+11/bin/java", "#!/bin/sh\n", 0755);
+            TarArchiveEntry link = new TarArchiveEntry("jdk-21.0.5+11/lib/java", TarConstants.LF_SYMLINK);
+            link.setLinkName("../bin/java");
+            tar.putArchiveEntry(link);
+            tar.closeArchiveEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private void addLink(TarArchiveOutputStream tar, String name, String linkName, byte linkFlag) throws IOException {
+        TarArchiveEntry link = new TarArchiveEntry(name, linkFlag);
+        link.setLinkName(linkName);
+        tar.putArchiveEntry(link);
+        tar.closeArchiveEntry();
+    }
+
+    private void addEntry(TarArchiveOutputStream tar, String name, String content, int mode) throws IOException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(data.length);
+        entry.setMode(mode);
+        tar.putArchiveEntry(entry);
+        tar.write(data);
+        tar.closeArchiveEntry();
+    }
+
+    private String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
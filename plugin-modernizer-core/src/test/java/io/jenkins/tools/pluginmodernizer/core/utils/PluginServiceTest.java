@@ -1,8 +1,16 @@
 package io.jenkins.tools.pluginmodernizer.core.utils;
 
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -19,8 +27,17 @@ import java.lang.reflect.Field;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.tuple.Triple;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -156,6 +173,88 @@ class PluginServiceTest {
         assertEquals("valid-git-repo", result);
     }
 
+    @Test
+    public void shouldReuseUpdateCenterIndexWhileCacheEntryIsUnchanged() throws Exception {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+        doReturn(FileTime.fromMillis(1000L))
+                .when(cacheManager)
+                .getLastModifiedTime(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY);
+        PluginService service = getService(config, cacheManager);
+
+        assertEquals("valid-url", service.extractRepoName(Plugin.build("valid-plugin")));
+        assertEquals("valid-git-repo", service.extractRepoName(Plugin.build("valid-plugin-2")));
+        assertEquals("1.0", service.extractVersion(Plugin.build("valid-plugin")));
+        assertFalse(service.isDeprecated(Plugin.build("valid-plugin")));
+
+        verify(cacheManager, times(1)).get(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+    }
+
+    @Test
+    public void shouldReloadUpdateCenterIndexWhenCacheEntryChanged() throws Exception {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+        Mockito.when(cacheManager.getLastModifiedTime(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY))
+                .thenReturn(FileTime.fromMillis(1000L))
+                .thenReturn(FileTime.fromMillis(1000L))
+                .thenReturn(FileTime.fromMillis(2000L));
+        PluginService service = getService(config, cacheManager);
+
+        service.isDeprecated(Plugin.build("valid-plugin"));
+        service.isDeprecated(Plugin.build("valid-plugin"));
+
+        verify(cacheManager, times(2)).get(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+    }
+
+    @Test
+    public void shouldIndexLabelsAndDeprecations() throws Exception {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        UpdateCenterData updateCenterData =
+                setup(config, cacheManager, cacheRoot).getLeft();
+        updateCenterData
+                .getPlugins()
+                .put(
+                        "foo-api",
+                        new UpdateCenterData.UpdateCenterPlugin(
+                                "foo-api",
+                                "1.0",
+                                "https://github.com/jenkinsci/foo-api-plugin",
+                                "main",
+                                "gav",
+                                List.of("api-plugin", "adopt-this-plugin")));
+        updateCenterData
+                .getPlugins()
+                .put(
+                        "bar",
+                        new UpdateCenterData.UpdateCenterPlugin(
+                                "bar",
+                                "1.0",
+                                "https://github.com/jenkinsci/bar-plugin",
+                                "main",
+                                "gav",
+                                List.of("deprecated")));
+        setupUpdateCenterMocks(updateCenterData, cacheManager, cacheRoot);
+        PluginService service = getService(config, cacheManager);
+
+        assertTrue(service.isApiPlugin(Plugin.build("foo-api")));
+        assertTrue(service.isForAdoption(Plugin.build("foo-api")));
+        assertFalse(service.isDeprecated(Plugin.build("foo-api")));
+        assertTrue(service.isDeprecated(Plugin.build("bar")));
+        assertFalse(service.isApiPlugin(Plugin.build("bar")));
+        assertFalse(service.isForAdoption(Plugin.build("valid-plugin")));
+        assertFalse(service.isDeprecated(Plugin.build("not-present")));
+    }
+
     @Test
     public void shouldDownloadPluginVersionDataUpdateCenterData() throws Exception {
 
@@ -275,6 +374,83 @@ class PluginServiceTest {
                 pluginInstallationStatsData.getPlugins().size());
     }
 
+    @Test
+    public void shouldRevalidateExpiredHealthScoreData() throws Exception {
+        WireMockServer server = new WireMockServer(options().dynamicPort());
+        server.start();
+        try {
+            CacheManager cacheManager = new CacheManager(tempDir.resolve("cache"));
+            cacheManager.init();
+            Config config = Mockito.mock(Config.class);
+            HealthScoreData healthScoreData =
+                    setup(config, cacheManager, cacheManager.root()).getMiddle();
+            server.stubFor(WireMock.get("/api/scores")
+                    .willReturn(
+                            WireMock.okJson(JsonUtils.toJson(healthScoreData)).withHeader("ETag", "\"v1\"")));
+            server.stubFor(WireMock.get("/api/scores")
+                    .withHeader("If-None-Match", WireMock.equalTo("\"v1\""))
+                    .willReturn(WireMock.aResponse().withStatus(304)));
+            doReturn(new URL(server.baseUrl() + "/api/scores")).when(config).getPluginHealthScore();
+            PluginService service = getService(config, cacheManager);
+
+            assertEquals(
+                    healthScoreData.getPlugins().size(),
+                    service.getHealthScoreData().getPlugins().size());
+
+            // Expire the entry
+            Path entry = cacheManager.getLocation().resolve(CacheManager.HEALTH_SCORE_KEY);
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+            assertEquals(
+                    healthScoreData.getPlugins().size(),
+                    service.getHealthScoreData().getPlugins().size());
+            assertNotNull(cacheManager.get(cacheManager.root(), CacheManager.HEALTH_SCORE_KEY, HealthScoreData.class));
+            server.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/api/scores")));
+            server.verify(
+                    1,
+                    WireMock.getRequestedFor(WireMock.urlEqualTo("/api/scores"))
+                            .withHeader("If-None-Match", WireMock.equalTo("\"v1\"")));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldFetchDifferentDatasetsConcurrently() throws Exception {
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Path cacheRoot = Mockito.mock(Path.class);
+        Config config = Mockito.mock(Config.class);
+        Triple<UpdateCenterData, HealthScoreData, PluginInstallationStatsData> apis =
+                setup(config, cacheManager, cacheRoot);
+        setupHealthScoreMocks(apis.getMiddle(), cacheManager, cacheRoot);
+
+        // The update center is only returned once the health score was fetched meanwhile
+        CountDownLatch updateCenterFetching = new CountDownLatch(1);
+        CountDownLatch healthScoreFetched = new CountDownLatch(1);
+        doAnswer(invocation -> {
+                    updateCenterFetching.countDown();
+                    assertTrue(
+                            healthScoreFetched.await(10, TimeUnit.SECONDS),
+                            "Health score fetch waited for the update center fetch");
+                    return apis.getLeft();
+                })
+                .when(cacheManager)
+                .get(cacheRoot, CacheManager.UPDATE_CENTER_CACHE_KEY, UpdateCenterData.class);
+        PluginService service = getService(config, cacheManager);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<UpdateCenterData> updateCenterData = executor.submit(service::getUpdateCenterData);
+            assertTrue(updateCenterFetching.await(10, TimeUnit.SECONDS));
+            Future<HealthScoreData> healthScoreData = executor.submit(() -> {
+                HealthScoreData data = service.getHealthScoreData();
+                healthScoreFetched.countDown();
+                return data;
+            });
+            assertSame(apis.getMiddle(), healthScoreData.get(20, TimeUnit.SECONDS));
+            assertSame(apis.getLeft(), updateCenterData.get(20, TimeUnit.SECONDS));
+        }
+    }
+
     /**
      * Get the update center service to test
      * @param cacheManager Cache manager